@@ -0,0 +1,228 @@
+package gol.benchmarks;
+
+import gol.game.GolGrid;
+import gol.game.constants.GameValues;
+import gol.game.engine.ActiveCellEngine;
+import gol.game.engine.BitPackedEngine;
+import gol.game.engine.GolEngine;
+import gol.game.engine.GridBoundary;
+import gol.game.engine.HashLifeEngine;
+import gol.game.engine.LifeRule;
+import gol.game.engine.LookupTableRowKernel;
+import gol.game.engine.OffHeapEngines;
+import gol.game.engine.RowBandStepper;
+import gol.game.engine.RowKernel;
+import gol.game.engine.RowKernels;
+import gol.game.engine.SparseTileEngine;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.SplittableRandom;
+
+/** Initial grids and engines shared by the benchmarks. */
+final class BenchmarkPatterns {
+  static final String SOUP = "soup";
+  static final String SOUP_10 = "soup10";
+  static final String SOUP_50 = "soup50";
+  static final String R_PENTOMINO = "rpentomino";
+  static final String GOSPER_GUN = "gosper";
+
+  private static final long SOUP_SEED = 0x5EED;
+  private static final String[] R_PENTOMINO_ROWS = {".OO", "OO.", ".O."};
+  private static final String[] GOSPER_GUN_ROWS = {
+    "........................O...........",
+    "......................O.O...........",
+    "............OO......OO............OO",
+    "...........O...O....OO............OO",
+    "OO........O.....O...OO..............",
+    "OO........O...O.OO....O.O...........",
+    "..........O.....O.......O...........",
+    "...........O...O....................",
+    "............OO......................"
+  };
+
+  private BenchmarkPatterns() {}
+
+  static int parseWidth(String size) {
+    return Integer.parseInt(size.substring(0, size.indexOf('x')));
+  }
+
+  static int parseHeight(String size) {
+    return Integer.parseInt(size.substring(size.indexOf('x') + 1));
+  }
+
+  /**
+   * Creates the initial grid with the given pattern, where the soups name the percent of their
+   * alive cells, like soup10, so the benchmarks only cross the density with the soups.
+   *
+   * @param pattern The pattern name.
+   * @param width The width of the grid.
+   * @param height The height of the grid.
+   * @return The grid matrix.
+   */
+  static int[][] createGrid(String pattern, int width, int height) {
+    if (pattern.startsWith(SOUP) && pattern.length() > SOUP.length()) {
+      return createGrid(SOUP, width, height, parseSoupDensity(pattern));
+    }
+    return createGrid(pattern, width, height, 0);
+  }
+
+  /**
+   * Returns the probability of a cell being alive in the soup with the given name.
+   *
+   * @param pattern The soup name, with the percent of its alive cells.
+   * @return The density of the soup.
+   */
+  static double parseSoupDensity(String pattern) {
+    return Integer.parseInt(pattern.substring(SOUP.length())) / 100.0;
+  }
+
+  /**
+   * Creates the initial grid with the given pattern. The soup is seeded, so every run starts from
+   * the same grid.
+   *
+   * @param pattern The pattern name.
+   * @param width The width of the grid.
+   * @param height The height of the grid.
+   * @param density The probability of a cell being alive in the soup.
+   * @return The grid matrix.
+   */
+  static int[][] createGrid(String pattern, int width, int height, double density) {
+    int[][] grid = new int[height][width];
+    switch (pattern) {
+      case SOUP:
+        SplittableRandom random = new SplittableRandom(SOUP_SEED);
+        for (int[] row : grid) {
+          for (int columnIndex = 0; columnIndex < width; columnIndex++) {
+            row[columnIndex] =
+                random.nextDouble() < density
+                    ? GameValues.ALIVE_CELL_INT
+                    : GameValues.DEAD_CELL_INT;
+          }
+        }
+        break;
+      case R_PENTOMINO:
+        placeRows(grid, R_PENTOMINO_ROWS, height / 2 - 1, width / 2 - 1);
+        break;
+      case GOSPER_GUN:
+        placeRows(grid, GOSPER_GUN_ROWS, 1, 1);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown pattern " + pattern);
+    }
+    return grid;
+  }
+
+  /**
+   * Creates the engine with the given name for the given grid, evolved with the game of life.
+   *
+   * @param engine The engine name, one of the engine values of the game.
+   * @param grid The grid matrix.
+   * @param width The width of the grid.
+   * @param height The height of the grid.
+   * @return The engine.
+   */
+  static GolEngine createEngine(String engine, int[][] grid, int width, int height) {
+    return createEngine(engine, grid, width, height, LifeRule.CONWAY);
+  }
+
+  /**
+   * Creates the engine with the given name for the given grid and rule. Only the engines with a
+   * rule compiled kernel take rules different from the game of life.
+   *
+   * @param engine The engine name, one of the engine values of the game.
+   * @param grid The grid matrix.
+   * @param width The width of the grid.
+   * @param height The height of the grid.
+   * @param rule The rule that evolves the grid.
+   * @return The engine.
+   */
+  static GolEngine createEngine(
+      String engine, int[][] grid, int width, int height, LifeRule rule) {
+    switch (engine) {
+      case GameValues.GRID_ENGINE:
+        return new GolGrid(
+            grid, width, height, GridBoundary.DEAD, RowBandStepper.sequential(), rule);
+      case GameValues.VECTOR_ENGINE:
+        RowKernel vectorKernel = RowKernels.createVectorKernel(rule);
+        if (vectorKernel == null) {
+          throw new IllegalStateException("The vector engine needs the vector module");
+        }
+        return new GolGrid(
+            grid, width, height, GridBoundary.DEAD, RowBandStepper.sequential(), vectorKernel);
+      case GameValues.LOOKUP_TABLE_ENGINE:
+        return new GolGrid(
+            grid,
+            width,
+            height,
+            GridBoundary.DEAD,
+            RowBandStepper.sequential(),
+            new LookupTableRowKernel(rule));
+      default:
+        break;
+    }
+    if (!rule.isConway()) {
+      throw new IllegalArgumentException("The " + engine + " engine only evolves the game of life");
+    }
+    switch (engine) {
+      case GameValues.BIT_PACKED_ENGINE:
+        return new BitPackedEngine(grid, width, height);
+      case GameValues.HASHLIFE_ENGINE:
+        return new HashLifeEngine(grid, width, height);
+      case GameValues.ACTIVE_CELL_ENGINE:
+        return new ActiveCellEngine(grid, width, height);
+      case GameValues.SPARSE_TILE_ENGINE:
+        return new SparseTileEngine(grid, width, height);
+      case GameValues.OFF_HEAP_ENGINE:
+        return createOffHeapEngine(new BitPackedEngine(grid, width, height));
+      default:
+        throw new IllegalArgumentException("Unknown engine " + engine);
+    }
+  }
+
+  private static GolEngine createOffHeapEngine(GolEngine initial) {
+    try {
+      GolEngine offHeapEngine =
+          OffHeapEngines.create(initial, RowBandStepper.sequential(), null);
+      if (offHeapEngine == null) {
+        throw new IllegalStateException("The offheap engine needs the foreign module");
+      }
+      return offHeapEngine;
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+
+  /**
+   * Frees the memory of the engines that hold it outside the heap, like the off-heap engine.
+   *
+   * @param engine The engine to close.
+   */
+  static void closeEngine(GolEngine engine) throws Exception {
+    if (engine instanceof AutoCloseable) ((AutoCloseable) engine).close();
+  }
+
+  /**
+   * Formats the grid as the population string of the game arguments.
+   *
+   * @param grid The grid matrix.
+   * @return The population string.
+   */
+  static String toPopulationString(int[][] grid) {
+    StringBuilder population = new StringBuilder();
+    for (int rowIndex = 0; rowIndex < grid.length; rowIndex++) {
+      for (int value : grid[rowIndex]) population.append(value);
+      if (rowIndex < grid.length - 1) population.append('#');
+    }
+    return population.toString();
+  }
+
+  private static void placeRows(int[][] grid, String[] rows, int top, int left) {
+    for (int rowIndex = 0; rowIndex < rows.length; rowIndex++) {
+      for (int columnIndex = 0; columnIndex < rows[rowIndex].length(); columnIndex++) {
+        if (rows[rowIndex].charAt(columnIndex) == 'O') {
+          grid[top + rowIndex][left + columnIndex] = GameValues.ALIVE_CELL_INT;
+        }
+      }
+    }
+  }
+}
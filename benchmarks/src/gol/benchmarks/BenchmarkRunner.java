@@ -0,0 +1,29 @@
+package gol.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the gc profiler, which reports the allocation rate and the bytes
+ * allocated per generation. The arguments are the usual jmh command line options, for example a
+ * benchmark name regex, which replaces the default of every benchmark, or {@code -p engine=bits}.
+ */
+public class BenchmarkRunner {
+  private BenchmarkRunner() {}
+
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+    OptionsBuilder builder = new OptionsBuilder();
+    builder.parent(commandLineOptions).addProfiler(GCProfiler.class);
+    if (commandLineOptions.getIncludes().isEmpty()) {
+      builder.include(BenchmarkRunner.class.getPackageName() + ".*Benchmark");
+    }
+    Options options = builder.build();
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,232 @@
+package gol.benchmarks;
+
+import gol.GameOfLife;
+import gol.game.constants.GameValues;
+import gol.game.constants.Identifiers;
+import gol.game.engine.GridBoundary;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Checks that a distributed game on several worker processes of this machine writes the same final
+ * generation as a single process. Every game starts its workers and its coordinator as separate
+ * java processes with the class path of the check, on a free local port, and the output files are
+ * compared byte for byte. The initial generations are soups, a pattern file, a snapshot written by
+ * a checkpoint and a population, with every boundary and from one to four workers, and a pattern
+ * that can not be loaded has to stop the coordinator and every worker without an output. Runs with
+ * {@code --add-modules jdk.incubator.vector} like the game, prints the first failed game with its
+ * logs and exits with status one if any game does not match.
+ */
+public class DistributedCheck {
+  private static final long TIMEOUT_SECONDS = 60;
+  private static final int WIDTH = 150;
+  private static final int HEIGHT = 90;
+  private static final int GENERATIONS = 40;
+  private static final int MAX_WORKERS = 4;
+  private static final String POPULATION = "0110#1110#0011#1#01#111#0101#11";
+  private static final String GLIDER = "x = 3, y = 3, rule = B3/S23\nbo$2bo$3o!\n";
+  private static final String BAD_PATTERN = "x = 3, y = 3, rule = B3/S23\nbo$2bq$3o!\n";
+  private static final String JAVA =
+      Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+
+  private final Path directory;
+
+  private DistributedCheck(Path directory) {
+    this.directory = directory;
+  }
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    Path directory = Files.createTempDirectory("distributed-check");
+    DistributedCheck check = new DistributedCheck(directory);
+    Path pattern = Files.writeString(directory.resolve("glider.rle"), GLIDER);
+    Path badPattern = Files.writeString(directory.resolve("bad.rle"), BAD_PATTERN);
+    Path snapshot = directory.resolve("soup.snap");
+    check.runSingle(
+        "checkpoint",
+        game(
+            WIDTH,
+            HEIGHT,
+            GameValues.GRID_ENGINE,
+            GridBoundary.DEAD,
+            argument(Identifiers.POPULATION_NAME, GameValues.RANDOM_POPULATION),
+            argument(Identifiers.CHECKPOINT_NAME, snapshot),
+            argument(Identifiers.CHECKPOINT_INTERVAL_NAME, GENERATIONS)));
+
+    int checks = 0;
+    for (GridBoundary boundary : GridBoundary.values()) {
+      for (int workers = 1; workers <= MAX_WORKERS; workers++) {
+        String engine =
+            workers % 2 == 0 ? GameValues.LOOKUP_TABLE_ENGINE : GameValues.GRID_ENGINE;
+        String name = boundary.getArgumentName() + " " + engine + " " + workers + " workers ";
+        if (!check.matches(
+                name + "soup",
+                workers,
+                game(
+                    WIDTH,
+                    HEIGHT,
+                    engine,
+                    boundary,
+                    argument(Identifiers.POPULATION_NAME, GameValues.RANDOM_POPULATION),
+                    argument(Identifiers.SEED_NAME, workers)))
+            || !check.matches(
+                name + "pattern",
+                workers,
+                game(WIDTH, HEIGHT, engine, boundary, argument(Identifiers.PATTERN_NAME, pattern)))
+            || !check.matches(
+                name + "snapshot",
+                workers,
+                game(WIDTH, HEIGHT, engine, boundary, argument(Identifiers.RESUME_NAME, snapshot)))
+            || !check.matches(
+                name + "population",
+                workers,
+                game(
+                    9,
+                    2 * MAX_WORKERS,
+                    engine,
+                    boundary,
+                    argument(Identifiers.POPULATION_NAME, POPULATION)))) {
+          System.exit(1);
+        }
+        checks += 4;
+      }
+    }
+    if (!check.stopsOnError(badPattern)) System.exit(1);
+    try (Stream<Path> files = Files.walk(directory)) {
+      for (Path file : files.sorted(Comparator.reverseOrder()).toArray(Path[]::new)) {
+        Files.delete(file);
+      }
+    }
+    System.out.println(checks + " distributed games match the single process game");
+  }
+
+  /** Returns the arguments of a headless game with the given grid and initial generation. */
+  private static List<String> game(
+      int width, int height, String engine, GridBoundary boundary, String... population) {
+    List<String> gameArguments = new ArrayList<>();
+    gameArguments.add(argument(Identifiers.MODE_NAME, GameValues.HEADLESS_MODE));
+    gameArguments.add(argument(Identifiers.SPEED_NAME, 250));
+    gameArguments.add(argument(Identifiers.WIDTH_NAME, width));
+    gameArguments.add(argument(Identifiers.HEIGHT_NAME, height));
+    gameArguments.add(argument(Identifiers.GENERATIONS_NAME, GENERATIONS));
+    gameArguments.add(argument(Identifiers.ENGINE_NAME, engine));
+    gameArguments.add(argument(Identifiers.BOUNDARY_NAME, boundary.getArgumentName()));
+    gameArguments.addAll(Arrays.asList(population));
+    return gameArguments;
+  }
+
+  private static String argument(char name, Object value) {
+    return name + "=" + value;
+  }
+
+  /** Runs the game in a single process and in the workers, and compares their outputs. */
+  private boolean matches(String name, int workers, List<String> gameArguments)
+      throws IOException, InterruptedException {
+    Path singleOutput = directory.resolve("single.txt");
+    Path distributedOutput = directory.resolve("distributed.txt");
+    Files.deleteIfExists(singleOutput);
+    Files.deleteIfExists(distributedOutput);
+    runSingle(name, withArgument(gameArguments, Identifiers.OUTPUT_NAME, singleOutput));
+    runDistributed(
+        name, workers, withArgument(gameArguments, Identifiers.OUTPUT_NAME, distributedOutput));
+    if (!Files.exists(singleOutput) || !Files.exists(distributedOutput)) {
+      System.out.println(name + " did not write its output, the logs are in " + directory);
+      return false;
+    } else if (Files.mismatch(singleOutput, distributedOutput) != -1) {
+      System.out.println(name + " differs from the single process game");
+      return false;
+    }
+    return true;
+  }
+
+  /** Runs the workers with a pattern that can not be loaded, every process has to end. */
+  private boolean stopsOnError(Path badPattern) throws IOException, InterruptedException {
+    Path output = directory.resolve("bad.txt");
+    List<String> gameArguments =
+        game(
+            WIDTH,
+            HEIGHT,
+            GameValues.GRID_ENGINE,
+            GridBoundary.DEAD,
+            argument(Identifiers.PATTERN_NAME, badPattern),
+            argument(Identifiers.OUTPUT_NAME, output));
+    if (!runDistributed("bad pattern", MAX_WORKERS, gameArguments)) return false;
+    if (Files.exists(output)) {
+      System.out.println("The bad pattern was loaded by the workers");
+      return false;
+    }
+    return true;
+  }
+
+  private static List<String> withArgument(List<String> gameArguments, char name, Object value) {
+    List<String> arguments = new ArrayList<>(gameArguments);
+    arguments.add(argument(name, value));
+    return arguments;
+  }
+
+  private void runSingle(String name, List<String> gameArguments)
+      throws IOException, InterruptedException {
+    await(name, start(directory.resolve("single.log"), gameArguments));
+  }
+
+  /**
+   * Runs the coordinator and the workers of the game, and waits until every process ends.
+   *
+   * @return True if every process ended before the timeout.
+   */
+  private boolean runDistributed(String name, int workers, List<String> gameArguments)
+      throws IOException, InterruptedException {
+    String address = "localhost:" + findFreePort();
+    List<Process> processes = new ArrayList<>();
+    for (int worker = 1; worker <= workers; worker++) {
+      processes.add(
+          start(
+              directory.resolve("worker" + worker + ".log"),
+              List.of(
+                  argument(Identifiers.MODE_NAME, GameValues.WORKER_MODE),
+                  argument(Identifiers.ADDRESS_NAME, address))));
+    }
+    List<String> coordinatorArguments =
+        withArgument(gameArguments, Identifiers.WORKERS_NAME, workers);
+    coordinatorArguments.add(argument(Identifiers.ADDRESS_NAME, address));
+    processes.add(start(directory.resolve("coordinator.log"), coordinatorArguments));
+    boolean ended = true;
+    for (Process process : processes) ended &= await(name, process);
+    return ended;
+  }
+
+  private static int findFreePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+
+  private static Process start(Path log, List<String> gameArguments) throws IOException {
+    List<String> command = new ArrayList<>();
+    command.add(JAVA);
+    command.add("--add-modules");
+    command.add("jdk.incubator.vector");
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add(GameOfLife.class.getName());
+    command.addAll(gameArguments);
+    ProcessBuilder builder = new ProcessBuilder(command).redirectErrorStream(true);
+    return builder.redirectOutput(log.toFile()).start();
+  }
+
+  /** Waits for the process, which is killed if it does not end before the timeout. */
+  private boolean await(String name, Process process) throws InterruptedException {
+    if (process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS)) return true;
+    process.destroyForcibly();
+    System.out.println(name + " did not end, the logs are in " + directory);
+    return false;
+  }
+}
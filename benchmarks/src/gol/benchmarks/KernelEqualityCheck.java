@@ -0,0 +1,95 @@
+package gol.benchmarks;
+
+import gol.game.GolGrid;
+import gol.game.constants.GameValues;
+import gol.game.engine.GridBoundary;
+import gol.game.engine.LifeRule;
+import gol.game.engine.LookupTableRowKernel;
+import gol.game.engine.RowBandStepper;
+import gol.game.engine.RowKernel;
+import gol.game.engine.RowKernels;
+
+/**
+ * Checks that the vector and the lookup table kernels evolve every cell and every row hash like the
+ * scalar kernel of the grid. The widths are around the vector lanes and the words of the row hash,
+ * so the whole vectors, the cells after them and the last partial word are all compared, with every
+ * boundary and the rules of the benchmarks. Runs with {@code --add-modules jdk.incubator.vector},
+ * prints the first different cell and exits with status one if any kernel does not match.
+ */
+public class KernelEqualityCheck {
+  private static final int[] WIDTHS = {1, 2, 7, 8, 9, 15, 16, 17, 31, 33, 63, 64, 65, 127, 200};
+  private static final int HEIGHT = 37;
+  private static final int GENERATIONS = 64;
+  private static final double[] DENSITIES = {0.2, 0.5};
+  private static final String[] RULES = {
+    "B3/S23", "B36/S23", "B3678/S34678", "B2/S", "B/S012345678"
+  };
+
+  private KernelEqualityCheck() {}
+
+  public static void main(String[] args) {
+    if (RowKernels.createVectorKernel(LifeRule.CONWAY) == null) {
+      System.out.println("The vector module is not present, run with --add-modules");
+      System.exit(1);
+    }
+    int checks = 0;
+    for (String ruleName : RULES) {
+      LifeRule rule = LifeRule.parse(ruleName);
+      for (GridBoundary boundary : GridBoundary.values()) {
+        for (int width : WIDTHS) {
+          for (double density : DENSITIES) {
+            int[][] grid =
+                BenchmarkPatterns.createGrid(BenchmarkPatterns.SOUP, width, HEIGHT, density);
+            String name = ruleName + " " + boundary.getArgumentName() + " " + width + "x" + HEIGHT;
+            if (!matches(GameValues.VECTOR_ENGINE, name, grid, boundary, rule)
+                || !matches(GameValues.LOOKUP_TABLE_ENGINE, name, grid, boundary, rule)) {
+              System.exit(1);
+            }
+            checks += 2;
+          }
+        }
+      }
+    }
+    System.out.println(checks + " kernel runs match the scalar kernel cell for cell");
+  }
+
+  private static boolean matches(
+      String engine, String name, int[][] grid, GridBoundary boundary, LifeRule rule) {
+    int width = grid[0].length;
+    RowKernel kernel =
+        GameValues.VECTOR_ENGINE.equals(engine)
+            ? RowKernels.createVectorKernel(rule)
+            : new LookupTableRowKernel(rule);
+    GolGrid scalarGrid =
+        new GolGrid(grid, width, HEIGHT, boundary, RowBandStepper.sequential(), rule);
+    GolGrid kernelGrid =
+        new GolGrid(grid, width, HEIGHT, boundary, RowBandStepper.sequential(), kernel);
+    for (int generation = 1; generation <= GENERATIONS; generation++) {
+      scalarGrid.updateGridLife();
+      kernelGrid.updateGridLife();
+      for (int rowIndex = 0; rowIndex < HEIGHT; rowIndex++) {
+        for (int columnIndex = 0; columnIndex < width; columnIndex++) {
+          if (scalarGrid.isCellAlive(rowIndex, columnIndex)
+              != kernelGrid.isCellAlive(rowIndex, columnIndex)) {
+            System.out.println(
+                engine
+                    + " "
+                    + name
+                    + " differs at generation "
+                    + generation
+                    + ", row "
+                    + rowIndex
+                    + ", column "
+                    + columnIndex);
+            return false;
+          }
+        }
+      }
+      if (scalarGrid.getGridHash() != kernelGrid.getGridHash()) {
+        System.out.println(engine + " " + name + " hash differs at generation " + generation);
+        return false;
+      }
+    }
+    return true;
+  }
+}
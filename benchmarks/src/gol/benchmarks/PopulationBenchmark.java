@@ -0,0 +1,86 @@
+package gol.benchmarks;
+
+import gol.game.GolGrid;
+import gol.game.engine.RowBandStepper;
+import gol.game.population.RandomSoupGenerator;
+import gol.inputOutput.readers.PopulationFormatException;
+import gol.inputOutput.readers.PopulationLoader;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to create and load the initial population of a grid. The population strings are loaded for
+ * every pattern, and the random soups are filled for every density.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PopulationBenchmark {
+  private static final long SOUP_SEED = 0x5EED;
+
+  @Benchmark
+  public GolGrid loadPopulationString(PopulationString populationString)
+      throws PopulationFormatException {
+    PopulationLoader.load(populationString.population, populationString.grid);
+    return populationString.grid;
+  }
+
+  @Benchmark
+  public GolGrid fillGridWithRandomSoup(Soup soup) {
+    new RandomSoupGenerator(SOUP_SEED, soup.density).fill(soup.grid, RowBandStepper.sequential());
+    return soup.grid;
+  }
+
+  /** The population string of a pattern, and the grid where it is loaded. */
+  @State(Scope.Thread)
+  public static class PopulationString {
+    @Param({"80x40", "1024x1024"})
+    public String size;
+
+    @Param({"soup10", "soup50", "rpentomino", "gosper"})
+    public String pattern;
+
+    private String population;
+    private GolGrid grid;
+
+    @Setup
+    public void createPopulation() {
+      int width = BenchmarkPatterns.parseWidth(size);
+      int height = BenchmarkPatterns.parseHeight(size);
+      int[][] initialGrid = BenchmarkPatterns.createGrid(pattern, width, height);
+      population = BenchmarkPatterns.toPopulationString(initialGrid);
+      grid = new GolGrid(new int[height][width], width, height);
+    }
+  }
+
+  /** The density of a random soup, and the grid where it is filled. */
+  @State(Scope.Thread)
+  public static class Soup {
+    @Param({"80x40", "1024x1024"})
+    public String size;
+
+    @Param({"0.1", "0.5"})
+    public double density;
+
+    private GolGrid grid;
+
+    @Setup
+    public void createGrid() {
+      int width = BenchmarkPatterns.parseWidth(size);
+      int height = BenchmarkPatterns.parseHeight(size);
+      grid = new GolGrid(new int[height][width], width, height);
+    }
+  }
+}
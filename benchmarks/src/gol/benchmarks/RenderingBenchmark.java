@@ -0,0 +1,48 @@
+package gol.benchmarks;
+
+import gol.game.engine.GolEngine;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Frames per second of the string renderer format of every engine. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderingBenchmark {
+  @Param({"grid", "bits", "active", "sparse", "hashlife"})
+  public String engine;
+
+  @Param({"80x40", "1024x1024"})
+  public String size;
+
+  @Param({"0.1", "0.5"})
+  public double density;
+
+  private GolEngine gridEngine;
+
+  @Setup
+  public void createEngine() {
+    int width = BenchmarkPatterns.parseWidth(size);
+    int height = BenchmarkPatterns.parseHeight(size);
+    int[][] grid = BenchmarkPatterns.createGrid(BenchmarkPatterns.SOUP, width, height, density);
+    gridEngine = BenchmarkPatterns.createEngine(engine, grid, width, height);
+  }
+
+  @Benchmark
+  public String toRendererFormat() {
+    return gridEngine.toRendererFormat();
+  }
+}
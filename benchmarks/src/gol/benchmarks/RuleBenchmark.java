@@ -0,0 +1,55 @@
+package gol.benchmarks;
+
+import gol.game.engine.GolEngine;
+import gol.game.engine.LifeRule;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Generations per second of the rule compiled kernels with the game of life, HighLife, Day & Night
+ * and Seeds, which should all evolve at the same speed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class RuleBenchmark {
+  @Param({"grid", "vector", "table"})
+  public String engine;
+
+  @Param({"B3/S23", "B36/S23", "B3678/S34678", "B2/S"})
+  public String rule;
+
+  @Param({"1024x1024"})
+  public String size;
+
+  private GolEngine gridEngine;
+
+  /** Starts every iteration from the same soup, so the rules that settle do not run empty grids. */
+  @Setup(Level.Iteration)
+  public void createEngine() {
+    int width = BenchmarkPatterns.parseWidth(size);
+    int height = BenchmarkPatterns.parseHeight(size);
+    int[][] grid = BenchmarkPatterns.createGrid(BenchmarkPatterns.SOUP, width, height, 0.5);
+    gridEngine =
+        BenchmarkPatterns.createEngine(engine, grid, width, height, LifeRule.parse(rule));
+  }
+
+  @Benchmark
+  public void updateGridLife() {
+    gridEngine.updateGridLife();
+  }
+}
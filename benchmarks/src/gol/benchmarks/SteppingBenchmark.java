@@ -0,0 +1,77 @@
+package gol.benchmarks;
+
+import gol.game.engine.GolEngine;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Generations per second of every engine. The cell updates counter reports the cells evolved per
+ * second, which compares grids of different sizes. The forks add the vector and the foreign
+ * modules, which the vector and the offheap engines need.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector,jdk.incubator.foreign")
+public class SteppingBenchmark {
+  @Param({"grid", "vector", "table", "bits", "offheap", "active", "sparse", "hashlife"})
+  public String engine;
+
+  @Param({"80x40", "1024x1024"})
+  public String size;
+
+  @Param({"soup10", "soup50", "rpentomino", "gosper"})
+  public String pattern;
+
+  private GolEngine gridEngine;
+  private long cellsPerGeneration;
+
+  /** Starts every iteration from the initial pattern, so the soups do not settle. */
+  @Setup(Level.Iteration)
+  public void createEngine() {
+    int width = BenchmarkPatterns.parseWidth(size);
+    int height = BenchmarkPatterns.parseHeight(size);
+    int[][] grid = BenchmarkPatterns.createGrid(pattern, width, height);
+    gridEngine = BenchmarkPatterns.createEngine(engine, grid, width, height);
+    cellsPerGeneration = (long) width * height;
+  }
+
+  /** Frees the memory of the engines that hold it outside the heap before the next iteration. */
+  @TearDown(Level.Iteration)
+  public void closeEngine() throws Exception {
+    BenchmarkPatterns.closeEngine(gridEngine);
+  }
+
+  @Benchmark
+  public void updateGridLife(CellUpdates cellUpdates) {
+    gridEngine.updateGridLife();
+    cellUpdates.cellUpdates += cellsPerGeneration;
+  }
+
+  /** Counter of the evolved cells, reported by jmh as a rate. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class CellUpdates {
+    public long cellUpdates;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      cellUpdates = 0;
+    }
+  }
+}
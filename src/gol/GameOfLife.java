@@ -1,21 +1,66 @@
 package gol;
 
+import gol.game.census.SoupCensusRunner;
 import gol.game.configuration.GameConfiguration;
+import gol.game.constants.ErrorReturns;
+import gol.game.constants.GameValues;
+import gol.game.constants.Identifiers;
+import gol.game.distributed.DistributedWorker;
+import gol.game.generator.GolFrameGeneratorAdapter;
 import gol.game.generator.GolGeneratorImpl;
+import gol.game.generator.PipelinedFrameGenerator;
+import gol.game.generator.ReplayGenerator;
+import gol.game.headless.HeadlessRunner;
+import gol.game.metrics.MetricsReporter;
+import gol.game.metrics.SimulationMetrics;
+import gol.game.recording.RunRecording;
+import gol.game.validations.ArgumentValidator;
 import gol.inputOutput.printers.ErrorPrinter;
 import gol.inputOutput.printers.WelcomePrinter;
+import gol.inputOutput.readers.ArgumentReader;
+import gol.inputOutput.renderers.AnsiTerminalRenderer;
+import gol.utils.Logger;
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.Objects;
 
 public class GameOfLife {
 
   public static void main(String[] args) {
     WelcomePrinter.printWelcome("This is The Game of Life!");
+    if (isMode(args, GameValues.WORKER_MODE)) {
+      runWorker(args);
+      return;
+    } else if (isMode(args, GameValues.REPLAY_MODE)) {
+      runReplay(args);
+      return;
+    }
     GameConfiguration gameConfiguration = new GameConfiguration(args);
 
-    if (gameConfiguration.hasValidConfiguration()) {
-      gameConfiguration.fillGameGrid();
+    if (gameConfiguration.hasValidConfiguration() && gameConfiguration.fillGameGrid()) {
       gameConfiguration.printConfiguration();
 
-      GolGenerator generator = new GolGeneratorImpl(gameConfiguration.getGameGrid());
+      if (gameConfiguration.isCensus()) {
+        SoupCensusRunner.run(gameConfiguration);
+        return;
+      }
+
+      if (gameConfiguration.isHeadless()) {
+        HeadlessRunner.run(gameConfiguration);
+        gameConfiguration.closeGameEngine();
+        return;
+      }
+
+      SimulationMetrics metrics = gameConfiguration.getSimulationMetrics();
+      MetricsReporter reporter = null;
+      if (metrics != null && gameConfiguration.getMetricsDumpSeconds() > 0) {
+        reporter = MetricsReporter.start(metrics, gameConfiguration.getMetricsDumpSeconds());
+      }
+
+      GolFrameGenerator frameGenerator =
+          new GolGeneratorImpl(
+              gameConfiguration.getGameEngine(), 0, gameConfiguration.createCycleDetector());
       GolSettings settings =
           new GolSettings(
               gameConfiguration.getHeight(),
@@ -23,9 +68,136 @@ public class GameOfLife {
               gameConfiguration.getSpeed(),
               gameConfiguration.getGenerations());
 
-      SwingRenderer.render(generator, settings);
+      PipelinedFrameGenerator pipeline = null;
+      if (gameConfiguration.getLookahead() > 0) {
+        pipeline =
+            new PipelinedFrameGenerator(
+                    frameGenerator,
+                    gameConfiguration.getWidth(),
+                    gameConfiguration.getHeight(),
+                    gameConfiguration.getLookahead(),
+                    0,
+                    gameConfiguration.getGenerations())
+                .start();
+        frameGenerator = pipeline;
+        if (metrics != null) metrics.setQueueDepthGauge(pipeline::getReadyFrameCount);
+      }
+
+      Runnable closeGame = createCloseGame(gameConfiguration, pipeline, reporter);
+      if (GameValues.ANSI_DISPLAY.equals(gameConfiguration.getDisplay())) {
+        AnsiTerminalRenderer.render(frameGenerator, settings, metrics);
+        closeGame.run();
+      } else {
+        Runtime.getRuntime().addShutdownHook(new Thread(closeGame));
+        SwingRenderer.render(new GolFrameGeneratorAdapter(frameGenerator, metrics), settings);
+      }
     } else {
       ErrorPrinter.printError("The game could not start.");
     }
   }
+
+  /**
+   * Creates the task that stops the lookahead pipeline and the metrics reporter, and closes the
+   * engine, which frees the off-heap memory and stops the distributed workers. The swing window
+   * exits the jvm when it is closed, so the task runs there as a shutdown hook.
+   */
+  private static Runnable createCloseGame(
+      GameConfiguration gameConfiguration,
+      PipelinedFrameGenerator pipeline,
+      MetricsReporter reporter) {
+    return () -> {
+      if (pipeline != null) pipeline.close();
+      if (reporter != null) reporter.close();
+      gameConfiguration.closeGameEngine();
+    };
+  }
+
+  /**
+   * Checks if the arguments start the given mode. The worker and the replay modes do not read the
+   * grid arguments, the worker takes them from its coordinator and the replay from its recording.
+   */
+  private static boolean isMode(String[] args, String mode) {
+    return mode.equals(
+        ArgumentReader.readOptionalStringArg(args, Identifiers.MODE_NAME, GameValues.RENDER_MODE));
+  }
+
+  private static void runWorker(String[] args) {
+    String address =
+        ArgumentReader.readOptionalStringArg(
+            args, Identifiers.ADDRESS_NAME, GameValues.DEFAULT_DISTRIBUTED_ADDRESS);
+    if (address != null && ArgumentValidator.validateAddress(address)) {
+      DistributedWorker.run(address);
+    } else {
+      ErrorPrinter.printError("The worker could not start.");
+    }
+  }
+
+  /**
+   * Renders the generations of a recorded run, from its first generation or from the given one,
+   * without evolving them. The recording stays open while the swing window renders it.
+   */
+  private static void runReplay(String[] args) {
+    String recordingPath = ArgumentReader.readStringArg(args, Identifiers.RECORDING_NAME);
+    int speed = ArgumentReader.readNumericArgument(args, Identifiers.SPEED_NAME);
+    String display =
+        ArgumentReader.readOptionalStringArg(
+            args, Identifiers.DISPLAY_NAME, GameValues.SWING_DISPLAY);
+    if (Objects.equals(recordingPath, ErrorReturns.stringErrorReturn)) {
+      ErrorPrinter.printException("The replay needs the recording file");
+      ErrorPrinter.printError("The replay could not start.");
+      return;
+    }
+    if (speed == ErrorReturns.intErrorReturn
+        || Objects.equals(display, ErrorReturns.stringErrorReturn)
+        || !ArgumentValidator.validateSpeed(speed)
+        || !ArgumentValidator.validateDisplay(display)) {
+      ErrorPrinter.printError("The replay could not start.");
+      return;
+    }
+
+    RunRecording recording;
+    try {
+      recording = RunRecording.open(Paths.get(recordingPath));
+    } catch (IOException | InvalidPathException exception) {
+      ErrorPrinter.printException("The recording can not be replayed: " + exception.getMessage());
+      ErrorPrinter.printError("The replay could not start.");
+      return;
+    }
+    long firstGeneration =
+        ArgumentReader.containsArgument(args, Identifiers.REPLAY_FIRST_NAME)
+            ? ArgumentReader.readNumericArgument(args, Identifiers.REPLAY_FIRST_NAME)
+            : recording.getFirstGeneration();
+    long generations =
+        ArgumentReader.containsArgument(args, Identifiers.GENERATIONS_NAME)
+            ? ArgumentReader.readNumericArgument(args, Identifiers.GENERATIONS_NAME)
+            : Math.min(recording.getLastGeneration() - firstGeneration + 1, Integer.MAX_VALUE);
+    if (!ArgumentValidator.validateReplay(
+        firstGeneration,
+        generations,
+        recording.getFirstGeneration(),
+        recording.getLastGeneration())) {
+      ErrorPrinter.printError("The replay could not start.");
+      return;
+    }
+    Logger.logConfigurationValue("The recording is", recordingPath);
+    Logger.logConfigurationValue("The rule is", recording.getRule());
+    Logger.logConfigurationValue(
+        "The recorded generations are",
+        recording.getFirstGeneration() + " to " + recording.getLastGeneration());
+    Logger.logConfigurationValue("The first replayed generation is", firstGeneration);
+
+    ReplayGenerator generator = new ReplayGenerator(recording, firstGeneration);
+    GolSettings settings =
+        new GolSettings(recording.getHeight(), recording.getWidth(), speed, (int) generations);
+    if (GameValues.ANSI_DISPLAY.equals(display)) {
+      AnsiTerminalRenderer.render(generator, settings);
+      try {
+        recording.close();
+      } catch (IOException exception) {
+        ErrorPrinter.printError("The recording could not be closed: " + exception.getMessage());
+      }
+    } else {
+      SwingRenderer.render(new GolFrameGeneratorAdapter(generator), settings);
+    }
+  }
 }
@@ -0,0 +1,32 @@
+package gol;
+
+/**
+ * Read only view of a generation. A frame is not a copy: it is backed by the generator that
+ * returned it, and it is only valid until the next frame is asked to that generator.
+ */
+public interface GolFrame {
+  /**
+   * Checks if the cell in the given position is alive in the generation of the frame.
+   *
+   * @param rowIndex The row index of the cell.
+   * @param columnIndex The column index of the cell.
+   * @return True if the cell is alive, false if not.
+   */
+  boolean isCellAlive(int rowIndex, int columnIndex);
+
+  /**
+   * Returns 64 cells of a row packed in a word, the cell of the lowest column in the lowest bit.
+   * The bits after the last column of the row are zero.
+   *
+   * @param rowIndex The row index of the cells.
+   * @param wordIndex The index of the word, which holds the columns from 64 times the index.
+   * @return The word with the packed cells.
+   */
+  long getRowWord(int rowIndex, int wordIndex);
+
+  long getGeneration();
+
+  int getWidth();
+
+  int getHeight();
+}
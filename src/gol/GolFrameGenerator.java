@@ -0,0 +1,16 @@
+package gol;
+
+/**
+ * Generator that hands the generations as frames instead of strings, so the renderers can read the
+ * cells without the generation being formatted and parsed back.
+ */
+public interface GolFrameGenerator {
+  /**
+   * Returns the frame for the given generation. The frame is reused, so it is only valid until the
+   * next call.
+   *
+   * @param generation The generation to return.
+   * @return The read only frame of the generation.
+   */
+  GolFrame getNextGenerationFrame(long generation);
+}
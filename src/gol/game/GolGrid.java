@@ -1,71 +1,189 @@
 package gol.game;
 
 import gol.game.constants.GameValues;
+import gol.game.engine.GolEngine;
+import gol.game.engine.GridHashes;
+import gol.game.engine.GridBoundary;
+import gol.game.engine.GridWriter;
+import gol.game.engine.LifeRule;
+import gol.game.engine.RowBandStepper;
+import gol.game.engine.RowKernel;
+import gol.game.engine.StepCounter;
+
+/**
+ * The gol grid class for representing the game grid. The cells are stored surrounded by a one cell
+ * halo of ghost cells, so every cell of the grid has its eight neighbours inside the matrix and the
+ * neighbours can be counted without bounds checks. The grid keeps two preallocated matrices and
+ * swaps them on every generation, so evolving the grid does not allocate.
+ */
+public class GolGrid implements GolEngine, GridWriter, StepCounter {
+  private static final int HALO = 1;
 
-/** The gol grid class for representing the game grid. */
-public class GolGrid {
   private final int width;
   private final int height;
+  private final GridBoundary boundary;
+  private final RowBandStepper stepper;
+  private final RowBandStepper.RowRangeUpdater rowRangeUpdater = this::updateRows;
+  private final RowKernel rowKernel;
+  private final long[] rowHashes;
   private int[][] grid;
+  private int[][] nextGrid;
+  private boolean rowHashesValid;
 
   /**
-   * Constructor for the gol grid.
+   * Constructor for the gol grid with dead edges.
    *
    * @param grid The matrix for the game grid.
    * @param width The width of the grid.
    * @param height The height of the grid.
    */
   public GolGrid(int[][] grid, int width, int height) {
-    this.grid = grid;
-    this.width = width;
-    this.height = height;
+    this(grid, width, height, GridBoundary.DEAD);
   }
 
-  private static void reviveRowCell(int columnIndex, int[] row) {
-    row[columnIndex] = 1;
+  /**
+   * Constructor for the gol grid. The given matrix is copied, later changes to it are not seen by
+   * the grid.
+   *
+   * @param grid The matrix for the game grid.
+   * @param width The width of the grid.
+   * @param height The height of the grid.
+   * @param boundary The boundary topology for the grid edges.
+   */
+  public GolGrid(int[][] grid, int width, int height, GridBoundary boundary) {
+    this(grid, width, height, boundary, RowBandStepper.sequential());
   }
 
-  private static void killRowCell(int columnIndex, int[] row) {
-    row[columnIndex] = 0;
+  /**
+   * Constructor for the gol grid. The given matrix is copied, later changes to it are not seen by
+   * the grid.
+   *
+   * @param grid The matrix for the game grid.
+   * @param width The width of the grid.
+   * @param height The height of the grid.
+   * @param boundary The boundary topology for the grid edges.
+   * @param stepper The stepper that decides if the rows are evolved in parallel bands.
+   */
+  public GolGrid(
+      int[][] grid, int width, int height, GridBoundary boundary, RowBandStepper stepper) {
+    this(grid, width, height, boundary, stepper, LifeRule.CONWAY);
   }
 
-  private static boolean isAlive(int columnIndex, int[] row) {
-    return row[columnIndex] == 1;
+  /**
+   * Constructor for the gol grid that evolves its rows with the given rule. The given matrix is
+   * copied, later changes to it are not seen by the grid.
+   *
+   * @param grid The matrix for the game grid.
+   * @param width The width of the grid.
+   * @param height The height of the grid.
+   * @param boundary The boundary topology for the grid edges.
+   * @param stepper The stepper that decides if the rows are evolved in parallel bands.
+   * @param rule The rule that evolves every cell.
+   */
+  public GolGrid(
+      int[][] grid,
+      int width,
+      int height,
+      GridBoundary boundary,
+      RowBandStepper stepper,
+      LifeRule rule) {
+    this(grid, width, height, boundary, stepper, createRowKernel(rule));
   }
 
-  private static boolean canRevive(int cellRowIndex, int cellColumnIndex, int[][] grid) {
-    return countAliveNeighbours(cellRowIndex, cellColumnIndex, grid) == 3;
+  /**
+   * Constructor for the gol grid that evolves its rows with the given kernel. The given matrix is
+   * copied, later changes to it are not seen by the grid.
+   *
+   * @param grid The matrix for the game grid.
+   * @param width The width of the grid.
+   * @param height The height of the grid.
+   * @param boundary The boundary topology for the grid edges.
+   * @param stepper The stepper that decides if the rows are evolved in parallel bands.
+   * @param rowKernel The kernel that evolves every row.
+   */
+  public GolGrid(
+      int[][] grid,
+      int width,
+      int height,
+      GridBoundary boundary,
+      RowBandStepper stepper,
+      RowKernel rowKernel) {
+    this(width, height, boundary, stepper, rowKernel);
+    for (int rowIndex = 0; rowIndex < height; rowIndex++) {
+      System.arraycopy(grid[rowIndex], 0, this.grid[rowIndex + HALO], HALO, width);
+    }
   }
 
-  private static boolean canDie(int cellRowIndex, int cellColumnIndex, int[][] grid) {
-    int neighborsCount = countAliveNeighbours(cellRowIndex, cellColumnIndex, grid);
-    return neighborsCount < 2 || neighborsCount > 3;
+  /**
+   * Constructor for the gol grid with every cell dead, which evolves its rows with the given
+   * kernel. The initial generation is then written with the methods of the grid writer.
+   *
+   * @param width The width of the grid.
+   * @param height The height of the grid.
+   * @param boundary The boundary topology for the grid edges.
+   * @param stepper The stepper that decides if the rows are evolved in parallel bands.
+   * @param rowKernel The kernel that evolves every row.
+   */
+  public GolGrid(
+      int width, int height, GridBoundary boundary, RowBandStepper stepper, RowKernel rowKernel) {
+    this.width = width;
+    this.height = height;
+    this.boundary = boundary;
+    this.stepper = stepper;
+    this.rowKernel = rowKernel;
+    this.grid = new int[height + 2 * HALO][width + 2 * HALO];
+    this.nextGrid = new int[height + 2 * HALO][width + 2 * HALO];
+    this.rowHashes = new long[height];
   }
 
-  private static int countAliveNeighbours(int cellRowIndex, int cellColumnIndex, int[][] grid) {
-    return rightValue(cellRowIndex, cellColumnIndex, grid)
-        + downRightValue(cellRowIndex, cellColumnIndex, grid)
-        + downValue(cellRowIndex, cellColumnIndex, grid)
-        + downLeftValue(cellRowIndex, cellColumnIndex, grid)
-        + leftValue(cellRowIndex, cellColumnIndex, grid)
-        + topLeftValue(cellRowIndex, cellColumnIndex, grid)
-        + topValue(cellRowIndex, cellColumnIndex, grid)
-        + topRightValue(cellRowIndex, cellColumnIndex, grid);
+  /**
+   * Creates the scalar kernel of the grid, which counts the neighbours of one cell at a time.
+   *
+   * @param rule The rule that evolves every cell.
+   * @return The scalar kernel for the rule.
+   */
+  public static RowKernel createRowKernel(LifeRule rule) {
+    return (topRow, currentRow, downRow, updatedRow, width) ->
+        updateRowLife(topRow, currentRow, downRow, updatedRow, width, rule);
   }
 
-  private static int[] updateRowLife(int[][] grid, int rowIndex, int width) {
-    int[] currentRow = grid[rowIndex];
-    int[] updatedRow = new int[width];
-    for (int columnIndex = 0; columnIndex < width; columnIndex++) {
-      if (isAlive(columnIndex, currentRow) && canDie(rowIndex, columnIndex, grid)) {
-        killRowCell(columnIndex, updatedRow);
-      } else if (!isAlive(columnIndex, currentRow) && canRevive(rowIndex, columnIndex, grid)) {
-        reviveRowCell(columnIndex, updatedRow);
-      } else {
-        updatedRow[columnIndex] = currentRow[columnIndex];
+  private static boolean isAlive(int columnIndex, int[] row) {
+    return row[columnIndex] == 1;
+  }
+
+  private static int countAliveNeighbours(
+      int[] topRow, int[] row, int[] downRow, int cellColumnIndex) {
+    return topRow[cellColumnIndex - 1]
+        + topRow[cellColumnIndex]
+        + topRow[cellColumnIndex + 1]
+        + row[cellColumnIndex - 1]
+        + row[cellColumnIndex + 1]
+        + downRow[cellColumnIndex - 1]
+        + downRow[cellColumnIndex]
+        + downRow[cellColumnIndex + 1];
+  }
+
+  /**
+   * Evolves a row into the updated row with the given rule, which gives the next state of every
+   * cell from its alive neighbours without branches. The updated cells are packed in words while
+   * they are written, and the hash of the updated row is returned, so hashing the grid needs no
+   * other pass.
+   */
+  private static long updateRowLife(
+      int[] topRow, int[] currentRow, int[] downRow, int[] updatedRow, int width, LifeRule rule) {
+    long rowHash = 0;
+    long word = 0;
+    for (int columnIndex = HALO; columnIndex < width + HALO; columnIndex++) {
+      int aliveNeighbours = countAliveNeighbours(topRow, currentRow, downRow, columnIndex);
+      updatedRow[columnIndex] = rule.nextCell(aliveNeighbours, currentRow[columnIndex]);
+      int column = columnIndex - HALO;
+      word |= (long) updatedRow[columnIndex] << column;
+      if ((column & (Long.SIZE - 1)) == Long.SIZE - 1 || column == width - 1) {
+        rowHash = GridHashes.addWord(rowHash, word);
+        word = 0;
       }
     }
-    return updatedRow;
+    return rowHash;
   }
 
   private static void appendDeadCharacter(StringBuilder builder) {
@@ -88,97 +206,82 @@ public class GolGrid {
     }
   }
 
-  private static int rightValue(int cellRowIndex, int cellColumnIndex, int[][] grid) {
-    try {
-      return grid[cellRowIndex][++cellColumnIndex];
-    } catch (ArrayIndexOutOfBoundsException exception) {
-      return 0;
-    }
-  }
-
-  private static int leftValue(int cellRowIndex, int cellColumnIndex, int[][] grid) {
-    try {
-      return grid[cellRowIndex][--cellColumnIndex];
-    } catch (ArrayIndexOutOfBoundsException exception) {
-      return 0;
-    }
-  }
-
-  private static int topValue(int cellRowIndex, int cellColumnIndex, int[][] grid) {
-    try {
-      return grid[++cellRowIndex][cellColumnIndex];
-    } catch (ArrayIndexOutOfBoundsException exception) {
-      return 0;
-    }
-  }
-
-  private static int downValue(int cellRowIndex, int cellColumnIndex, int[][] grid) {
-    try {
-      return grid[--cellRowIndex][cellColumnIndex];
-    } catch (ArrayIndexOutOfBoundsException exception) {
-      return 0;
-    }
-  }
-
-  private static int topLeftValue(int cellRowIndex, int cellColumnIndex, int[][] grid) {
-    try {
-      return grid[++cellRowIndex][--cellColumnIndex];
-    } catch (ArrayIndexOutOfBoundsException exception) {
-      return 0;
+  /**
+   * Copies the cells that the boundary topology puts around the grid into the ghost cells. The
+   * ghost columns are copied first so the ghost rows also carry the right corners.
+   */
+  private void refreshHalo() {
+    if (boundary == GridBoundary.DEAD) return;
+    boolean wraps = boundary == GridBoundary.WRAP;
+    int leadingColumnSource = wraps ? width : HALO;
+    int trailingColumnSource = wraps ? HALO : width;
+    for (int rowIndex = HALO; rowIndex < height + HALO; rowIndex++) {
+      int[] row = grid[rowIndex];
+      row[0] = row[leadingColumnSource];
+      row[width + HALO] = row[trailingColumnSource];
     }
+    int leadingRowSource = wraps ? height : HALO;
+    int trailingRowSource = wraps ? HALO : height;
+    System.arraycopy(grid[leadingRowSource], 0, grid[0], 0, width + 2 * HALO);
+    System.arraycopy(grid[trailingRowSource], 0, grid[height + HALO], 0, width + 2 * HALO);
   }
 
-  private static int topRightValue(int cellRowIndex, int cellColumnIndex, int[][] grid) {
-    try {
-      return grid[++cellRowIndex][++cellColumnIndex];
-    } catch (ArrayIndexOutOfBoundsException exception) {
-      return 0;
+  private void updateRows(int fromRow, int toRow) {
+    for (int rowIndex = fromRow + HALO; rowIndex < toRow + HALO; rowIndex++) {
+      rowHashes[rowIndex - HALO] =
+          rowKernel.updateRow(
+              grid[rowIndex - 1], grid[rowIndex], grid[rowIndex + 1], nextGrid[rowIndex], width);
     }
   }
 
-  private static int downRightValue(int cellRowIndex, int cellColumnIndex, int[][] grid) {
-    try {
-      return grid[--cellRowIndex][++cellColumnIndex];
-    } catch (ArrayIndexOutOfBoundsException exception) {
-      return 0;
-    }
+  /** Updates the grid life following the gol rules for evolution. */
+  @Override
+  public void updateGridLife() {
+    refreshHalo();
+    stepper.updateRows(height, width, rowRangeUpdater);
+    int[][] previousGrid = grid;
+    grid = nextGrid;
+    nextGrid = previousGrid;
+    rowHashesValid = true;
   }
 
-  private static int downLeftValue(int cellRowIndex, int cellColumnIndex, int[][] grid) {
-    try {
-      return grid[--cellRowIndex][--cellColumnIndex];
-    } catch (ArrayIndexOutOfBoundsException exception) {
-      return 0;
+  /** Counts the last step against the previous generation, which is kept in the next grid. */
+  @Override
+  public void countLastStep(long[] counts) {
+    long population = 0;
+    long births = 0;
+    long deaths = 0;
+    for (int rowIndex = HALO; rowIndex < height + HALO; rowIndex++) {
+      int[] row = grid[rowIndex];
+      int[] previousRow = nextGrid[rowIndex];
+      for (int columnIndex = HALO; columnIndex < width + HALO; columnIndex++) {
+        int cell = row[columnIndex];
+        int previousCell = previousRow[columnIndex];
+        population += cell;
+        births += cell & ~previousCell;
+        deaths += previousCell & ~cell;
+      }
     }
+    counts[0] = population;
+    counts[1] = births;
+    counts[2] = deaths;
   }
 
-  /** Updates the grid life following the gol rules for evolution. */
-  public void updateGridLife() {
-    int[][] nextGenerationGrid = new int[height][width];
-    for (int rowIndex = 0; rowIndex < grid.length; rowIndex++) {
-      nextGenerationGrid[rowIndex] = updateRowLife(grid, rowIndex, width);
-    }
-    grid = nextGenerationGrid;
+  @Override
+  public void setCellAlive(int rowIndex, int columnIndex) {
+    rowHashesValid = false;
+    grid[rowIndex + HALO][columnIndex + HALO] = GameValues.ALIVE_CELL_INT;
   }
 
-  /**
-   * Fills the grid with the given population string. The string must follow a valid string
-   * representation for the population.
-   *
-   * @param population The string population.
-   */
-  public void fillGridWithPopulationString(String population) {
-    int currentRow = 0;
-    int currentRowColumn = 0;
-    for (int i = 0; i < population.length(); i++) {
-      if (population.charAt(i) == '#') {
-        currentRow++;
-        currentRowColumn = 0;
-      } else {
-        grid[currentRow][currentRowColumn] =
-            (population.charAt(i) == '1' ? GameValues.ALIVE_CELL_INT : GameValues.DEAD_CELL_INT);
-        currentRowColumn++;
-      }
+  @Override
+  public void setRowWord(int rowIndex, int wordIndex, long word) {
+    rowHashesValid = false;
+    int[] row = grid[rowIndex + HALO];
+    int firstColumn = wordIndex * Long.SIZE;
+    int lastColumn = Math.min(firstColumn + Long.SIZE, width);
+    for (int columnIndex = firstColumn; columnIndex < lastColumn; columnIndex++) {
+      row[columnIndex + HALO] =
+          ((word >>> columnIndex) & 1L) != 0 ? GameValues.ALIVE_CELL_INT : GameValues.DEAD_CELL_INT;
     }
   }
 
@@ -187,11 +290,15 @@ public class GolGrid {
    *
    * @return The string representation of the grid that follows the gol renderer format.
    */
+  @Override
   public String toRendererFormat() {
-    StringBuilder gridStringFormat = new StringBuilder();
+    StringBuilder gridStringFormat = new StringBuilder((width + 1) * height);
 
-    for (int[] row : this.grid) {
-      for (int cell : row) appendCorrespondingCharacter(cell, gridStringFormat);
+    for (int rowIndex = HALO; rowIndex < height + HALO; rowIndex++) {
+      int[] row = grid[rowIndex];
+      for (int columnIndex = HALO; columnIndex < width + HALO; columnIndex++) {
+        appendCorrespondingCharacter(row[columnIndex], gridStringFormat);
+      }
       appendNewRowCharacter(gridStringFormat);
     }
 
@@ -199,11 +306,40 @@ public class GolGrid {
   }
 
   /**
-   * Method for getting the grid.
+   * Method for getting the grid. The halo is not included. The returned matrix is a copy, so it
+   * keeps the current generation even after the grid evolves and reuses its buffers.
    *
-   * @return The grid matrix.
+   * @return A copy of the grid matrix for the current generation.
    */
   public int[][] getGrid() {
-    return grid;
+    int[][] gridCopy = new int[height][width];
+    for (int rowIndex = 0; rowIndex < height; rowIndex++) {
+      System.arraycopy(grid[rowIndex + HALO], HALO, gridCopy[rowIndex], 0, width);
+    }
+    return gridCopy;
+  }
+
+  @Override
+  public boolean isCellAlive(int rowIndex, int columnIndex) {
+    return isAlive(columnIndex + HALO, grid[rowIndex + HALO]);
+  }
+
+  @Override
+  public long getGridHash() {
+    return rowHashesValid ? GridHashes.hashRows(rowHashes) : GridHashes.hashEngine(this);
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  public GridBoundary getBoundary() {
+    return boundary;
   }
 }
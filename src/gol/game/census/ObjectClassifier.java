@@ -0,0 +1,302 @@
+package gol.game.census;
+
+import gol.game.engine.BitPackedEngine;
+import gol.game.engine.RowBandStepper;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Classifier of the objects left by a soup. An object is evolved alone until it repeats its shape,
+ * which gives its period and whether it moves, and it is named by its canonical code: the extended
+ * Wechsler format of the shortest phase and orientation, prefixed by xs and the population for the
+ * still lifes, xp and the period for the oscillators, and xq and the period for the spaceships. The
+ * canonical code is the same for every phase, rotation and reflection of the object, so equal
+ * objects are counted together and the codes can be compared with other soup searches.
+ */
+final class ObjectClassifier {
+  private static final String WECHSLER_DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz";
+  private static final int STRIP_ROWS = 5;
+  private static final int MIN_ZERO_RUN = 4;
+  private static final int MAX_ZERO_RUN = MIN_ZERO_RUN + WECHSLER_DIGITS.length() - 1;
+  private static final int SYMMETRIES = 8;
+  private static final Map<String, String> COMMON_NAMES =
+      Map.ofEntries(
+          Map.entry("xs4_33", "block"),
+          Map.entry("xs4_252", "tub"),
+          Map.entry("xs5_253", "boat"),
+          Map.entry("xs6_696", "beehive"),
+          Map.entry("xs6_356", "ship"),
+          Map.entry("xs7_2596", "loaf"),
+          Map.entry("xs8_6996", "pond"),
+          Map.entry("xp2_7", "blinker"),
+          Map.entry("xp2_7e", "toad"),
+          Map.entry("xp2_318c", "beacon"),
+          Map.entry("xq4_153", "glider"),
+          Map.entry("xq4_6frc", "lightweight spaceship"));
+
+  private ObjectClassifier() {}
+
+  /**
+   * Returns the common name of the object with the given canonical code.
+   *
+   * @param code The canonical code of the object.
+   * @return The common name, or an empty string if the object has no common name.
+   */
+  static String commonName(String code) {
+    return COMMON_NAMES.getOrDefault(code, "");
+  }
+
+  /**
+   * Returns the canonical code of the object with the given cells, evolving it alone at most the
+   * given period.
+   *
+   * @param rows The row of every cell.
+   * @param columns The column of every cell.
+   * @param from The index of the first cell of the object.
+   * @param to The index after the last cell of the object.
+   * @param maxPeriod The longest period that is classified.
+   * @return The canonical code, or null if the object does not repeat in the max period.
+   */
+  static String classify(int[] rows, int[] columns, int from, int to, int maxPeriod) {
+    BitPackedEngine engine = isolate(rows, columns, from, to, null, -1, maxPeriod);
+    Phase[] phases = new Phase[maxPeriod];
+    phases[0] = Phase.capture(engine);
+    for (int period = 1; period <= maxPeriod; period++) {
+      engine.updateGridLife();
+      Phase phase = Phase.capture(engine);
+      if (phase == null || phase.touchesEdge(engine)) return null;
+      if (phase.hasShapeOf(phases[0])) {
+        boolean moves = phase.top != phases[0].top || phase.left != phases[0].left;
+        String prefix =
+            moves ? "xq" + period : period == 1 ? "xs" + phases[0].population : "xp" + period;
+        return prefix + '_' + canonicalWechsler(phases, period);
+      }
+      if (period < maxPeriod) phases[period] = phase;
+    }
+    return null;
+  }
+
+  /**
+   * Checks if the parts of an object evolve as if they were alone for the given generations, which
+   * means that the object is only their union and they can be counted apart.
+   *
+   * @param rows The row of every cell.
+   * @param columns The column of every cell.
+   * @param partStarts The index of the first cell of every part, followed by the end of the last.
+   * @param parts The number of parts.
+   * @param generations The generations to compare.
+   * @return True if the object evolves as the union of its parts, false if not.
+   */
+  static boolean evolvesApart(
+      int[] rows, int[] columns, int[] partStarts, int parts, int generations) {
+    int from = partStarts[0];
+    int to = partStarts[parts];
+    BitPackedEngine whole = isolate(rows, columns, from, to, partStarts, -1, generations);
+    BitPackedEngine[] apart = new BitPackedEngine[parts];
+    for (int part = 0; part < parts; part++) {
+      apart[part] = isolate(rows, columns, from, to, partStarts, part, generations);
+    }
+    int wordsPerRow = (whole.getWidth() + Long.SIZE - 1) / Long.SIZE;
+    for (int generation = 0; generation < generations; generation++) {
+      whole.updateGridLife();
+      for (BitPackedEngine engine : apart) engine.updateGridLife();
+      for (int row = 0; row < whole.getHeight(); row++) {
+        for (int wordIndex = 0; wordIndex < wordsPerRow; wordIndex++) {
+          long union = 0;
+          for (BitPackedEngine engine : apart) union |= engine.getRowWord(row, wordIndex);
+          if (union != whole.getRowWord(row, wordIndex)) return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Places cells of an object alone in a new engine with dead edges. The engine has the size of
+   * the whole object, so the engines of its parts share the coordinates.
+   *
+   * @param part The part whose cells are placed, or -1 for every part.
+   */
+  private static BitPackedEngine isolate(
+      int[] rows, int[] columns, int from, int to, int[] partStarts, int part, int generations) {
+    int top = Integer.MAX_VALUE;
+    int left = Integer.MAX_VALUE;
+    int bottom = Integer.MIN_VALUE;
+    int right = Integer.MIN_VALUE;
+    for (int cell = from; cell < to; cell++) {
+      top = Math.min(top, rows[cell]);
+      left = Math.min(left, columns[cell]);
+      bottom = Math.max(bottom, rows[cell]);
+      right = Math.max(right, columns[cell]);
+    }
+
+    // The spaceships move at most half a cell per generation, so the margin keeps them off the
+    // dead edges for all the generations.
+    int margin = generations / 2 + 2;
+    BitPackedEngine engine =
+        new BitPackedEngine(
+            right - left + 1 + 2 * margin,
+            bottom - top + 1 + 2 * margin,
+            RowBandStepper.sequential());
+    int firstCell = part < 0 ? from : partStarts[part];
+    int lastCell = part < 0 ? to : partStarts[part + 1];
+    for (int cell = firstCell; cell < lastCell; cell++) {
+      int row = rows[cell] - top + margin;
+      int column = columns[cell] - left + margin;
+      int wordIndex = column / Long.SIZE;
+      engine.setRowWord(row, wordIndex, engine.getRowWord(row, wordIndex) | 1L << column);
+    }
+    return engine;
+  }
+
+  /** Returns the shortest code of every phase and orientation, the first in order if tied. */
+  private static String canonicalWechsler(Phase[] phases, int period) {
+    String canonical = null;
+    for (int phaseIndex = 0; phaseIndex < period; phaseIndex++) {
+      for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+        String code = wechsler(phases[phaseIndex].transform(symmetry));
+        if (canonical == null
+            || code.length() < canonical.length()
+            || (code.length() == canonical.length() && code.compareTo(canonical) < 0)) {
+          canonical = code;
+        }
+      }
+    }
+    return canonical;
+  }
+
+  /**
+   * Encodes the phase in the extended Wechsler format. The rows are split in strips of five, every
+   * column of a strip is a digit with the top row in the lowest bit, the strips are separated by z
+   * and the runs of zero digits are shortened to w, x or y and a digit.
+   */
+  private static String wechsler(Phase phase) {
+    StringBuilder code = new StringBuilder();
+    for (int firstRow = 0; firstRow < phase.height; firstRow += STRIP_ROWS) {
+      if (firstRow > 0) code.append('z');
+      int lastRow = Math.min(firstRow + STRIP_ROWS, phase.height);
+      int zeroRun = 0;
+      for (int column = 0; column < phase.width; column++) {
+        int digit = 0;
+        for (int row = firstRow; row < lastRow; row++) {
+          if (phase.isAlive(row, column)) digit |= 1 << (row - firstRow);
+        }
+        if (digit == 0) {
+          zeroRun++;
+        } else {
+          appendZeroRun(code, zeroRun);
+          zeroRun = 0;
+          code.append(WECHSLER_DIGITS.charAt(digit));
+        }
+      }
+    }
+    return code.toString();
+  }
+
+  private static void appendZeroRun(StringBuilder code, int zeroRun) {
+    while (zeroRun >= MIN_ZERO_RUN) {
+      int run = Math.min(zeroRun, MAX_ZERO_RUN);
+      code.append('y').append(WECHSLER_DIGITS.charAt(run - MIN_ZERO_RUN));
+      zeroRun -= run;
+    }
+    if (zeroRun == 3) code.append('x');
+    else if (zeroRun == 2) code.append('w');
+    else if (zeroRun == 1) code.append('0');
+  }
+
+  /** The cells of a generation of an object, relative to their bounding box. */
+  private static final class Phase {
+    private final int top;
+    private final int left;
+    private final int width;
+    private final int height;
+    private final int population;
+    private final long[] cells;
+
+    private Phase(int top, int left, int width, int height, int population) {
+      this.top = top;
+      this.left = left;
+      this.width = width;
+      this.height = height;
+      this.population = population;
+      this.cells = new long[(width * height + Long.SIZE - 1) / Long.SIZE];
+    }
+
+    /** Captures the alive cells of the engine, or returns null if every cell is dead. */
+    private static Phase capture(BitPackedEngine engine) {
+      int wordsPerRow = (engine.getWidth() + Long.SIZE - 1) / Long.SIZE;
+      int top = Integer.MAX_VALUE;
+      int left = Integer.MAX_VALUE;
+      int bottom = -1;
+      int right = -1;
+      int population = 0;
+      for (int row = 0; row < engine.getHeight(); row++) {
+        for (int wordIndex = 0; wordIndex < wordsPerRow; wordIndex++) {
+          long word = engine.getRowWord(row, wordIndex);
+          if (word == 0) continue;
+          population += Long.bitCount(word);
+          top = Math.min(top, row);
+          bottom = row;
+          left = Math.min(left, wordIndex * Long.SIZE + Long.numberOfTrailingZeros(word));
+          int lastColumn = wordIndex * Long.SIZE + Long.SIZE - 1 - Long.numberOfLeadingZeros(word);
+          right = Math.max(right, lastColumn);
+        }
+      }
+      if (population == 0) return null;
+
+      Phase phase = new Phase(top, left, right - left + 1, bottom - top + 1, population);
+      for (int row = top; row <= bottom; row++) {
+        for (int wordIndex = 0; wordIndex < wordsPerRow; wordIndex++) {
+          for (long word = engine.getRowWord(row, wordIndex); word != 0; word &= word - 1) {
+            int column = wordIndex * Long.SIZE + Long.numberOfTrailingZeros(word);
+            phase.setAlive(row - top, column - left);
+          }
+        }
+      }
+      return phase;
+    }
+
+    private boolean touchesEdge(BitPackedEngine engine) {
+      return top == 0
+          || left == 0
+          || top + height == engine.getHeight()
+          || left + width == engine.getWidth();
+    }
+
+    private boolean hasShapeOf(Phase other) {
+      return width == other.width && height == other.height && Arrays.equals(cells, other.cells);
+    }
+
+    /**
+     * Returns the phase transformed by one of the eight symmetries of the square: the third bit of
+     * the symmetry transposes the cells, the first mirrors the rows and the second the columns.
+     */
+    private Phase transform(int symmetry) {
+      boolean transposes = (symmetry & 4) != 0;
+      int transformedWidth = transposes ? height : width;
+      int transformedHeight = transposes ? width : height;
+      Phase transformed = new Phase(0, 0, transformedWidth, transformedHeight, population);
+      for (int row = 0; row < height; row++) {
+        for (int column = 0; column < width; column++) {
+          if (!isAlive(row, column)) continue;
+          int transformedRow = transposes ? column : row;
+          int transformedColumn = transposes ? row : column;
+          if ((symmetry & 1) != 0) transformedRow = transformedHeight - 1 - transformedRow;
+          if ((symmetry & 2) != 0) transformedColumn = transformedWidth - 1 - transformedColumn;
+          transformed.setAlive(transformedRow, transformedColumn);
+        }
+      }
+      return transformed;
+    }
+
+    private boolean isAlive(int row, int column) {
+      int index = row * width + column;
+      return (cells[index / Long.SIZE] & 1L << index) != 0;
+    }
+
+    private void setAlive(int row, int column) {
+      int index = row * width + column;
+      cells[index / Long.SIZE] |= 1L << index;
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package gol.game.census;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Census of the objects left by the soups of a search. The counters are lock free adders, which
+ * the soups of every thread increment without contention, and an object seen before is counted
+ * without locking the map.
+ */
+final class SoupCensus {
+  private final ConcurrentHashMap<String, LongAdder> objectCounts = new ConcurrentHashMap<>();
+  private final LongAdder soups = new LongAdder();
+  private final LongAdder stabilisedSoups = new LongAdder();
+  private final LongAdder generations = new LongAdder();
+
+  /**
+   * Counts an object.
+   *
+   * @param code The canonical code of the object.
+   */
+  void recordObject(String code) {
+    LongAdder count = objectCounts.get(code);
+    if (count == null) count = objectCounts.computeIfAbsent(code, key -> new LongAdder());
+    count.increment();
+  }
+
+  /**
+   * Counts a finished soup.
+   *
+   * @param stabilised If the soup stabilised before its max generations.
+   * @param soupGenerations The generations that the soup was evolved.
+   */
+  void recordSoup(boolean stabilised, long soupGenerations) {
+    soups.increment();
+    if (stabilised) stabilisedSoups.increment();
+    generations.add(soupGenerations);
+  }
+
+  /**
+   * Returns the counted objects, the most common first.
+   *
+   * @return The canonical code and count of every object.
+   */
+  List<Map.Entry<String, Long>> getObjectCounts() {
+    List<Map.Entry<String, Long>> counts = new ArrayList<>(objectCounts.size());
+    objectCounts.forEach((code, count) -> counts.add(Map.entry(code, count.sum())));
+    counts.sort(
+        Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+            .thenComparing(Map.Entry.comparingByKey()));
+    return counts;
+  }
+
+  long getSoups() {
+    return soups.sum();
+  }
+
+  long getStabilisedSoups() {
+    return stabilisedSoups.sum();
+  }
+
+  long getGenerations() {
+    return generations.sum();
+  }
+}
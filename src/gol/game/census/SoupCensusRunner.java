@@ -0,0 +1,107 @@
+package gol.game.census;
+
+import gol.game.configuration.GameConfiguration;
+import gol.game.constants.GameValues;
+import gol.utils.Logger;
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs many independently seeded random soups at once and prints the census of the objects they
+ * stabilise into. Every soup is a task of a virtual thread when the jvm has them, or of a pool with
+ * a platform thread per processor when not, and the finished soups add to lock free counters, so
+ * the soups per second scale with the processors. The soup of index i has the configured seed plus
+ * i, so a census can be reproduced and a soup of interest can be run alone.
+ */
+public class SoupCensusRunner {
+  /** The soups waiting for a thread per processor, which bounds the memory of the queued soups. */
+  private static final int PENDING_SOUPS_PER_PROCESSOR = 4;
+
+  private SoupCensusRunner() {}
+
+  /**
+   * Searches the soups of the configuration and prints the census, the most common objects first.
+   *
+   * @param configuration The validated configuration of the census.
+   */
+  public static void run(GameConfiguration configuration) {
+    int processors = Runtime.getRuntime().availableProcessors();
+    ExecutorService virtualExecutor = newVirtualThreadExecutor();
+    ExecutorService executor =
+        virtualExecutor != null ? virtualExecutor : Executors.newFixedThreadPool(processors);
+    Semaphore pendingSoups = new Semaphore(PENDING_SOUPS_PER_PROCESSOR * processors);
+    SoupCensus census = new SoupCensus();
+    double density = configuration.getDensity() / 100.0;
+
+    long startNanos = System.nanoTime();
+    try {
+      for (long soup = 0; soup < configuration.getSoups(); soup++) {
+        SoupSearch search =
+            new SoupSearch(
+                configuration.getSeed() + soup,
+                density,
+                configuration.getWidth(),
+                configuration.getHeight(),
+                configuration.getGenerations(),
+                GameValues.CYCLE_MAX_PERIOD,
+                census);
+        pendingSoups.acquire();
+        executor.execute(
+            () -> {
+              try {
+                search.run();
+              } finally {
+                pendingSoups.release();
+              }
+            });
+      }
+      executor.shutdown();
+      executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    } catch (InterruptedException exception) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+      return;
+    }
+    double elapsedSeconds =
+        Math.max(System.nanoTime() - startNanos, 1) / (double) TimeUnit.SECONDS.toNanos(1);
+
+    Logger.logConfigurationValue(
+        "The soup threads were", virtualExecutor != null ? "virtual" : "platform");
+    Logger.logConfigurationValue("The soups were", census.getSoups());
+    Logger.logConfigurationValue("The stabilised soups were", census.getStabilisedSoups());
+    Logger.logConfigurationValue("The generations were", census.getGenerations());
+    Logger.logConfigurationValue("The wall time in seconds was", format(elapsedSeconds));
+    Logger.logConfigurationValue(
+        "The soups per second were", format(census.getSoups() / elapsedSeconds));
+    for (Map.Entry<String, Long> objectCount : census.getObjectCounts()) {
+      String name = ObjectClassifier.commonName(objectCount.getKey());
+      Logger.logConfigurationValue(
+          name.isEmpty() ? objectCount.getKey() : objectCount.getKey() + ' ' + name,
+          objectCount.getValue());
+    }
+  }
+
+  /**
+   * Creates an executor that starts a virtual thread per task. The language level of the project
+   * does not have virtual threads, so the factory is looked up when the game runs.
+   *
+   * @return The executor, or null if the jvm does not have virtual threads.
+   */
+  private static ExecutorService newVirtualThreadExecutor() {
+    try {
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) factory.invoke(null);
+    } catch (ReflectiveOperationException | UnsupportedOperationException exception) {
+      return null;
+    }
+  }
+
+  private static String format(double value) {
+    return String.format(Locale.ROOT, "%.3f", value);
+  }
+}
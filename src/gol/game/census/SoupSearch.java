@@ -0,0 +1,341 @@
+package gol.game.census;
+
+import gol.game.engine.BitPackedEngine;
+import gol.game.engine.RowBandStepper;
+import gol.game.population.RandomSoupGenerator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Search of one random soup. The soup is evolved in the middle of a larger grid with dead edges
+ * until its population repeats with a short period, then every object left is classified and
+ * counted in the census. The spaceships that get close to the edges are removed before they crash
+ * into them, so they are counted as spaceships and not as the debris of the crash. They are only
+ * counted with the other objects, when the soup stabilises, so a dropped soup counts nothing.
+ *
+ * <p>The objects are first the groups of cells at most two cells apart, which can not interact
+ * with the other groups while their cells stay the same. A group whose connected parts evolve as
+ * if they were alone, such as two still lifes one cell apart, is counted as its parts.
+ */
+final class SoupSearch implements Runnable {
+  /** The dead cells around the soup, a whole word so the soup words are copied without shifts. */
+  private static final int MARGIN = Long.SIZE;
+
+  private static final int CHECK_INTERVAL = 32;
+
+  /**
+   * The checks with a periodic population and objects that do not repeat after which the soup is
+   * dropped. It happens when the debris of the soup reaches the dead edges, where the objects are
+   * shaped by the edges and do not repeat alone.
+   */
+  private static final int MAX_UNCLASSIFIED_CHECKS = 4;
+
+  private static final int ESCAPE_BAND = 16;
+  private static final int NEIGHBOURHOOD_RADIUS = 2;
+  private static final String SPACESHIP_PREFIX = "xq";
+
+  private final long seed;
+  private final double density;
+  private final int width;
+  private final int height;
+  private final long maxGenerations;
+  private final int maxPeriod;
+  private final SoupCensus census;
+  private final int canvasWidth;
+  private final int canvasHeight;
+  private final int wordsPerRow;
+  private final long[] populations;
+  private final long[][] cells;
+  private final long[][] visited;
+  private final long[][] partVisited;
+  private final List<String> spaceshipCodes = new ArrayList<>();
+  private int[] componentRows = new int[Long.SIZE];
+  private int[] componentColumns = new int[Long.SIZE];
+  private int componentSize;
+  private int[] partRows = new int[Long.SIZE];
+  private int[] partColumns = new int[Long.SIZE];
+  private int[] partStarts = new int[Long.SIZE];
+  private int parts;
+
+  /**
+   * Constructor for the search of a soup.
+   *
+   * @param seed The seed of the soup.
+   * @param density The probability of a cell of the soup being alive, between zero and one.
+   * @param width The width of the soup.
+   * @param height The height of the soup.
+   * @param maxGenerations The generations after which a soup that did not stabilise is dropped.
+   * @param maxPeriod The longest period of the objects and of the stabilised population.
+   * @param census The census where the objects are counted.
+   */
+  SoupSearch(
+      long seed,
+      double density,
+      int width,
+      int height,
+      long maxGenerations,
+      int maxPeriod,
+      SoupCensus census) {
+    this.seed = seed;
+    this.density = density;
+    this.width = width;
+    this.height = height;
+    this.maxGenerations = maxGenerations;
+    this.maxPeriod = maxPeriod;
+    this.census = census;
+    this.canvasWidth = width + 2 * MARGIN;
+    this.canvasHeight = height + 2 * MARGIN;
+    this.wordsPerRow = (canvasWidth + Long.SIZE - 1) / Long.SIZE;
+    this.populations = new long[4 * maxPeriod];
+    this.cells = new long[canvasHeight][wordsPerRow];
+    this.visited = new long[canvasHeight][wordsPerRow];
+    this.partVisited = new long[canvasHeight][wordsPerRow];
+  }
+
+  private static boolean isSet(long[][] bits, int row, int column) {
+    return (bits[row][column / Long.SIZE] & 1L << column) != 0;
+  }
+
+  private static void set(long[][] bits, int row, int column) {
+    bits[row][column / Long.SIZE] |= 1L << column;
+  }
+
+  @Override
+  public void run() {
+    BitPackedEngine engine =
+        new BitPackedEngine(canvasWidth, canvasHeight, RowBandStepper.sequential());
+    long[][] soup = new RandomSoupGenerator(seed, density).generateRows(width, height);
+    for (int rowIndex = 0; rowIndex < height; rowIndex++) {
+      for (int wordIndex = 0; wordIndex < soup[rowIndex].length; wordIndex++) {
+        engine.setRowWord(
+            rowIndex + MARGIN, wordIndex + MARGIN / Long.SIZE, soup[rowIndex][wordIndex]);
+      }
+    }
+
+    long generation = 0;
+    boolean stabilised = false;
+    int unclassifiedChecks = 0;
+    populations[0] = population(engine);
+    while (generation < maxGenerations
+        && !stabilised
+        && unclassifiedChecks < MAX_UNCLASSIFIED_CHECKS) {
+      engine.updateGridLife();
+      generation++;
+      populations[historyIndex(generation)] = population(engine);
+      if (generation % CHECK_INTERVAL != 0) continue;
+      if (removeEscapingSpaceships(engine)) {
+        populations[historyIndex(generation)] = population(engine);
+      }
+      if (generation >= populations.length && isPopulationPeriodic(generation)) {
+        stabilised = recordObjects(engine);
+        if (!stabilised) unclassifiedChecks++;
+      }
+    }
+    census.recordSoup(stabilised, generation);
+  }
+
+  private int historyIndex(long generation) {
+    return (int) (generation % populations.length);
+  }
+
+  private long population(BitPackedEngine engine) {
+    long population = 0;
+    for (int rowIndex = 0; rowIndex < canvasHeight; rowIndex++) {
+      for (int wordIndex = 0; wordIndex < wordsPerRow; wordIndex++) {
+        population += Long.bitCount(engine.getRowWord(rowIndex, wordIndex));
+      }
+    }
+    return population;
+  }
+
+  /** Checks if the populations of the history repeat with a period up to the max period. */
+  private boolean isPopulationPeriodic(long generation) {
+    for (int period = 1; period <= maxPeriod; period++) {
+      boolean periodic = true;
+      for (int age = 0; age + period < populations.length && periodic; age++) {
+        periodic =
+            populations[historyIndex(generation - age)]
+                == populations[historyIndex(generation - age - period)];
+      }
+      if (periodic) return true;
+    }
+    return false;
+  }
+
+  private void takeCells(BitPackedEngine engine) {
+    for (int rowIndex = 0; rowIndex < canvasHeight; rowIndex++) {
+      for (int wordIndex = 0; wordIndex < wordsPerRow; wordIndex++) {
+        cells[rowIndex][wordIndex] = engine.getRowWord(rowIndex, wordIndex);
+      }
+      Arrays.fill(visited[rowIndex], 0L);
+      Arrays.fill(partVisited[rowIndex], 0L);
+    }
+  }
+
+  private boolean isInEscapeBand(int row, int column) {
+    return row < ESCAPE_BAND
+        || column < ESCAPE_BAND
+        || row >= canvasHeight - ESCAPE_BAND
+        || column >= canvasWidth - ESCAPE_BAND;
+  }
+
+  /** Keeps and removes the spaceships near the edges, returning true if any was removed. */
+  private boolean removeEscapingSpaceships(BitPackedEngine engine) {
+    takeCells(engine);
+    boolean removed = false;
+    for (int rowIndex = 0; rowIndex < canvasHeight; rowIndex++) {
+      for (int wordIndex = 0; wordIndex < wordsPerRow; wordIndex++) {
+        for (long word = cells[rowIndex][wordIndex]; word != 0; word &= word - 1) {
+          int column = wordIndex * Long.SIZE + Long.numberOfTrailingZeros(word);
+          if (!isInEscapeBand(rowIndex, column) || isSet(visited, rowIndex, column)) continue;
+          findComponent(rowIndex, column);
+          String code =
+              ObjectClassifier.classify(
+                  componentRows, componentColumns, 0, componentSize, maxPeriod);
+          if (code != null && code.startsWith(SPACESHIP_PREFIX)) {
+            spaceshipCodes.add(code);
+            eraseComponent(engine);
+            removed = true;
+          }
+        }
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * Classifies every object of the current generation and counts them with the removed spaceships,
+   * or counts none and returns false if any object does not repeat, because the soup did not
+   * stabilise yet.
+   */
+  private boolean recordObjects(BitPackedEngine engine) {
+    takeCells(engine);
+    List<String> codes = new ArrayList<>();
+    for (int rowIndex = 0; rowIndex < canvasHeight; rowIndex++) {
+      for (int wordIndex = 0; wordIndex < wordsPerRow; wordIndex++) {
+        for (long word = cells[rowIndex][wordIndex]; word != 0; word &= word - 1) {
+          int column = wordIndex * Long.SIZE + Long.numberOfTrailingZeros(word);
+          if (isSet(visited, rowIndex, column)) continue;
+          findComponent(rowIndex, column);
+          String code =
+              ObjectClassifier.classify(
+                  componentRows, componentColumns, 0, componentSize, maxPeriod);
+          if (code == null) return false;
+          addObjectCodes(code, codes);
+        }
+      }
+    }
+    spaceshipCodes.forEach(census::recordObject);
+    codes.forEach(census::recordObject);
+    return true;
+  }
+
+  /** Adds the codes of the parts of the component if they evolve apart, or its code if not. */
+  private void addObjectCodes(String componentCode, List<String> codes) {
+    splitComponent();
+    if (parts == 1) {
+      codes.add(componentCode);
+      return;
+    }
+    String[] partCodes = new String[parts];
+    for (int part = 0; part < parts; part++) {
+      partCodes[part] =
+          ObjectClassifier.classify(
+              partRows, partColumns, partStarts[part], partStarts[part + 1], maxPeriod);
+      if (partCodes[part] == null) {
+        codes.add(componentCode);
+        return;
+      }
+    }
+    if (ObjectClassifier.evolvesApart(partRows, partColumns, partStarts, parts, maxPeriod)) {
+      codes.addAll(Arrays.asList(partCodes));
+    } else {
+      codes.add(componentCode);
+    }
+  }
+
+  /** Splits the collected component in its parts of neighbour cells. */
+  private void splitComponent() {
+    if (partRows.length < componentSize) {
+      partRows = new int[componentRows.length];
+      partColumns = new int[componentColumns.length];
+    }
+    parts = 0;
+    int partSize = 0;
+    for (int cell = 0; cell < componentSize; cell++) {
+      if (isSet(partVisited, componentRows[cell], componentColumns[cell])) continue;
+      if (parts + 1 == partStarts.length) partStarts = Arrays.copyOf(partStarts, parts * 2);
+      partStarts[parts++] = partSize;
+      partRows[partSize] = componentRows[cell];
+      partColumns[partSize++] = componentColumns[cell];
+      set(partVisited, componentRows[cell], componentColumns[cell]);
+      for (int next = partStarts[parts - 1]; next < partSize; next++) {
+        for (int neighbourRow = partRows[next] - 1;
+            neighbourRow <= partRows[next] + 1;
+            neighbourRow++) {
+          for (int neighbourColumn = partColumns[next] - 1;
+              neighbourColumn <= partColumns[next] + 1;
+              neighbourColumn++) {
+            if (neighbourRow < 0
+                || neighbourColumn < 0
+                || neighbourRow >= canvasHeight
+                || neighbourColumn >= canvasWidth
+                || !isSet(cells, neighbourRow, neighbourColumn)
+                || isSet(partVisited, neighbourRow, neighbourColumn)) {
+              continue;
+            }
+            partRows[partSize] = neighbourRow;
+            partColumns[partSize++] = neighbourColumn;
+            set(partVisited, neighbourRow, neighbourColumn);
+          }
+        }
+      }
+    }
+    partStarts[parts] = partSize;
+  }
+
+  /** Collects the component of the given cell with a breadth first search over the taken cells. */
+  private void findComponent(int startRow, int startColumn) {
+    componentSize = 0;
+    addComponentCell(startRow, startColumn);
+    for (int next = 0; next < componentSize; next++) {
+      int row = componentRows[next];
+      int column = componentColumns[next];
+      int lastRow = Math.min(row + NEIGHBOURHOOD_RADIUS, canvasHeight - 1);
+      int lastColumn = Math.min(column + NEIGHBOURHOOD_RADIUS, canvasWidth - 1);
+      for (int neighbourRow = Math.max(row - NEIGHBOURHOOD_RADIUS, 0);
+          neighbourRow <= lastRow;
+          neighbourRow++) {
+        for (int neighbourColumn = Math.max(column - NEIGHBOURHOOD_RADIUS, 0);
+            neighbourColumn <= lastColumn;
+            neighbourColumn++) {
+          if (isSet(cells, neighbourRow, neighbourColumn)
+              && !isSet(visited, neighbourRow, neighbourColumn)) {
+            addComponentCell(neighbourRow, neighbourColumn);
+          }
+        }
+      }
+    }
+  }
+
+  private void addComponentCell(int row, int column) {
+    if (componentSize == componentRows.length) {
+      componentRows = Arrays.copyOf(componentRows, componentSize * 2);
+      componentColumns = Arrays.copyOf(componentColumns, componentSize * 2);
+    }
+    componentRows[componentSize] = row;
+    componentColumns[componentSize] = column;
+    componentSize++;
+    set(visited, row, column);
+  }
+
+  private void eraseComponent(BitPackedEngine engine) {
+    for (int cell = 0; cell < componentSize; cell++) {
+      int row = componentRows[cell];
+      int wordIndex = componentColumns[cell] / Long.SIZE;
+      engine.setRowWord(
+          row, wordIndex, engine.getRowWord(row, wordIndex) & ~(1L << componentColumns[cell]));
+    }
+  }
+}
@@ -2,13 +2,37 @@ package gol.game.configuration;
 
 import gol.game.GolGrid;
 import gol.game.constants.ErrorReturns;
+import gol.game.constants.GameValues;
 import gol.game.constants.Identifiers;
+import gol.game.distributed.DistributedEngine;
+import gol.game.engine.ActiveCellEngine;
+import gol.game.engine.BitPackedEngine;
+import gol.game.engine.GolEngine;
+import gol.game.engine.GridBoundary;
+import gol.game.engine.GridWriter;
+import gol.game.engine.HashLifeEngine;
+import gol.game.engine.LifeRule;
+import gol.game.engine.LookupTableRowKernel;
+import gol.game.engine.OffHeapEngines;
+import gol.game.engine.RowBandStepper;
+import gol.game.engine.RowKernel;
+import gol.game.engine.RowKernels;
+import gol.game.engine.SparseTileEngine;
+import gol.game.generator.CycleDetector;
+import gol.game.metrics.MeteredEngine;
+import gol.game.metrics.SimulationMetrics;
+import gol.game.population.PopulationSource;
+import gol.inputOutput.printers.ErrorPrinter;
 import gol.inputOutput.readers.ArgumentReader;
 import gol.game.validations.ArgumentValidator;
-import gol.utils.RandomGenerator;
 import gol.utils.Logger;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.management.JMException;
 
 /** The game configuration class with the configuration values for starting the game. */
 public class GameConfiguration {
@@ -17,7 +41,39 @@ public class GameConfiguration {
   private final int speed;
   private final int generations;
   private final String population;
-  private GolGrid gameGrid;
+  private final String engine;
+  private final String boundary;
+  private final int parallelism;
+  private final int parallelThreshold;
+  private final String display;
+  private final String mode;
+  private final String output;
+  private final String checkpoint;
+  private final int checkpointInterval;
+  private final String resume;
+  private final String pattern;
+  private final int seed;
+  private final int density;
+  private final String cycle;
+  private final int lookahead;
+  private final String metrics;
+  private final int metricsDumpSeconds;
+  private final int soups;
+  private final String rule;
+  private final int workers;
+  private final String address;
+  private final String mappedFile;
+  private final String recording;
+  private final int keyframeInterval;
+  private LifeRule lifeRule;
+  private RowBandStepper stepper;
+  private GolEngine gameEngine;
+  private SimulationMetrics simulationMetrics;
+  private RowKernel vectorKernel;
+  private DistributedEngine distributedEngine;
+  private GolEngine offHeapEngine;
+  private ActiveCellEngine activeCellEngine;
+  private long startGeneration;
 
   /**
    * Starts the game configuration with the given arguments array. Does not make any type of
@@ -28,29 +84,85 @@ public class GameConfiguration {
   public GameConfiguration(String[] gameArguments) {
     width = ArgumentReader.readNumericArgument(gameArguments, Identifiers.WIDTH_NAME);
     height = ArgumentReader.readNumericArgument(gameArguments, Identifiers.HEIGHT_NAME);
-    speed = ArgumentReader.readNumericArgument(gameArguments, Identifiers.SPEED_NAME);
     generations = ArgumentReader.readNumericArgument(gameArguments, Identifiers.GENERATIONS_NAME);
-    String pop = ArgumentReader.readStringArg(gameArguments, Identifiers.POPULATION_NAME);
-    population = Objects.equals(pop, "rnd") ? generateRandomPopulation(width, height) : pop;
-  }
-
-  /**
-   * Generates a random string value for the population.
-   *
-   * @param width The grid width.
-   * @param height The height width.
-   * @return Returns the generated population string.
-   */
-  public static String generateRandomPopulation(int width, int height) {
-    if (width == ErrorReturns.intErrorReturn || height == ErrorReturns.intErrorReturn) return "";
-    StringBuilder population = new StringBuilder();
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        population.append(RandomGenerator.generateRandomNumber(0, 2));
-      }
-      if (i < height - 1) population.append("#");
-    }
-    return population.toString();
+    resume = ArgumentReader.readOptionalStringArg(gameArguments, Identifiers.RESUME_NAME, "");
+    pattern = ArgumentReader.readOptionalStringArg(gameArguments, Identifiers.PATTERN_NAME, "");
+    String pop =
+        Objects.equals(resume, "") && Objects.equals(pattern, "")
+            ? ArgumentReader.readStringArg(gameArguments, Identifiers.POPULATION_NAME)
+            : ArgumentReader.readOptionalStringArg(gameArguments, Identifiers.POPULATION_NAME, "");
+    population = pop;
+    seed =
+        ArgumentReader.containsArgument(gameArguments, Identifiers.SEED_NAME)
+            ? ArgumentReader.readNumericArgument(gameArguments, Identifiers.SEED_NAME)
+            : ThreadLocalRandom.current().nextInt();
+    density =
+        ArgumentReader.readOptionalNumericArgument(
+            gameArguments, Identifiers.DENSITY_NAME, GameValues.DEFAULT_DENSITY_PERCENT);
+    cycle =
+        ArgumentReader.readOptionalStringArg(
+            gameArguments, Identifiers.CYCLE_NAME, GameValues.CYCLE_OFF);
+    lookahead =
+        ArgumentReader.readOptionalNumericArgument(
+            gameArguments, Identifiers.LOOKAHEAD_NAME, GameValues.DEFAULT_LOOKAHEAD);
+    metrics =
+        ArgumentReader.readOptionalStringArg(
+            gameArguments, Identifiers.METRICS_NAME, GameValues.METRICS_OFF);
+    metricsDumpSeconds =
+        ArgumentReader.readOptionalNumericArgument(
+            gameArguments, Identifiers.METRICS_DUMP_NAME, GameValues.DEFAULT_METRICS_DUMP_SECONDS);
+    soups =
+        ArgumentReader.readOptionalNumericArgument(
+            gameArguments, Identifiers.SOUPS_NAME, GameValues.DEFAULT_CENSUS_SOUPS);
+    rule =
+        ArgumentReader.readOptionalStringArg(
+            gameArguments, Identifiers.RULE_NAME, GameValues.CONWAY_RULE);
+    workers =
+        ArgumentReader.readOptionalNumericArgument(
+            gameArguments, Identifiers.WORKERS_NAME, GameValues.DEFAULT_WORKERS);
+    address =
+        ArgumentReader.readOptionalStringArg(
+            gameArguments, Identifiers.ADDRESS_NAME, GameValues.DEFAULT_DISTRIBUTED_ADDRESS);
+    mappedFile =
+        ArgumentReader.readOptionalStringArg(gameArguments, Identifiers.MAPPED_FILE_NAME, "");
+    engine =
+        ArgumentReader.readOptionalStringArg(
+            gameArguments, Identifiers.ENGINE_NAME, GameValues.GRID_ENGINE);
+    boundary =
+        ArgumentReader.readOptionalStringArg(
+            gameArguments, Identifiers.BOUNDARY_NAME, GridBoundary.DEAD.getArgumentName());
+    parallelism =
+        ArgumentReader.readOptionalNumericArgument(
+            gameArguments, Identifiers.PARALLELISM_NAME, GameValues.DEFAULT_PARALLELISM);
+    parallelThreshold =
+        ArgumentReader.readOptionalNumericArgument(
+            gameArguments,
+            Identifiers.PARALLEL_THRESHOLD_NAME,
+            GameValues.PARALLEL_THRESHOLD_CELLS);
+    display =
+        ArgumentReader.readOptionalStringArg(
+            gameArguments, Identifiers.DISPLAY_NAME, GameValues.SWING_DISPLAY);
+    mode =
+        ArgumentReader.readOptionalStringArg(
+            gameArguments, Identifiers.MODE_NAME, GameValues.RENDER_MODE);
+    speed =
+        isHeadless() || isCensus()
+            ? ArgumentReader.readOptionalNumericArgument(
+                gameArguments, Identifiers.SPEED_NAME, GameValues.UNTIMED_SPEED)
+            : ArgumentReader.readNumericArgument(gameArguments, Identifiers.SPEED_NAME);
+    output = ArgumentReader.readOptionalStringArg(gameArguments, Identifiers.OUTPUT_NAME, "");
+    checkpoint =
+        ArgumentReader.readOptionalStringArg(gameArguments, Identifiers.CHECKPOINT_NAME, "");
+    checkpointInterval =
+        ArgumentReader.readOptionalNumericArgument(
+            gameArguments, Identifiers.CHECKPOINT_INTERVAL_NAME, 0);
+    recording =
+        ArgumentReader.readOptionalStringArg(gameArguments, Identifiers.RECORDING_NAME, "");
+    keyframeInterval =
+        ArgumentReader.readOptionalNumericArgument(
+            gameArguments,
+            Identifiers.KEYFRAME_INTERVAL_NAME,
+            GameValues.DEFAULT_KEYFRAME_INTERVAL);
   }
 
   /**
@@ -72,7 +184,31 @@ public class GameConfiguration {
         && height != ErrorReturns.intErrorReturn
         && generations != ErrorReturns.intErrorReturn
         && speed != ErrorReturns.intErrorReturn
-        && !Objects.equals(population, ErrorReturns.stringErrorReturn);
+        && parallelism != ErrorReturns.intErrorReturn
+        && parallelThreshold != ErrorReturns.intErrorReturn
+        && seed != ErrorReturns.intErrorReturn
+        && density != ErrorReturns.intErrorReturn
+        && lookahead != ErrorReturns.intErrorReturn
+        && metricsDumpSeconds != ErrorReturns.intErrorReturn
+        && soups != ErrorReturns.intErrorReturn
+        && workers != ErrorReturns.intErrorReturn
+        && !Objects.equals(address, ErrorReturns.stringErrorReturn)
+        && !Objects.equals(mappedFile, ErrorReturns.stringErrorReturn)
+        && !Objects.equals(metrics, ErrorReturns.stringErrorReturn)
+        && !Objects.equals(rule, ErrorReturns.stringErrorReturn)
+        && !Objects.equals(population, ErrorReturns.stringErrorReturn)
+        && !Objects.equals(engine, ErrorReturns.stringErrorReturn)
+        && !Objects.equals(boundary, ErrorReturns.stringErrorReturn)
+        && !Objects.equals(display, ErrorReturns.stringErrorReturn)
+        && !Objects.equals(mode, ErrorReturns.stringErrorReturn)
+        && !Objects.equals(output, ErrorReturns.stringErrorReturn)
+        && !Objects.equals(checkpoint, ErrorReturns.stringErrorReturn)
+        && checkpointInterval != ErrorReturns.intErrorReturn
+        && !Objects.equals(recording, ErrorReturns.stringErrorReturn)
+        && keyframeInterval != ErrorReturns.intErrorReturn
+        && !Objects.equals(resume, ErrorReturns.stringErrorReturn)
+        && !Objects.equals(pattern, ErrorReturns.stringErrorReturn)
+        && !Objects.equals(cycle, ErrorReturns.stringErrorReturn);
   }
 
   /**
@@ -81,40 +217,307 @@ public class GameConfiguration {
    * @return Returns true if the configuration has valid values, false if not.
    */
   public boolean hasValidValues() {
-    return ArgumentValidator.validateGameArguments(width, height, generations, speed, population);
+    if (!ArgumentValidator.validateMode(mode)) return false;
+    if (isCensus()) {
+      return ArgumentValidator.validateCensusArguments(
+              width, height, generations, population, soups, resume, pattern)
+          && ArgumentValidator.validateDensity(density)
+          && ArgumentValidator.validateRule(rule, engine, true);
+    }
+    boolean validArguments =
+        isHeadless()
+            ? ArgumentValidator.validateHeadlessArguments(
+                width, height, generations, headlessMaxSide())
+            : ArgumentValidator.validateGameArguments(width, height, generations, speed);
+    return validArguments
+        && ArgumentValidator.validateEngine(engine)
+        && ArgumentValidator.validateBoundary(boundary, engine)
+        && ArgumentValidator.validateRule(rule, engine, false)
+        && ArgumentValidator.validateParallelism(parallelism, parallelThreshold)
+        && ArgumentValidator.validateDistributed(workers, address, engine, height, parallelism)
+        && ArgumentValidator.validateMappedFile(mappedFile, engine)
+        && ArgumentValidator.validateDensity(density)
+        && ArgumentValidator.validateCycle(cycle, engine, isHeadless())
+        && ArgumentValidator.validateLookahead(lookahead, isHeadless())
+        && ArgumentValidator.validateMetrics(metrics, metricsDumpSeconds)
+        && ArgumentValidator.validateDisplay(display)
+        && ArgumentValidator.validateCheckpoint(checkpoint, checkpointInterval, isHeadless())
+        && ArgumentValidator.validateRecording(
+            recording, keyframeInterval, isHeadless(), width, height)
+        && (resume.isEmpty() || ArgumentValidator.validateResume(resume, width, height, rule))
+        && (pattern.isEmpty() || ArgumentValidator.validatePattern(pattern, resume));
   }
 
   /**
-   * Fills the game grid with the configuration population value. This method should only be used
-   * when the configuration is validated.
+   * Returns the largest side of the headless grid. The bits and the off-heap engines store a bit
+   * per cell and are loaded without other copies of the grid, so their grids can be larger.
    */
-  public void fillGameGrid() {
-    int[][] newGrid = new int[height][width];
-    gameGrid = new GolGrid(newGrid, width, height);
-    if (Objects.equals(population, "rnd")) {
-      gameGrid.fillGridWithPopulationString(generateRandomPopulation(width, height));
+  private int headlessMaxSide() {
+    boolean packedEngine =
+        Objects.equals(engine, GameValues.BIT_PACKED_ENGINE)
+            || Objects.equals(engine, GameValues.OFF_HEAP_ENGINE);
+    return packedEngine ? GameValues.HEADLESS_MAX_PACKED_SIDE : GameValues.HEADLESS_MAX_SIDE;
+  }
+
+  /**
+   * Fills the game grid with the configuration population value, the pattern file or the resumed
+   * snapshot. This method should only be used when the configuration is validated. Prints if the
+   * files can not be loaded or if the population, which is validated while it is loaded, is not
+   * valid. The census mode has no game grid, every soup fills its own, and the distributed workers
+   * load their own strips, so the coordinator never holds the grid.
+   *
+   * @return Returns true if the game grid was filled, false if not.
+   */
+  public boolean fillGameGrid() {
+    if (isCensus()) return true;
+    stepper = createStepper();
+    GridBoundary gridBoundary = GridBoundary.fromArgumentName(boundary);
+    lifeRule = LifeRule.parse(rule);
+    PopulationSource populationSource = createPopulationSource();
+    try {
+      startGeneration = populationSource.readGeneration();
+    } catch (IOException exception) {
+      ErrorPrinter.printException(exception.getMessage());
+      return false;
+    }
+    if (workers > 0) {
+      if (!startDistributedEngine(populationSource, gridBoundary)) return false;
     } else {
-      gameGrid.fillGridWithPopulationString(population);
+      GolEngine initialEngine = createInitialEngine(stepper, gridBoundary);
+      if (initialEngine == null) return false;
+      try {
+        populationSource.load((GridWriter) initialEngine, lifeRule, stepper);
+      } catch (IOException exception) {
+        ErrorPrinter.printException(exception.getMessage());
+        closeGameEngine();
+        return false;
+      }
+      gameEngine = createGameEngine(initialEngine);
+    }
+    if (Objects.equals(metrics, GameValues.METRICS_ON)) createSimulationMetrics();
+    return true;
+  }
+
+  /**
+   * Creates the source of the initial generation, the resumed snapshot, the pattern, the random
+   * soup or the population. The paths are absolute, so the workers read the same files.
+   */
+  private PopulationSource createPopulationSource() {
+    if (!resume.isEmpty()) {
+      String snapshotPath = Paths.get(resume).toAbsolutePath().toString();
+      return new PopulationSource(PopulationSource.Kind.SNAPSHOT, snapshotPath, 0, 0);
+    } else if (!pattern.isEmpty()) {
+      String patternPath = Paths.get(pattern).toAbsolutePath().toString();
+      return new PopulationSource(PopulationSource.Kind.PATTERN, patternPath, 0, 0);
+    } else if (Objects.equals(population, GameValues.RANDOM_POPULATION)) {
+      return new PopulationSource(PopulationSource.Kind.SOUP, "", seed, density / 100.0);
     }
+    return new PopulationSource(PopulationSource.Kind.POPULATION, population, 0, 0);
   }
 
-  /** Prints the game configuration values in console. */
+  /**
+   * Creates the engine where the initial generation is loaded, with every cell dead. The grid and
+   * the off-heap engines are loaded directly, every other engine is loaded from the words of a bit
+   * packed engine, which is also the game engine of the bits engine. Prints if the off-heap grid
+   * can not be mapped, and returns null.
+   */
+  private GolEngine createInitialEngine(RowBandStepper stepper, GridBoundary gridBoundary) {
+    RowKernel rowKernel = createRowKernel();
+    if (rowKernel != null || Objects.equals(engine, GameValues.GRID_ENGINE)) {
+      RowKernel gridKernel = rowKernel == null ? GolGrid.createRowKernel(lifeRule) : rowKernel;
+      return new GolGrid(width, height, gridBoundary, stepper, gridKernel);
+    } else if (Objects.equals(engine, GameValues.OFF_HEAP_ENGINE)) {
+      return createOffHeapEngine(stepper);
+    }
+    return new BitPackedEngine(width, height, stepper);
+  }
+
+  /**
+   * Waits for the workers and hands them the source of the initial generation, which every worker
+   * loads into its own strip. The game engine is then the coordinator of the workers.
+   */
+  private boolean startDistributedEngine(
+      PopulationSource populationSource, GridBoundary gridBoundary) {
+    try {
+      distributedEngine =
+          DistributedEngine.start(
+              width,
+              height,
+              populationSource,
+              workers,
+              address,
+              engine,
+              gridBoundary,
+              lifeRule);
+      gameEngine = distributedEngine;
+      return true;
+    } catch (IOException exception) {
+      ErrorPrinter.printException("The workers can not be started: " + exception.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Creates the dead grid in native memory, or in the mapped file if there is one. The grid is
+   * stored by bits on the heap if the foreign module is not present. The native memory is bounded
+   * by the direct memory limit of the jvm, a larger grid prints how to raise it or map a file.
+   */
+  private GolEngine createOffHeapEngine(RowBandStepper stepper) {
+    try {
+      Path mappedPath = mappedFile.isEmpty() ? null : Paths.get(mappedFile);
+      offHeapEngine = OffHeapEngines.create(width, height, stepper, mappedPath);
+    } catch (IOException exception) {
+      if (!mappedFile.isEmpty()) {
+        ErrorPrinter.printException("The grid can not be mapped: " + exception.getMessage());
+      } else {
+        ErrorPrinter.printException(
+            "The grid can not be stored off the heap: "
+                + exception.getMessage()
+                + ", raise the limit or map the grid to a file with "
+                + Identifiers.MAPPED_FILE_NAME
+                + "=<file>");
+      }
+      return null;
+    }
+    return offHeapEngine == null ? new BitPackedEngine(width, height, stepper) : offHeapEngine;
+  }
+
+  /**
+   * Measures the game engine into new simulation metrics, which are published over jmx. The game
+   * still runs if the metrics can not be published. The hashlife engine and the workers keep
+   * advancing many generations at once, the workers in a single round trip.
+   */
+  private void createSimulationMetrics() {
+    simulationMetrics = new SimulationMetrics();
+    boolean jumpsAhead = Objects.equals(engine, GameValues.HASHLIFE_ENGINE) || workers > 0;
+    gameEngine = new MeteredEngine(gameEngine, simulationMetrics, jumpsAhead);
+    try {
+      simulationMetrics.register();
+    } catch (JMException exception) {
+      ErrorPrinter.printException("The metrics can not be published: " + exception.getMessage());
+    }
+  }
+
+  /**
+   * Creates the row kernel of the engine for the rule, or returns null for the scalar kernel of
+   * the grid.
+   */
+  private RowKernel createRowKernel() {
+    if (Objects.equals(engine, GameValues.LOOKUP_TABLE_ENGINE)) {
+      return new LookupTableRowKernel(lifeRule);
+    } else if (Objects.equals(engine, GameValues.VECTOR_ENGINE)) {
+      vectorKernel = RowKernels.createVectorKernel(lifeRule);
+      return vectorKernel;
+    }
+    return null;
+  }
+
+  private RowBandStepper createStepper() {
+    if (parallelism == 1) {
+      return RowBandStepper.sequential();
+    }
+    return new RowBandStepper(parallelism, parallelThreshold);
+  }
+
+  /**
+   * Creates the game engine from the loaded initial engine, which is the game engine itself for the
+   * grid, the bits and the off-heap engines. The initial engine of the other engines is not kept.
+   */
+  private GolEngine createGameEngine(GolEngine initialEngine) {
+    if (Objects.equals(engine, GameValues.HASHLIFE_ENGINE)) {
+      return new HashLifeEngine(initialEngine);
+    } else if (Objects.equals(engine, GameValues.ACTIVE_CELL_ENGINE)) {
+      activeCellEngine = new ActiveCellEngine(initialEngine);
+      return activeCellEngine;
+    } else if (Objects.equals(engine, GameValues.SPARSE_TILE_ENGINE)) {
+      return new SparseTileEngine(initialEngine);
+    }
+    return initialEngine;
+  }
+
+  /**
+   * Prints the game configuration values in console. The headless mode does not print the
+   * population and the grid, which can be too large for the console, and the speed is only printed
+   * by the modes that display the generations.
+   */
   public void printConfiguration() {
     Logger.logConfigurationValue("The width is", width);
     Logger.logConfigurationValue("The height is", height);
     Logger.logConfigurationValue("The generations are", generations);
-    Logger.logConfigurationValue("The speed is", speed);
-    Logger.logConfigurationValue("The population is", population);
-    printGameGrid();
+    if (!isHeadless() && !isCensus()) Logger.logConfigurationValue("The speed is", speed);
+    Logger.logConfigurationValue("The engine is", engine);
+    if (Objects.equals(engine, GameValues.VECTOR_ENGINE) && vectorKernel == null) {
+      Logger.logConfigurationValue(
+          "The vector module is not present, the rows are evolved by", GameValues.GRID_ENGINE);
+    }
+    if (Objects.equals(engine, GameValues.OFF_HEAP_ENGINE) && offHeapEngine == null) {
+      Logger.logConfigurationValue(
+          "The foreign module is not present, the grid is stored by", GameValues.BIT_PACKED_ENGINE);
+    }
+    if (!mappedFile.isEmpty()) {
+      Logger.logConfigurationValue("The mapped file is", mappedFile);
+    }
+    Logger.logConfigurationValue("The boundary is", boundary);
+    Logger.logConfigurationValue("The parallelism is", parallelism);
+    if (parallelism > 1) {
+      Logger.logConfigurationValue("The parallel threshold cells are", parallelThreshold);
+      if ((long) width * height <= parallelThreshold) {
+        Logger.logConfigurationValue(
+            "The grid is under the parallel threshold, the rows are evolved by", "one thread");
+      }
+    }
+    if (workers > 0) {
+      Logger.logConfigurationValue("The workers are", workers);
+      Logger.logConfigurationValue("The coordinator address is", address);
+    }
+    Logger.logConfigurationValue("The display is", display);
+    Logger.logConfigurationValue("The mode is", mode);
+    if (isCensus()) {
+      Logger.logConfigurationValue("The soups are", soups);
+      Logger.logConfigurationValue("The first soup seed is", seed);
+      Logger.logConfigurationValue("The density percentage is", density);
+      return;
+    }
+    Logger.logConfigurationValue("The rule is", lifeRule.toString());
+    Logger.logConfigurationValue("The cycle detection is", cycle);
+    Logger.logConfigurationValue("The lookahead is", lookahead);
+    Logger.logConfigurationValue("The metrics are", metrics);
+    if (metricsDumpSeconds > 0) {
+      Logger.logConfigurationValue("The metrics dump seconds are", metricsDumpSeconds);
+    }
+    if (!pattern.isEmpty()) {
+      Logger.logConfigurationValue("The pattern is", pattern);
+    }
+    if (!resume.isEmpty()) {
+      Logger.logConfigurationValue("The resumed snapshot is", resume);
+      Logger.logConfigurationValue("The resumed generation is", startGeneration);
+    }
+    if (!recording.isEmpty()) {
+      Logger.logConfigurationValue("The recording is", recording);
+      Logger.logConfigurationValue("The keyframe interval is", keyframeInterval);
+    }
+    boolean randomPopulation = Objects.equals(population, GameValues.RANDOM_POPULATION);
+    if (!isHeadless() || randomPopulation) {
+      Logger.logConfigurationValue("The population is", population);
+    }
+    if (randomPopulation) {
+      Logger.logConfigurationValue("The seed is", seed);
+      Logger.logConfigurationValue("The density percentage is", density);
+    }
+    if (!isHeadless()) printGameGrid();
   }
 
   /** Prints the game grid in console. */
   public void printGameGrid() {
-    for (int[] row : gameGrid.getGrid()) {
-      for (int value : row) {
-        Logger.logGridCellValue(value);
+    int[] row = new int[width];
+    for (int rowIndex = 0; rowIndex < height; rowIndex++) {
+      for (int columnIndex = 0; columnIndex < width; columnIndex++) {
+        row[columnIndex] =
+            gameEngine.isCellAlive(rowIndex, columnIndex)
+                ? GameValues.ALIVE_CELL_INT
+                : GameValues.DEAD_CELL_INT;
       }
-      Logger.logNewLine();
+      Logger.logGridRow(row);
     }
   }
 
@@ -134,7 +537,137 @@ public class GameConfiguration {
     return generations;
   }
 
-  public GolGrid getGameGrid() {
-    return gameGrid;
+  public String getDisplay() {
+    return display;
+  }
+
+  public GolEngine getGameEngine() {
+    return gameEngine;
+  }
+
+  /**
+   * Returns the active cell engine, which is the game engine or the engine measured by the metrics
+   * when the engine is active.
+   *
+   * @return The active cell engine, or null if the game runs another engine.
+   */
+  public ActiveCellEngine getActiveCellEngine() {
+    return activeCellEngine;
+  }
+
+  /**
+   * Creates the cycle detector for the configured cycle detection.
+   *
+   * @return The cycle detector, or null if the cycles are not detected.
+   */
+  public CycleDetector createCycleDetector() {
+    if (Objects.equals(cycle, GameValues.CYCLE_OFF)) return null;
+    return new CycleDetector(GameValues.CYCLE_MAX_PERIOD);
+  }
+
+  /**
+   * Checks if the run stops when a cycle is detected.
+   *
+   * @return Returns true if the run stops on a cycle, false if not.
+   */
+  public boolean stopsOnCycle() {
+    return Objects.equals(cycle, GameValues.CYCLE_STOP);
+  }
+
+  /**
+   * Returns the metrics of the simulation.
+   *
+   * @return The metrics, or null if the metrics are off.
+   */
+  public SimulationMetrics getSimulationMetrics() {
+    return simulationMetrics;
+  }
+
+  public int getMetricsDumpSeconds() {
+    return metricsDumpSeconds;
+  }
+
+  public int getLookahead() {
+    return lookahead;
+  }
+
+  public String getOutput() {
+    return output;
+  }
+
+  public String getCheckpoint() {
+    return checkpoint;
+  }
+
+  public int getCheckpointInterval() {
+    return checkpointInterval;
+  }
+
+  public String getRecording() {
+    return recording;
+  }
+
+  public int getKeyframeInterval() {
+    return keyframeInterval;
+  }
+
+  public long getStartGeneration() {
+    return startGeneration;
+  }
+
+  public int getSeed() {
+    return seed;
+  }
+
+  public int getDensity() {
+    return density;
+  }
+
+  public int getSoups() {
+    return soups;
+  }
+
+  /**
+   * Releases what the game engine holds outside the jvm heap: stops the distributed workers or
+   * frees the memory of the off-heap grid, and stops the threads of the parallel bands. The engine
+   * can not be used after that.
+   */
+  public void closeGameEngine() {
+    if (stepper != null) stepper.shutdown();
+    if (distributedEngine != null) distributedEngine.close();
+    if (offHeapEngine instanceof AutoCloseable) {
+      try {
+        ((AutoCloseable) offHeapEngine).close();
+      } catch (Exception exception) {
+        ErrorPrinter.printException("The grid memory can not be freed: " + exception.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Returns the rule of the game. This method should only be used when the game grid is filled.
+   *
+   * @return The parsed rule.
+   */
+  public LifeRule getRule() {
+    return lifeRule;
+  }
+
+  /**
+   * Checks if the game runs in census mode, searching random soups instead of one game.
+   *
+   * @return Returns true if the mode is census, false if not.
+   */
+  public boolean isCensus() {
+    return GameValues.CENSUS_MODE.equals(mode);
+  }
+
+  /**
+   * Checks if the game runs in headless mode, without rendering the generations.
+   *
+   * @return Returns true if the mode is headless, false if not.
+   */
+  public boolean isHeadless() {
+    return GameValues.HEADLESS_MODE.equals(mode);
   }
 }
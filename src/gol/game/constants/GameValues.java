@@ -6,6 +6,48 @@ public class GameValues {
   public static final char ALIVE_CELL_CHAR = 'X';
   public static final char DEAD_CELL_CHAR = '.';
   public static final char NEW_ROW_CHAR = '\n';
+  public static final String GRID_ENGINE = "grid";
+  public static final String BIT_PACKED_ENGINE = "bits";
+  public static final String HASHLIFE_ENGINE = "hashlife";
+  public static final String ACTIVE_CELL_ENGINE = "active";
+  public static final String SPARSE_TILE_ENGINE = "sparse";
+  public static final String VECTOR_ENGINE = "vector";
+  public static final String LOOKUP_TABLE_ENGINE = "table";
+  public static final String OFF_HEAP_ENGINE = "offheap";
+  public static final int DEFAULT_PARALLELISM = 1;
+  public static final int PARALLEL_THRESHOLD_CELLS = 1 << 16;
+  public static final int HASHLIFE_MAX_NODES = 1 << 22;
+  public static final String SWING_DISPLAY = "swing";
+  public static final String ANSI_DISPLAY = "ansi";
+  public static final int ANSI_OUTPUT_BUFFER_BYTES = 1 << 16;
+  public static final String RENDER_MODE = "render";
+  public static final String HEADLESS_MODE = "headless";
+  public static final int UNTIMED_SPEED = 0;
+  public static final String CENSUS_MODE = "census";
+  public static final int CENSUS_MAX_SIDE = 1024;
+  public static final int DEFAULT_CENSUS_SOUPS = 1000;
+  public static final String WORKER_MODE = "worker";
+  public static final String REPLAY_MODE = "replay";
+  public static final int DEFAULT_KEYFRAME_INTERVAL = 1000;
+  public static final int DEFAULT_WORKERS = 0;
+  public static final int MAX_WORKERS = 256;
+  public static final String DEFAULT_DISTRIBUTED_ADDRESS = "localhost:7464";
+  public static final int HEADLESS_MAX_SIDE = 1 << 16;
+  public static final int HEADLESS_MAX_PACKED_SIDE = 1 << 24;
+  public static final int HEADLESS_OUTPUT_BUFFER_BYTES = 1 << 16;
+  public static final String CONWAY_RULE = "B3/S23";
+  public static final String RANDOM_POPULATION = "rnd";
+  public static final int DEFAULT_DENSITY_PERCENT = 50;
+  public static final String CYCLE_OFF = "off";
+  public static final String CYCLE_STOP = "stop";
+  public static final String CYCLE_FORWARD = "forward";
+  public static final int CYCLE_MAX_PERIOD = 64;
+  public static final int DEFAULT_LOOKAHEAD = 0;
+  public static final int MAX_LOOKAHEAD = 256;
+  public static final String METRICS_OFF = "off";
+  public static final String METRICS_ON = "on";
+  public static final int DEFAULT_METRICS_DUMP_SECONDS = 0;
+  public static final int MAX_METRICS_DUMP_SECONDS = 3600;
 
   private GameValues() {}
 }
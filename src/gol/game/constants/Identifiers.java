@@ -15,6 +15,56 @@ public class Identifiers {
   public static final char SPEED_NAME = 's';
   /** Identifier for the population. */
   public static final char POPULATION_NAME = 'p';
+  /** Identifier for the engine. */
+  public static final char ENGINE_NAME = 'e';
+  /** Identifier for the boundary topology. */
+  public static final char BOUNDARY_NAME = 't';
+  /** Identifier for the number of threads that evolve the grid. */
+  public static final char PARALLELISM_NAME = 'j';
+  /** Identifier for the number of cells below which a grid or a band is evolved sequentially. */
+  public static final char PARALLEL_THRESHOLD_NAME = 'T';
+  /** Identifier for the display of the generations. */
+  public static final char DISPLAY_NAME = 'd';
+  /** Identifier for the run mode, rendered, headless, census, worker or replay. */
+  public static final char MODE_NAME = 'm';
+  /** Identifier for the file where the headless mode writes the final generation. */
+  public static final char OUTPUT_NAME = 'o';
+  /** Identifier for the snapshot file written by the headless mode. */
+  public static final char CHECKPOINT_NAME = 'k';
+  /** Identifier for the generations between the snapshots of the headless mode. */
+  public static final char CHECKPOINT_INTERVAL_NAME = 'i';
+  /** Identifier for the snapshot file where the game resumes. */
+  public static final char RESUME_NAME = 'u';
+  /** Identifier for the rle or Life 1.06 file with the initial pattern. */
+  public static final char PATTERN_NAME = 'f';
+  /** Identifier for the seed of the random population. */
+  public static final char SEED_NAME = 'r';
+  /** Identifier for the percentage of alive cells of the random population. */
+  public static final char DENSITY_NAME = 'c';
+  /** Identifier for what the game does when the generations repeat. */
+  public static final char CYCLE_NAME = 'y';
+  /** Identifier for the generations computed ahead of the display. */
+  public static final char LOOKAHEAD_NAME = 'a';
+  /** Identifier for the metrics of the simulation, on or off. */
+  public static final char METRICS_NAME = 'n';
+  /** Identifier for the seconds between the dumps of the metrics. */
+  public static final char METRICS_DUMP_NAME = 'v';
+  /** Identifier for the number of random soups searched by the census mode. */
+  public static final char SOUPS_NAME = 'x';
+  /** Identifier for the life-like rule in the B/S notation. */
+  public static final char RULE_NAME = 'l';
+  /** Identifier for the number of workers that evolve the strips of a distributed grid. */
+  public static final char WORKERS_NAME = 'b';
+  /** Identifier for the address of the coordinator of a distributed grid. */
+  public static final char ADDRESS_NAME = 'q';
+  /** Identifier for the file that backs the grid of the off-heap engine. */
+  public static final char MAPPED_FILE_NAME = 'z';
+  /** Identifier for the file where the headless mode records the run, and the replay reads it. */
+  public static final char RECORDING_NAME = 'R';
+  /** Identifier for the number of recorded generations from a keyframe to the next one. */
+  public static final char KEYFRAME_INTERVAL_NAME = 'K';
+  /** Identifier for the recorded generation where the replay starts. */
+  public static final char REPLAY_FIRST_NAME = 'F';
 
   private Identifiers() {}
 }
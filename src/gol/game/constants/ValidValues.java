@@ -6,6 +6,49 @@ public class ValidValues {
   public static final int[] VALID_WIDTH_VALUES = {10, 20, 40, 80};
   /** Valid values for the grid height. */
   public static final int[] VALID_HEIGHT_VALUES = {10, 20, 40};
+  /** Valid values for the grid engine. */
+  public static final String[] VALID_ENGINE_VALUES = {
+    GameValues.GRID_ENGINE,
+    GameValues.BIT_PACKED_ENGINE,
+    GameValues.HASHLIFE_ENGINE,
+    GameValues.ACTIVE_CELL_ENGINE,
+    GameValues.SPARSE_TILE_ENGINE,
+    GameValues.VECTOR_ENGINE,
+    GameValues.LOOKUP_TABLE_ENGINE,
+    GameValues.OFF_HEAP_ENGINE
+  };
+  /** Valid values for the engines that evolve the grid with halo, which support every boundary. */
+  public static final String[] VALID_BOUNDARY_ENGINE_VALUES = {
+    GameValues.GRID_ENGINE, GameValues.VECTOR_ENGINE, GameValues.LOOKUP_TABLE_ENGINE
+  };
+  /** Valid values for the engines that evolve the grid with a rule compiled kernel. */
+  public static final String[] VALID_RULE_ENGINE_VALUES = {
+    GameValues.GRID_ENGINE, GameValues.VECTOR_ENGINE, GameValues.LOOKUP_TABLE_ENGINE
+  };
+  /** Valid values for the engines whose kernel evolves the strips of the distributed workers. */
+  public static final String[] VALID_DISTRIBUTED_ENGINE_VALUES = {
+    GameValues.GRID_ENGINE, GameValues.VECTOR_ENGINE, GameValues.LOOKUP_TABLE_ENGINE
+  };
+  /** Valid values for the display of the generations. */
+  public static final String[] VALID_DISPLAY_VALUES = {
+    GameValues.SWING_DISPLAY, GameValues.ANSI_DISPLAY
+  };
+  /** Valid values for the cycle detection. */
+  public static final String[] VALID_CYCLE_VALUES = {
+    GameValues.CYCLE_OFF, GameValues.CYCLE_STOP, GameValues.CYCLE_FORWARD
+  };
+  /** Valid values for the run mode. */
+  public static final String[] VALID_MODE_VALUES = {
+    GameValues.RENDER_MODE,
+    GameValues.HEADLESS_MODE,
+    GameValues.CENSUS_MODE,
+    GameValues.WORKER_MODE,
+    GameValues.REPLAY_MODE
+  };
+  /** Valid values for the metrics. */
+  public static final String[] VALID_METRICS_VALUES = {
+    GameValues.METRICS_OFF, GameValues.METRICS_ON
+  };
 
   private ValidValues() {}
 }
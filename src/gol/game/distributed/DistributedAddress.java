@@ -0,0 +1,39 @@
+package gol.game.distributed;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Address of the coordinator of a distributed game, given as {@code host:port} or only as the port,
+ * which means the local host. The coordinator listens on the address and the workers connect to it.
+ */
+public final class DistributedAddress {
+  private static final String DEFAULT_HOST = "localhost";
+  private static final int MAX_PORT = 65535;
+
+  private DistributedAddress() {}
+
+  /**
+   * Checks if the given address has a valid port and, if it has a host, a non empty one.
+   *
+   * @param address The address argument value.
+   * @return True if the address is valid, false if not.
+   */
+  public static boolean isValid(String address) {
+    int separator = address.lastIndexOf(':');
+    if (separator == 0) return false;
+    try {
+      int port = Integer.parseInt(address.substring(separator + 1));
+      return port >= 1 && port <= MAX_PORT;
+    } catch (NumberFormatException exception) {
+      return false;
+    }
+  }
+
+  /** Returns the socket address of a valid address, which is not resolved until it is used. */
+  static InetSocketAddress toSocketAddress(String address) {
+    int separator = address.lastIndexOf(':');
+    String host = separator < 0 ? DEFAULT_HOST : address.substring(0, separator);
+    int port = Integer.parseInt(address.substring(separator + 1));
+    return new InetSocketAddress(host, port);
+  }
+}
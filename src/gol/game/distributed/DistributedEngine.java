@@ -0,0 +1,315 @@
+package gol.game.distributed;
+
+import gol.game.engine.GolEngine;
+import gol.game.engine.GridBoundary;
+import gol.game.engine.LifeRule;
+import gol.game.engine.StepCounter;
+import gol.game.population.PopulationSource;
+import gol.utils.Logger;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.ServerSocketChannel;
+import java.util.Arrays;
+
+/**
+ * Gol engine of the coordinator of a distributed game. The grid is split in strips of consecutive
+ * rows, one per worker, and every worker loads its strip from the source of the initial generation
+ * and evolves it exchanging the halo rows with its neighbours, so the coordinator never holds the
+ * grid and only sends the number of generations to advance and waits for every worker. The cells
+ * are gathered from the workers only when they are read, a block of rows at a time, so reading the
+ * rows in order streams them strip by strip and the coordinator holds a single block.
+ */
+public final class DistributedEngine implements GolEngine, StepCounter, AutoCloseable {
+  /** The bytes of the packed rows of a gathered block, at least one row is gathered. */
+  private static final int GATHER_BLOCK_BYTES = 1 << 20;
+
+  private final int width;
+  private final int height;
+  private final int wordsPerRow;
+  private final MessageChannel[] workers;
+  private final int[] firstRows;
+  private final int blockCapacity;
+  private long[][] blockRows;
+  private int blockFirstRow;
+  private int blockRowCount;
+  private long gridHash;
+
+  private DistributedEngine(int width, int height, MessageChannel[] workers) {
+    this.width = width;
+    this.height = height;
+    this.wordsPerRow = (width + Long.SIZE - 1) / Long.SIZE;
+    this.workers = workers;
+    this.firstRows = new int[workers.length + 1];
+    for (int worker = 0; worker <= workers.length; worker++) {
+      firstRows[worker] = DistributedProtocol.firstRow(worker, workers.length, height);
+    }
+    int blockRowsOfBytes = GATHER_BLOCK_BYTES / (wordsPerRow * Long.BYTES);
+    this.blockCapacity = Math.max(1, Math.min(height, blockRowsOfBytes));
+  }
+
+  /**
+   * Waits for the given number of workers at the address, assigns every worker its strip and the
+   * source of the initial generation, and waits until the workers have loaded their strips and
+   * connected their halo links. The workers read the files of the source themselves.
+   *
+   * @param width The width of the grid.
+   * @param height The height of the grid.
+   * @param populationSource The source of the initial generation.
+   * @param workerCount The number of workers, at most the height of the grid.
+   * @param address The address where the coordinator listens, as host and port or only the port.
+   * @param engine The engine name whose kernel evolves the strips, grid, vector or table.
+   * @param boundary The boundary topology for the grid edges.
+   * @param rule The rule that evolves every cell.
+   * @return The engine of the coordinator.
+   * @throws IOException If a worker can not be reached or can not load its strip.
+   */
+  public static DistributedEngine start(
+      int width,
+      int height,
+      PopulationSource populationSource,
+      int workerCount,
+      String address,
+      String engine,
+      GridBoundary boundary,
+      LifeRule rule)
+      throws IOException {
+    MessageChannel[] workers = new MessageChannel[workerCount];
+    int[] peerPorts = new int[workerCount];
+    String[] hosts = new String[workerCount];
+    try (ServerSocketChannel server = ServerSocketChannel.open()) {
+      server.bind(DistributedAddress.toSocketAddress(address));
+      Logger.logConfigurationValue("The coordinator waits for the workers at", address);
+      for (int worker = 0; worker < workerCount; worker++) {
+        workers[worker] = new MessageChannel(server.accept());
+        peerPorts[worker] = workers[worker].readInt();
+        hosts[worker] = workers[worker].getRemoteHost();
+      }
+    } catch (IOException exception) {
+      closeAll(workers);
+      throw exception;
+    }
+
+    DistributedEngine distributedEngine = new DistributedEngine(width, height, workers);
+    try {
+      boolean ring = boundary == GridBoundary.WRAP && workerCount > 1;
+      for (int worker = 0; worker < workerCount; worker++) {
+        boolean hasDownNeighbour = ring || worker < workerCount - 1;
+        boolean hasUpNeighbour = ring || worker > 0;
+        int downNeighbour = (worker + 1) % workerCount;
+        distributedEngine.assignStrip(
+            populationSource,
+            worker,
+            boundary,
+            rule,
+            engine,
+            hasDownNeighbour ? hosts[downNeighbour] : "",
+            hasDownNeighbour ? peerPorts[downNeighbour] : DistributedProtocol.NO_NEIGHBOUR,
+            hasUpNeighbour);
+      }
+      distributedEngine.gridHash = distributedEngine.awaitHashes(DistributedProtocol.LOADED);
+      for (MessageChannel worker : workers) {
+        worker.writeInt(DistributedProtocol.LINK);
+        worker.flush();
+      }
+      distributedEngine.awaitReplies(DistributedProtocol.READY);
+    } catch (IOException exception) {
+      closeAll(workers);
+      throw exception;
+    }
+    return distributedEngine;
+  }
+
+  private static void closeAll(MessageChannel[] workers) {
+    for (MessageChannel worker : workers) {
+      if (worker == null) continue;
+      try {
+        worker.close();
+      } catch (IOException exception) {
+        // The other workers are still closed, the game does not start anyway.
+      }
+    }
+  }
+
+  private void assignStrip(
+      PopulationSource populationSource,
+      int worker,
+      GridBoundary boundary,
+      LifeRule rule,
+      String engine,
+      String downHost,
+      int downPort,
+      boolean hasUpNeighbour)
+      throws IOException {
+    MessageChannel channel = workers[worker];
+    channel.writeInt(worker);
+    channel.writeInt(workers.length);
+    channel.writeInt(width);
+    channel.writeInt(height);
+    channel.writeInt(firstRows[worker]);
+    channel.writeInt(firstRows[worker + 1] - firstRows[worker]);
+    channel.writeString(boundary.getArgumentName());
+    channel.writeString(rule.toString());
+    channel.writeString(engine);
+    channel.writeString(downHost);
+    channel.writeInt(downPort);
+    channel.writeInt(hasUpNeighbour ? 0 : DistributedProtocol.NO_NEIGHBOUR);
+    channel.writeString(populationSource.getKind().name());
+    channel.writeString(populationSource.getValue());
+    channel.writeLong(populationSource.getSeed());
+    channel.writeLong(Double.doubleToLongBits(populationSource.getDensity()));
+    channel.flush();
+  }
+
+  /**
+   * Waits for the given reply of every worker. A worker that could not load its strip replies its
+   * error, which is thrown.
+   */
+  private void awaitReplies(int reply) throws IOException {
+    for (MessageChannel worker : workers) awaitReply(worker, reply);
+  }
+
+  /** Waits for the given reply of every worker, and adds the hashes of the strips after it. */
+  private long awaitHashes(int reply) throws IOException {
+    long hash = 0;
+    for (MessageChannel worker : workers) {
+      awaitReply(worker, reply);
+      hash += worker.readLong();
+    }
+    return hash;
+  }
+
+  private static void awaitReply(MessageChannel worker, int reply) throws IOException {
+    int received = worker.readInt();
+    if (received == DistributedProtocol.FAILED) throw new IOException(worker.readString());
+    if (received != reply) throw new IOException("Unexpected reply " + received);
+  }
+
+  @Override
+  public void updateGridLife() {
+    advanceGenerations(1);
+  }
+
+  /** Sends the generations to every worker at once, so the workers advance them in parallel. */
+  @Override
+  public void advanceGenerations(long generations) {
+    if (generations <= 0) return;
+    try {
+      for (MessageChannel worker : workers) {
+        worker.writeInt(DistributedProtocol.ADVANCE);
+        worker.writeLong(generations);
+        worker.flush();
+      }
+      gridHash = awaitHashes(DistributedProtocol.DONE);
+    } catch (IOException exception) {
+      throw new UncheckedIOException("The workers did not advance", exception);
+    }
+    blockRowCount = 0;
+  }
+
+  /** Sums the counts of the last step of every strip, which every worker counts at once. */
+  @Override
+  public void countLastStep(long[] counts) {
+    long[] workerCounts = new long[counts.length];
+    Arrays.fill(counts, 0);
+    try {
+      for (MessageChannel worker : workers) {
+        worker.writeInt(DistributedProtocol.COUNT);
+        worker.flush();
+      }
+      for (MessageChannel worker : workers) {
+        worker.readWords(workerCounts);
+        for (int index = 0; index < counts.length; index++) counts[index] += workerCounts[index];
+      }
+    } catch (IOException exception) {
+      throw new UncheckedIOException("The cells of the workers could not be counted", exception);
+    }
+  }
+
+  @Override
+  public boolean isCellAlive(int rowIndex, int columnIndex) {
+    return ((getRowWord(rowIndex, columnIndex >>> 6) >>> columnIndex) & 1L) != 0;
+  }
+
+  @Override
+  public long getRowWord(int rowIndex, int wordIndex) {
+    if (rowIndex < blockFirstRow || rowIndex >= blockFirstRow + blockRowCount) gather(rowIndex);
+    return blockRows[rowIndex - blockFirstRow][wordIndex];
+  }
+
+  /** Returns the worker whose strip has the given row. */
+  private int findWorker(int rowIndex) {
+    int low = 0;
+    int high = workers.length - 1;
+    while (low < high) {
+      int middle = (low + high + 1) >>> 1;
+      if (firstRows[middle] <= rowIndex) {
+        low = middle;
+      } else {
+        high = middle - 1;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Gathers the block of rows that starts at the given row, up to the block capacity and the end of
+   * the strip of its worker, replacing the previous block.
+   */
+  private void gather(int rowIndex) {
+    if (blockRows == null) blockRows = new long[blockCapacity][wordsPerRow];
+    int worker = findWorker(rowIndex);
+    int rowCount = Math.min(blockCapacity, firstRows[worker + 1] - rowIndex);
+    blockRowCount = 0;
+    try {
+      MessageChannel channel = workers[worker];
+      channel.writeInt(DistributedProtocol.GATHER);
+      channel.writeInt(rowIndex - firstRows[worker]);
+      channel.writeInt(rowCount);
+      channel.flush();
+      for (int blockRow = 0; blockRow < rowCount; blockRow++) {
+        channel.readWords(blockRows[blockRow]);
+      }
+    } catch (IOException exception) {
+      throw new UncheckedIOException("The strip of a worker could not be gathered", exception);
+    }
+    blockFirstRow = rowIndex;
+    blockRowCount = rowCount;
+  }
+
+  /**
+   * Returns the hash of the grid, the sum of the hashes of the strips that the workers evolve with
+   * their rows, so no cell is gathered. The hash is the one of the grid engine.
+   */
+  @Override
+  public long getGridHash() {
+    return gridHash;
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  public int getWorkerCount() {
+    return workers.length;
+  }
+
+  /** Stops every worker and closes the connections. */
+  @Override
+  public void close() {
+    for (MessageChannel worker : workers) {
+      try {
+        worker.writeInt(DistributedProtocol.STOP);
+        worker.flush();
+      } catch (IOException exception) {
+        // The worker already ended, its connection is still closed below.
+      }
+    }
+    closeAll(workers);
+  }
+}
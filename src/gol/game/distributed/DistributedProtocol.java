@@ -0,0 +1,39 @@
+package gol.game.distributed;
+
+/**
+ * Commands and replies between the coordinator and the workers. A worker connects to the
+ * coordinator and sends the port where its neighbours connect, then receives its strip of rows and
+ * the source of the initial generation, loads the strip and replies loaded. When every worker has
+ * loaded its strip the coordinator links them, and every worker connects its halo links and
+ * replies ready. After that the coordinator sends one command at a time and waits for the reply of
+ * every worker.
+ */
+final class DistributedProtocol {
+  /** Advances the given number of generations, replied with done. */
+  static final int ADVANCE = 1;
+  /** Sends the packed rows of the given range of the strip of the current generation. */
+  static final int GATHER = 2;
+  /** Closes the links and ends the worker. */
+  static final int STOP = 3;
+  /** The reply of a worker that has its halo links connected. */
+  static final int READY = 4;
+  /** The reply of a worker that advanced the generations, followed by the hash of its strip. */
+  static final int DONE = 5;
+  /** The reply of a worker that loaded its strip, followed by the hash of its strip. */
+  static final int LOADED = 6;
+  /** The reply of a worker that could not load its strip, followed by the error. */
+  static final int FAILED = 7;
+  /** Connects the halo links, replied with ready. */
+  static final int LINK = 8;
+  /** Sends the population of the strip and its births and deaths in the last step. */
+  static final int COUNT = 9;
+  /** The marker of a neighbour that does not exist, sent instead of its port. */
+  static final int NO_NEIGHBOUR = -1;
+
+  private DistributedProtocol() {}
+
+  /** Returns the first row of the strip of the given worker. */
+  static int firstRow(int worker, int workers, int height) {
+    return (int) ((long) worker * height / workers);
+  }
+}
@@ -0,0 +1,242 @@
+package gol.game.distributed;
+
+import gol.game.GolGrid;
+import gol.game.constants.GameValues;
+import gol.game.engine.GridBoundary;
+import gol.game.engine.LifeRule;
+import gol.game.engine.LookupTableRowKernel;
+import gol.game.engine.RowBandStepper;
+import gol.game.engine.RowKernel;
+import gol.game.engine.RowKernels;
+import gol.game.population.PopulationSource;
+import gol.inputOutput.printers.ErrorPrinter;
+import gol.utils.Logger;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Worker of a distributed game, which owns a strip of consecutive rows of the grid and loads it
+ * from the source of the initial generation, so the files of a pattern or a snapshot have to be at
+ * the same path for every worker. The worker exchanges the edge rows of its strip with the workers
+ * of the strips above and below over one socket channel each, so the halo rows of a generation are
+ * the edge rows of its neighbours. Every generation the edge rows are evolved first and sent, and
+ * the inner rows are evolved while the sent rows and the rows of the neighbours travel, so the
+ * communication is overlapped with the computation and only the wait for the halo rows remains.
+ */
+public final class DistributedWorker {
+  private static final long CONNECT_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+  private static final long CONNECT_RETRY_MILLIS = 100;
+
+  private final MessageChannel coordinator;
+  private final StripGrid strip;
+  private final long[] rowWords;
+  private final long[] counts = new long[3];
+  private MessageChannel upLink;
+  private MessageChannel downLink;
+
+  private DistributedWorker(MessageChannel coordinator, StripGrid strip) {
+    this.coordinator = coordinator;
+    this.strip = strip;
+    this.rowWords = new long[strip.getWordsPerRow()];
+  }
+
+  /**
+   * Connects to the coordinator at the given address and evolves the strip it assigns until the
+   * coordinator stops the game. The coordinator may start after the worker, the connection is
+   * retried for thirty seconds.
+   *
+   * @param address The address of the coordinator, as host and port or only the port.
+   */
+  public static void run(String address) {
+    try (MessageChannel coordinator = connect(DistributedAddress.toSocketAddress(address));
+        ServerSocketChannel peerServer = ServerSocketChannel.open()) {
+      peerServer.bind(new InetSocketAddress(coordinator.getLocalHost(), 0));
+      coordinator.writeInt(((InetSocketAddress) peerServer.getLocalAddress()).getPort());
+      coordinator.flush();
+
+      int worker = coordinator.readInt();
+      int workers = coordinator.readInt();
+      int width = coordinator.readInt();
+      int height = coordinator.readInt();
+      int firstRow = coordinator.readInt();
+      int rows = coordinator.readInt();
+      GridBoundary boundary = GridBoundary.fromArgumentName(coordinator.readString());
+      LifeRule rule = LifeRule.parse(coordinator.readString());
+      RowKernel rowKernel = createRowKernel(coordinator.readString(), rule);
+      String downHost = coordinator.readString();
+      int downPort = coordinator.readInt();
+      boolean hasUpNeighbour = coordinator.readInt() != DistributedProtocol.NO_NEIGHBOUR;
+      PopulationSource populationSource =
+          new PopulationSource(
+              PopulationSource.Kind.valueOf(coordinator.readString()),
+              coordinator.readString(),
+              coordinator.readLong(),
+              Double.longBitsToDouble(coordinator.readLong()));
+      Logger.logConfigurationValue("The worker is", worker + 1 + " of " + workers);
+      Logger.logConfigurationValue("The first row of the strip is", firstRow);
+      Logger.logConfigurationValue("The rows of the strip are", rows);
+
+      StripGrid strip = new StripGrid(width, height, firstRow, rows, boundary, rowKernel);
+      DistributedWorker distributedWorker = new DistributedWorker(coordinator, strip);
+      distributedWorker.loadStrip(populationSource, rule);
+      distributedWorker.connectLinks(peerServer, downHost, downPort, hasUpNeighbour);
+      distributedWorker.serve();
+    } catch (IOException | IllegalArgumentException exception) {
+      ErrorPrinter.printError("The worker stopped: " + exception.getMessage());
+    }
+  }
+
+  private static MessageChannel connect(InetSocketAddress address) throws IOException {
+    long startNanos = System.nanoTime();
+    while (true) {
+      try {
+        return MessageChannel.connect(address);
+      } catch (ConnectException exception) {
+        if (System.nanoTime() - startNanos > CONNECT_TIMEOUT_NANOS) throw exception;
+      }
+      try {
+        Thread.sleep(CONNECT_RETRY_MILLIS);
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        throw new IOException("The connection to the coordinator was interrupted", exception);
+      }
+    }
+  }
+
+  /** Creates the kernel of the engine, the scalar kernel of the grid if it is not available. */
+  private static RowKernel createRowKernel(String engine, LifeRule rule) {
+    if (GameValues.LOOKUP_TABLE_ENGINE.equals(engine)) {
+      return new LookupTableRowKernel(rule);
+    } else if (GameValues.VECTOR_ENGINE.equals(engine)) {
+      RowKernel vectorKernel = RowKernels.createVectorKernel(rule);
+      if (vectorKernel != null) return vectorKernel;
+      Logger.logConfigurationValue(
+          "The vector module is not present, the rows are evolved by", GameValues.GRID_ENGINE);
+    }
+    return GolGrid.createRowKernel(rule);
+  }
+
+  /**
+   * Loads the rows of the strip from the source of the initial generation and replies loaded, or
+   * replies the error and throws it. The worker then waits until every worker has loaded its strip.
+   */
+  private void loadStrip(PopulationSource populationSource, LifeRule rule) throws IOException {
+    try {
+      populationSource.load(
+          strip,
+          strip.getFirstRow(),
+          strip.getFirstRow() + strip.getRows(),
+          rule,
+          RowBandStepper.sequential());
+    } catch (IOException exception) {
+      coordinator.writeInt(DistributedProtocol.FAILED);
+      coordinator.writeString(exception.getMessage());
+      coordinator.flush();
+      throw exception;
+    }
+    strip.fillHaloColumns();
+    strip.hashRows();
+    coordinator.writeInt(DistributedProtocol.LOADED);
+    coordinator.writeLong(strip.getHash());
+    coordinator.flush();
+    int command = coordinator.readInt();
+    if (command != DistributedProtocol.LINK) throw new IOException("Unknown command " + command);
+  }
+
+  /**
+   * Connects the link to the strip below and accepts the link of the strip above. The server of
+   * every worker is open before the coordinator assigns the strips, so the connections wait in its
+   * backlog and the workers do not need to connect in order.
+   */
+  private void connectLinks(
+      ServerSocketChannel peerServer, String downHost, int downPort, boolean hasUpNeighbour)
+      throws IOException {
+    if (downPort != DistributedProtocol.NO_NEIGHBOUR) {
+      downLink = MessageChannel.connect(new InetSocketAddress(downHost, downPort));
+    }
+    if (hasUpNeighbour) upLink = new MessageChannel(peerServer.accept());
+    sendEdgeRows(false);
+    receiveHaloRows();
+    coordinator.writeInt(DistributedProtocol.READY);
+    coordinator.flush();
+  }
+
+  /** Runs the commands of the coordinator until it stops the game or closes the connection. */
+  private void serve() throws IOException {
+    try {
+      while (true) {
+        int command = coordinator.readInt();
+        if (command == DistributedProtocol.ADVANCE) {
+          long generations = coordinator.readLong();
+          for (long generation = 0; generation < generations; generation++) advance();
+          coordinator.writeInt(DistributedProtocol.DONE);
+          coordinator.writeLong(strip.getHash());
+        } else if (command == DistributedProtocol.GATHER) {
+          int fromRow = coordinator.readInt();
+          int toRow = fromRow + coordinator.readInt();
+          for (int rowIndex = fromRow; rowIndex < toRow; rowIndex++) {
+            strip.getRowWords(rowIndex, rowWords);
+            coordinator.writeWords(rowWords);
+          }
+        } else if (command == DistributedProtocol.COUNT) {
+          strip.countLastStep(counts);
+          coordinator.writeWords(counts);
+        } else if (command == DistributedProtocol.STOP) {
+          break;
+        } else {
+          throw new IOException("Unknown command " + command);
+        }
+        coordinator.flush();
+      }
+    } catch (EOFException exception) {
+      Logger.logConfigurationValue("The game was ended by", "the coordinator");
+    } finally {
+      if (upLink != null) upLink.close();
+      if (downLink != null) downLink.close();
+    }
+  }
+
+  private void advance() throws IOException {
+    strip.updateEdgeRows();
+    sendEdgeRows(true);
+    strip.updateInnerRows();
+    strip.swap();
+    receiveHaloRows();
+  }
+
+  /** Sends the first row to the strip above and the last row to the strip below. */
+  private void sendEdgeRows(boolean nextGeneration) throws IOException {
+    if (upLink != null) sendRow(upLink, 0, nextGeneration);
+    if (downLink != null) sendRow(downLink, strip.getRows() - 1, nextGeneration);
+  }
+
+  private void sendRow(MessageChannel link, int rowIndex, boolean nextGeneration)
+      throws IOException {
+    if (nextGeneration) {
+      strip.getNextRowWords(rowIndex, rowWords);
+    } else {
+      strip.getRowWords(rowIndex, rowWords);
+    }
+    link.writeWords(rowWords);
+    link.flush();
+  }
+
+  private void receiveHaloRows() throws IOException {
+    if (upLink != null) {
+      upLink.readWords(rowWords);
+      strip.setTopHalo(rowWords);
+    } else {
+      strip.fillTopHaloByBoundary();
+    }
+    if (downLink != null) {
+      downLink.readWords(rowWords);
+      strip.setBottomHalo(rowWords);
+    } else {
+      strip.fillBottomHaloByBoundary();
+    }
+  }
+}
@@ -0,0 +1,125 @@
+package gol.game.distributed;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Blocking socket channel that reads and writes the ints, longs, strings and packed rows of the
+ * distributed protocol through two direct buffers. The values are little endian, the layout of the
+ * snapshots, and the writes are only sent when the channel is flushed, so a message is written
+ * with as few system calls as its size allows. Nagle's algorithm is disabled, because the halo
+ * rows are small and the peer waits for them.
+ */
+final class MessageChannel implements Closeable {
+  private static final int BUFFER_BYTES = 1 << 16;
+
+  private final SocketChannel channel;
+  private final ByteBuffer readBuffer =
+      ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+  private final ByteBuffer writeBuffer =
+      ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+  MessageChannel(SocketChannel channel) throws IOException {
+    this.channel = channel;
+    channel.configureBlocking(true);
+    channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+    readBuffer.limit(0);
+  }
+
+  /** Connects to the given address. */
+  static MessageChannel connect(SocketAddress address) throws IOException {
+    return new MessageChannel(SocketChannel.open(address));
+  }
+
+  /** Returns the local address of the connection, the interface that reaches the other end. */
+  InetAddress getLocalHost() throws IOException {
+    return ((InetSocketAddress) channel.getLocalAddress()).getAddress();
+  }
+
+  /** Returns the host of the remote end, as a name or a literal address. */
+  String getRemoteHost() throws IOException {
+    return ((InetSocketAddress) channel.getRemoteAddress()).getHostString();
+  }
+
+  void writeInt(int value) throws IOException {
+    ensureWritable(Integer.BYTES);
+    writeBuffer.putInt(value);
+  }
+
+  void writeLong(long value) throws IOException {
+    ensureWritable(Long.BYTES);
+    writeBuffer.putLong(value);
+  }
+
+  void writeString(String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeInt(bytes.length);
+    for (byte character : bytes) {
+      ensureWritable(1);
+      writeBuffer.put(character);
+    }
+  }
+
+  void writeWords(long[] words) throws IOException {
+    for (long word : words) writeLong(word);
+  }
+
+  /** Sends every written value. */
+  void flush() throws IOException {
+    writeBuffer.flip();
+    while (writeBuffer.hasRemaining()) channel.write(writeBuffer);
+    writeBuffer.clear();
+  }
+
+  int readInt() throws IOException {
+    ensureReadable(Integer.BYTES);
+    return readBuffer.getInt();
+  }
+
+  long readLong() throws IOException {
+    ensureReadable(Long.BYTES);
+    return readBuffer.getLong();
+  }
+
+  String readString() throws IOException {
+    byte[] bytes = new byte[readInt()];
+    for (int index = 0; index < bytes.length; index++) {
+      ensureReadable(1);
+      bytes[index] = readBuffer.get();
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  void readWords(long[] words) throws IOException {
+    for (int index = 0; index < words.length; index++) words[index] = readLong();
+  }
+
+  private void ensureWritable(int bytes) throws IOException {
+    if (writeBuffer.remaining() < bytes) flush();
+  }
+
+  private void ensureReadable(int bytes) throws IOException {
+    if (readBuffer.remaining() >= bytes) return;
+    readBuffer.compact();
+    while (readBuffer.position() < bytes) {
+      if (channel.read(readBuffer) < 0) {
+        throw new EOFException("The connection was closed by the other end");
+      }
+    }
+    readBuffer.flip();
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
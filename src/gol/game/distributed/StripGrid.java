@@ -0,0 +1,226 @@
+package gol.game.distributed;
+
+import gol.game.engine.GridBoundary;
+import gol.game.engine.GridHashes;
+import gol.game.engine.GridWriter;
+import gol.game.engine.RowKernel;
+
+/**
+ * Strip of consecutive rows of a distributed grid, stored one int per cell with a one cell halo
+ * like the grid of a single process. The halo columns follow the boundary of the grid, while the
+ * halo rows are the edge rows of the neighbour strips, received every generation, or follow the
+ * boundary at the top and bottom of the grid. The edge rows and the inner rows are evolved apart,
+ * so the edge rows can be sent while the inner rows are evolved. The rows are hashed while they are
+ * evolved, and the hash of the strip is its part of the grid hash, so the coordinator adds the
+ * hashes of the strips without reading their cells. The initial generation is written
+ * with the row indexes of the whole grid, from the first row of the strip.
+ */
+final class StripGrid implements GridWriter {
+  private static final int HALO = 1;
+
+  private final int width;
+  private final int height;
+  private final int firstRow;
+  private final int rows;
+  private final int wordsPerRow;
+  private final GridBoundary boundary;
+  private final RowKernel rowKernel;
+  private int[][] cells;
+  private int[][] nextCells;
+  private long hash;
+  private long nextHash;
+
+  StripGrid(
+      int width, int height, int firstRow, int rows, GridBoundary boundary, RowKernel rowKernel) {
+    this.width = width;
+    this.height = height;
+    this.firstRow = firstRow;
+    this.rows = rows;
+    this.wordsPerRow = (width + Long.SIZE - 1) / Long.SIZE;
+    this.boundary = boundary;
+    this.rowKernel = rowKernel;
+    this.cells = new int[rows + 2 * HALO][width + 2 * HALO];
+    this.nextCells = new int[rows + 2 * HALO][width + 2 * HALO];
+  }
+
+  int getFirstRow() {
+    return firstRow;
+  }
+
+  int getRows() {
+    return rows;
+  }
+
+  int getWordsPerRow() {
+    return wordsPerRow;
+  }
+
+  /** Sets 64 cells of a row of the grid, which has to be in the strip. */
+  @Override
+  public void setRowWord(int rowIndex, int wordIndex, long word) {
+    int[] row = cells[rowIndex - firstRow + HALO];
+    int firstColumn = wordIndex * Long.SIZE;
+    int lastColumn = Math.min(firstColumn + Long.SIZE, width);
+    for (int column = firstColumn; column < lastColumn; column++) {
+      row[column + HALO] = (int) (word >>> column) & 1;
+    }
+  }
+
+  /** Sets a cell of a row of the grid alive, the row has to be in the strip. */
+  @Override
+  public void setCellAlive(int rowIndex, int columnIndex) {
+    cells[rowIndex - firstRow + HALO][columnIndex + HALO] = 1;
+  }
+
+  /** Fills the halo columns of every row of the strip, once its initial generation is written. */
+  void fillHaloColumns() {
+    for (int rowIndex = HALO; rowIndex < rows + HALO; rowIndex++) fillHaloColumns(cells[rowIndex]);
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  /** Returns the height of the whole grid, the strip has {@link #getRows()} of its rows. */
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  /** Packs the cells of a row of the strip into the given words. */
+  void getRowWords(int rowIndex, long[] words) {
+    pack(cells[rowIndex + HALO], words);
+  }
+
+  /** Packs the cells of an edge row of the next generation, before it is swapped in. */
+  void getNextRowWords(int rowIndex, long[] words) {
+    pack(nextCells[rowIndex + HALO], words);
+  }
+
+  /** Sets the halo row above the strip from the packed last row of the strip above. */
+  void setTopHalo(long[] words) {
+    unpack(words, cells[0]);
+  }
+
+  /** Sets the halo row below the strip from the packed first row of the strip below. */
+  void setBottomHalo(long[] words) {
+    unpack(words, cells[rows + HALO]);
+  }
+
+  /**
+   * Fills the halo row above the strip by the boundary, for the strip at the top of the grid. The
+   * wrapped grid only reaches here with a single strip, which is its own neighbour.
+   */
+  void fillTopHaloByBoundary() {
+    if (boundary == GridBoundary.DEAD) return;
+    int sourceRow = boundary == GridBoundary.WRAP ? rows : HALO;
+    System.arraycopy(cells[sourceRow], 0, cells[0], 0, width + 2 * HALO);
+  }
+
+  /** Fills the halo row below the strip by the boundary, for the strip at the grid bottom. */
+  void fillBottomHaloByBoundary() {
+    if (boundary == GridBoundary.DEAD) return;
+    int sourceRow = boundary == GridBoundary.WRAP ? HALO : rows;
+    System.arraycopy(cells[sourceRow], 0, cells[rows + HALO], 0, width + 2 * HALO);
+  }
+
+  /**
+   * Counts the alive cells of the strip, and the cells born and dead in the last step against the
+   * previous generation, which is kept in the next cells after the swap.
+   */
+  void countLastStep(long[] counts) {
+    long population = 0;
+    long births = 0;
+    long deaths = 0;
+    for (int rowIndex = HALO; rowIndex < rows + HALO; rowIndex++) {
+      int[] row = cells[rowIndex];
+      int[] previousRow = nextCells[rowIndex];
+      for (int column = HALO; column < width + HALO; column++) {
+        int cell = row[column];
+        int previousCell = previousRow[column];
+        population += cell;
+        births += cell & ~previousCell;
+        deaths += previousCell & ~cell;
+      }
+    }
+    counts[0] = population;
+    counts[1] = births;
+    counts[2] = deaths;
+  }
+
+  /** Hashes the rows of the strip, once its initial generation is written. */
+  void hashRows() {
+    long[] words = new long[wordsPerRow];
+    hash = 0;
+    for (int rowIndex = 0; rowIndex < rows; rowIndex++) {
+      pack(cells[rowIndex + HALO], words);
+      long rowHash = 0;
+      for (long word : words) rowHash = GridHashes.addWord(rowHash, word);
+      hash = GridHashes.addRow(hash, firstRow + rowIndex, rowHash);
+    }
+  }
+
+  /** Returns the sum of the hashes of the rows of the strip, added like the rows of the grid. */
+  long getHash() {
+    return hash;
+  }
+
+  /** Evolves the first and the last row of the strip into the next generation. */
+  void updateEdgeRows() {
+    nextHash = 0;
+    updateRow(0);
+    if (rows > 1) updateRow(rows - 1);
+  }
+
+  /** Evolves the rows between the edge rows into the next generation. */
+  void updateInnerRows() {
+    for (int rowIndex = 1; rowIndex < rows - 1; rowIndex++) updateRow(rowIndex);
+  }
+
+  /**
+   * Makes the next generation the current one and fills the halo columns of its rows. The halo
+   * rows have to be set again.
+   */
+  void swap() {
+    int[][] previousCells = cells;
+    cells = nextCells;
+    nextCells = previousCells;
+    hash = nextHash;
+    fillHaloColumns();
+  }
+
+  private void updateRow(int rowIndex) {
+    int row = rowIndex + HALO;
+    long rowHash =
+        rowKernel.updateRow(cells[row - 1], cells[row], cells[row + 1], nextCells[row], width);
+    nextHash = GridHashes.addRow(nextHash, firstRow + rowIndex, rowHash);
+  }
+
+  /** Copies the cells that the boundary puts beside the row into its halo columns. */
+  private void fillHaloColumns(int[] row) {
+    if (boundary == GridBoundary.DEAD) return;
+    boolean wraps = boundary == GridBoundary.WRAP;
+    row[0] = row[wraps ? width : HALO];
+    row[width + HALO] = row[wraps ? HALO : width];
+  }
+
+  private void unpack(long[] words, int[] row) {
+    for (int column = 0; column < width; column++) {
+      row[column + HALO] = (int) (words[column >>> 6] >>> column) & 1;
+    }
+    fillHaloColumns(row);
+  }
+
+  private void pack(int[] row, long[] words) {
+    for (int wordIndex = 0; wordIndex < wordsPerRow; wordIndex++) {
+      int firstColumn = wordIndex * Long.SIZE;
+      int lastColumn = Math.min(firstColumn + Long.SIZE, width);
+      long word = 0;
+      for (int column = firstColumn; column < lastColumn; column++) {
+        word |= (long) row[column + HALO] << column;
+      }
+      words[wordIndex] = word;
+    }
+  }
+}
@@ -0,0 +1,210 @@
+package gol.game.engine;
+
+import java.util.Arrays;
+
+/**
+ * Gol engine that only evaluates the cells that can change. Every cell keeps its alive neighbours
+ * count, which is updated when a neighbour changes, and the cells that changed or whose count
+ * changed in the last generation form the active set. Any other cell is stable, so the cost of a
+ * generation follows the activity of the grid instead of its area.
+ *
+ * <p>The cells are stored with a one cell halo of dead cells, so the neighbours of every cell have
+ * a valid index. The halo cells are never evaluated.
+ *
+ * <p>The grid hash is the xor of a fixed random key of every alive cell, which is updated with the
+ * changed cells, so it also follows the activity of the grid.
+ */
+public class ActiveCellEngine implements GolEngine, StepCounter {
+  private static final int HALO_MARK = Integer.MAX_VALUE;
+
+  private final int width;
+  private final int height;
+  private final int rowStride;
+  private final int[] neighbourOffsets;
+  private final byte[] cells;
+  private final byte[] neighbourCounts;
+  private final int[] marks;
+  private final int[] changedCells;
+  private int[] activeCells;
+  private int[] nextActiveCells;
+  private int activeCellCount;
+  private int changedCellCount;
+  private int stamp = 1;
+  private long gridHash;
+  private long population;
+
+  /**
+   * Constructor for the active cell engine. The given matrix is only read, later changes to it are
+   * not seen by the engine. Every cell is active in the first generation.
+   *
+   * @param grid The matrix for the initial game grid.
+   * @param width The width of the grid.
+   * @param height The height of the grid.
+   */
+  public ActiveCellEngine(int[][] grid, int width, int height) {
+    this(new BitPackedEngine(grid, width, height));
+  }
+
+  /**
+   * Constructor for the active cell engine. The given engine is only read, later changes to it are
+   * not seen by the engine. Every cell is active in the first generation.
+   *
+   * @param initial The engine with the initial generation.
+   */
+  public ActiveCellEngine(GolEngine initial) {
+    this.width = initial.getWidth();
+    this.height = initial.getHeight();
+    this.rowStride = width + 2;
+    this.neighbourOffsets =
+        new int[] {
+          -rowStride - 1, -rowStride, -rowStride + 1, -1, 1, rowStride - 1, rowStride, rowStride + 1
+        };
+    int paddedCells = rowStride * (height + 2);
+    this.cells = new byte[paddedCells];
+    this.neighbourCounts = new byte[paddedCells];
+    this.marks = new int[paddedCells];
+    this.changedCells = new int[width * height];
+    this.activeCells = new int[width * height];
+    this.nextActiveCells = new int[width * height];
+    Arrays.fill(marks, HALO_MARK);
+    int wordsPerRow = (width + Long.SIZE - 1) / Long.SIZE;
+    for (int rowIndex = 0; rowIndex < height; rowIndex++) {
+      for (int columnIndex = 0; columnIndex < width; columnIndex++) {
+        int cellIndex = cellIndex(rowIndex, columnIndex);
+        marks[cellIndex] = 0;
+        activeCells[activeCellCount++] = cellIndex;
+      }
+      for (int wordIndex = 0; wordIndex < wordsPerRow; wordIndex++) {
+        for (long word = initial.getRowWord(rowIndex, wordIndex); word != 0; word &= word - 1) {
+          int cellIndex =
+              cellIndex(rowIndex, wordIndex * Long.SIZE + Long.numberOfTrailingZeros(word));
+          cells[cellIndex] = 1;
+          population++;
+          addToNeighbourCounts(cellIndex, 1);
+          gridHash ^= cellKey(cellIndex);
+        }
+      }
+    }
+  }
+
+  private static boolean nextState(boolean alive, int aliveNeighbours) {
+    return aliveNeighbours == 3 || (alive && aliveNeighbours == 2);
+  }
+
+  /** Returns the fixed random key of a cell, a mix of its index. */
+  private static long cellKey(int cellIndex) {
+    long key = (cellIndex + 1) * 0x9E3779B97F4A7C15L;
+    key = (key ^ (key >>> 30)) * 0xBF58476D1CE4E5B9L;
+    key = (key ^ (key >>> 27)) * 0x94D049BB133111EBL;
+    return key ^ (key >>> 31);
+  }
+
+  private int cellIndex(int rowIndex, int columnIndex) {
+    return (rowIndex + 1) * rowStride + columnIndex + 1;
+  }
+
+  private void addToNeighbourCounts(int cellIndex, int delta) {
+    for (int neighbourOffset : neighbourOffsets) {
+      neighbourCounts[cellIndex + neighbourOffset] += delta;
+    }
+  }
+
+  private void markActive(int cellIndex) {
+    if (marks[cellIndex] < stamp) {
+      marks[cellIndex] = stamp;
+      nextActiveCells[activeCellCount++] = cellIndex;
+    }
+  }
+
+  private void nextStamp() {
+    if (stamp == HALO_MARK - 1) {
+      for (int index = 0; index < marks.length; index++) {
+        if (marks[index] != HALO_MARK) marks[index] = 0;
+      }
+      stamp = 0;
+    }
+    stamp++;
+  }
+
+  /** Updates the grid life following the gol rules for evolution. */
+  @Override
+  public void updateGridLife() {
+    changedCellCount = 0;
+    for (int index = 0; index < activeCellCount; index++) {
+      int cellIndex = activeCells[index];
+      boolean alive = cells[cellIndex] == 1;
+      if (nextState(alive, neighbourCounts[cellIndex]) != alive) {
+        changedCells[changedCellCount++] = cellIndex;
+      }
+    }
+
+    nextStamp();
+    activeCellCount = 0;
+    for (int index = 0; index < changedCellCount; index++) {
+      int cellIndex = changedCells[index];
+      int delta = cells[cellIndex] == 1 ? -1 : 1;
+      cells[cellIndex] += delta;
+      population += delta;
+      addToNeighbourCounts(cellIndex, delta);
+      gridHash ^= cellKey(cellIndex);
+      markActive(cellIndex);
+      for (int neighbourOffset : neighbourOffsets) {
+        markActive(cellIndex + neighbourOffset);
+      }
+    }
+
+    int[] previousActiveCells = activeCells;
+    activeCells = nextActiveCells;
+    nextActiveCells = previousActiveCells;
+  }
+
+  /**
+   * Counts the last step from the cells it changed, the population is kept while the cells change.
+   */
+  @Override
+  public void countLastStep(long[] counts) {
+    long births = 0;
+    for (int index = 0; index < changedCellCount; index++) births += cells[changedCells[index]];
+    counts[0] = population;
+    counts[1] = births;
+    counts[2] = changedCellCount - births;
+  }
+
+  @Override
+  public boolean isCellAlive(int rowIndex, int columnIndex) {
+    return cells[cellIndex(rowIndex, columnIndex)] == 1;
+  }
+
+  @Override
+  public long getGridHash() {
+    return gridHash;
+  }
+
+  /**
+   * Returns the number of cells that will be evaluated in the next generation.
+   *
+   * @return The size of the active set.
+   */
+  public int getActiveCellCount() {
+    return activeCellCount;
+  }
+
+  /**
+   * Returns the number of cells that changed in the last generation.
+   *
+   * @return The number of cells that were born or died.
+   */
+  public int getChangedCellCount() {
+    return changedCellCount;
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+}
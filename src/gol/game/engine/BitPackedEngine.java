@@ -0,0 +1,198 @@
+package gol.game.engine;
+
+import gol.game.constants.GameValues;
+
+/**
+ * Gol engine that stores every row as an array of 64 bit words, one bit per cell, and evolves a
+ * whole word of cells at once using bitwise adders. The cells outside the grid are always dead.
+ */
+public class BitPackedEngine implements GolEngine, GridWriter, StepCounter {
+  private static final int WORD_SHIFT = 6;
+  private static final int WORD_BITS = 64;
+
+  private final int width;
+  private final int height;
+  private final int wordsPerRow;
+  private final long lastWordMask;
+  private final long[] deadRow;
+  private final RowBandStepper stepper;
+  private final RowBandStepper.RowRangeUpdater rowRangeUpdater = this::updateRows;
+  private final long[] rowHashes;
+  private long[][] rows;
+  private long[][] nextRows;
+  private boolean rowHashesValid;
+
+  /**
+   * Constructor for the bit packed engine. The given matrix is only read, later changes to it are
+   * not seen by the engine.
+   *
+   * @param grid The matrix for the initial game grid.
+   * @param width The width of the grid.
+   * @param height The height of the grid.
+   */
+  public BitPackedEngine(int[][] grid, int width, int height) {
+    this(grid, width, height, RowBandStepper.sequential());
+  }
+
+  /**
+   * Constructor for the bit packed engine. The given matrix is only read, later changes to it are
+   * not seen by the engine.
+   *
+   * @param grid The matrix for the initial game grid.
+   * @param width The width of the grid.
+   * @param height The height of the grid.
+   * @param stepper The stepper that decides if the rows are evolved in parallel bands.
+   */
+  public BitPackedEngine(int[][] grid, int width, int height, RowBandStepper stepper) {
+    this(width, height, stepper);
+    for (int rowIndex = 0; rowIndex < height; rowIndex++) {
+      for (int columnIndex = 0; columnIndex < width; columnIndex++) {
+        if (grid[rowIndex][columnIndex] == GameValues.ALIVE_CELL_INT) {
+          rows[rowIndex][columnIndex >>> WORD_SHIFT] |= 1L << columnIndex;
+        }
+      }
+    }
+  }
+
+  /**
+   * Constructor for the bit packed engine with every cell dead.
+   *
+   * @param width The width of the grid.
+   * @param height The height of the grid.
+   * @param stepper The stepper that decides if the rows are evolved in parallel bands.
+   */
+  public BitPackedEngine(int width, int height, RowBandStepper stepper) {
+    this.width = width;
+    this.height = height;
+    this.stepper = stepper;
+    this.wordsPerRow = (width + WORD_BITS - 1) >>> WORD_SHIFT;
+    this.lastWordMask = lastWordMask(width);
+    this.deadRow = new long[wordsPerRow];
+    this.rows = new long[height][wordsPerRow];
+    this.nextRows = new long[height][wordsPerRow];
+    this.rowHashes = new long[height];
+  }
+
+  private static long lastWordMask(int width) {
+    int usedBits = width & (WORD_BITS - 1);
+    return usedBits == 0 ? -1L : (1L << usedBits) - 1;
+  }
+
+  /** Returns the word with every cell replaced by its west neighbour. */
+  private static long westNeighbours(long[] row, int wordIndex) {
+    long carry = wordIndex > 0 ? row[wordIndex - 1] >>> (WORD_BITS - 1) : 0L;
+    return (row[wordIndex] << 1) | carry;
+  }
+
+  /** Returns the word with every cell replaced by its east neighbour. */
+  private static long eastNeighbours(long[] row, int wordIndex) {
+    long carry = wordIndex < row.length - 1 ? row[wordIndex + 1] << (WORD_BITS - 1) : 0L;
+    return (row[wordIndex] >>> 1) | carry;
+  }
+
+  private static long nextWord(long[] topRow, long[] row, long[] downRow, int wordIndex) {
+    return LifeWords.nextWord(
+        westNeighbours(topRow, wordIndex),
+        topRow[wordIndex],
+        eastNeighbours(topRow, wordIndex),
+        westNeighbours(row, wordIndex),
+        row[wordIndex],
+        eastNeighbours(row, wordIndex),
+        westNeighbours(downRow, wordIndex),
+        downRow[wordIndex],
+        eastNeighbours(downRow, wordIndex));
+  }
+
+  private long[] rowOrDead(int rowIndex) {
+    return rowIndex < 0 || rowIndex >= height ? deadRow : rows[rowIndex];
+  }
+
+  /** Evolves the rows of the range, hashing every next row while its words are written. */
+  private void updateRows(int fromRow, int toRow) {
+    int lastWordIndex = wordsPerRow - 1;
+    for (int rowIndex = fromRow; rowIndex < toRow; rowIndex++) {
+      long[] topRow = rowOrDead(rowIndex - 1);
+      long[] row = rows[rowIndex];
+      long[] downRow = rowOrDead(rowIndex + 1);
+      long[] nextRow = nextRows[rowIndex];
+      long rowHash = 0;
+      for (int wordIndex = 0; wordIndex < lastWordIndex; wordIndex++) {
+        long word = nextWord(topRow, row, downRow, wordIndex);
+        nextRow[wordIndex] = word;
+        rowHash = GridHashes.addWord(rowHash, word);
+      }
+      long lastWord = nextWord(topRow, row, downRow, lastWordIndex) & lastWordMask;
+      nextRow[lastWordIndex] = lastWord;
+      rowHashes[rowIndex] = GridHashes.addWord(rowHash, lastWord);
+    }
+  }
+
+  /** Updates the grid life following the gol rules for evolution. */
+  @Override
+  public void updateGridLife() {
+    stepper.updateRows(height, width, rowRangeUpdater);
+    long[][] previousRows = rows;
+    rows = nextRows;
+    nextRows = previousRows;
+    rowHashesValid = true;
+  }
+
+  /** Counts the last step against the previous generation, which is kept in the next rows. */
+  @Override
+  public void countLastStep(long[] counts) {
+    long population = 0;
+    long births = 0;
+    long deaths = 0;
+    for (int rowIndex = 0; rowIndex < height; rowIndex++) {
+      long[] row = rows[rowIndex];
+      long[] previousRow = nextRows[rowIndex];
+      for (int wordIndex = 0; wordIndex < wordsPerRow; wordIndex++) {
+        long word = row[wordIndex];
+        long previousWord = previousRow[wordIndex];
+        population += Long.bitCount(word);
+        births += Long.bitCount(word & ~previousWord);
+        deaths += Long.bitCount(previousWord & ~word);
+      }
+    }
+    counts[0] = population;
+    counts[1] = births;
+    counts[2] = deaths;
+  }
+
+  @Override
+  public void setRowWord(int rowIndex, int wordIndex, long word) {
+    rowHashesValid = false;
+    rows[rowIndex][wordIndex] = wordIndex == wordsPerRow - 1 ? word & lastWordMask : word;
+  }
+
+  @Override
+  public void setCellAlive(int rowIndex, int columnIndex) {
+    rowHashesValid = false;
+    rows[rowIndex][columnIndex >>> WORD_SHIFT] |= 1L << columnIndex;
+  }
+
+  @Override
+  public boolean isCellAlive(int rowIndex, int columnIndex) {
+    return (rows[rowIndex][columnIndex >>> WORD_SHIFT] & (1L << columnIndex)) != 0;
+  }
+
+  @Override
+  public long getRowWord(int rowIndex, int wordIndex) {
+    return rows[rowIndex][wordIndex];
+  }
+
+  @Override
+  public long getGridHash() {
+    return rowHashesValid ? GridHashes.hashRows(rowHashes) : GridHashes.hashEngine(this);
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+}
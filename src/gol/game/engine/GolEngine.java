@@ -0,0 +1,88 @@
+package gol.game.engine;
+
+import gol.game.constants.GameValues;
+
+/**
+ * The gol engine interface for the different grid representations that can evolve a generation.
+ * Every implementation must produce exactly the same generations for the same initial population.
+ */
+public interface GolEngine {
+  /** Updates the grid life following the gol rules for evolution. */
+  void updateGridLife();
+
+  /**
+   * Advances the given number of generations. Engines that can jump ahead override it, the rest
+   * update the grid life once per generation.
+   *
+   * @param generations The number of generations to advance.
+   */
+  default void advanceGenerations(long generations) {
+    for (long generation = 0; generation < generations; generation++) {
+      updateGridLife();
+    }
+  }
+
+  /**
+   * Returns a valid string renderer format for the grid.
+   *
+   * @return The string representation of the grid that follows the gol renderer format.
+   */
+  default String toRendererFormat() {
+    int width = getWidth();
+    int height = getHeight();
+    StringBuilder gridStringFormat = new StringBuilder((width + 1) * height);
+    for (int rowIndex = 0; rowIndex < height; rowIndex++) {
+      for (int columnIndex = 0; columnIndex < width; columnIndex++) {
+        gridStringFormat.append(
+            isCellAlive(rowIndex, columnIndex)
+                ? GameValues.ALIVE_CELL_CHAR
+                : GameValues.DEAD_CELL_CHAR);
+      }
+      gridStringFormat.append(GameValues.NEW_ROW_CHAR);
+    }
+    return gridStringFormat.toString();
+  }
+
+  /**
+   * Checks if the cell in the given position is alive in the current generation.
+   *
+   * @param rowIndex The row index of the cell.
+   * @param columnIndex The column index of the cell.
+   * @return True if the cell is alive, false if not.
+   */
+  boolean isCellAlive(int rowIndex, int columnIndex);
+
+  /**
+   * Returns 64 cells of a row packed in a word, the cell of the lowest column in the lowest bit.
+   * The bits after the last column of the row are zero. Engines that already store the cells packed
+   * override it to return the stored word.
+   *
+   * @param rowIndex The row index of the cells.
+   * @param wordIndex The index of the word, which holds the columns from 64 times the index.
+   * @return The word with the packed cells.
+   */
+  default long getRowWord(int rowIndex, int wordIndex) {
+    int firstColumn = wordIndex << 6;
+    int lastColumn = Math.min(getWidth(), firstColumn + Long.SIZE);
+    long word = 0;
+    for (int columnIndex = firstColumn; columnIndex < lastColumn; columnIndex++) {
+      if (isCellAlive(rowIndex, columnIndex)) word |= 1L << columnIndex;
+    }
+    return word;
+  }
+
+  /**
+   * Returns the 64 bit hash of the current generation. Two generations with the same cells have the
+   * same hash in the same engine. Engines that hash the cells while they evolve them override it to
+   * avoid another pass over the grid.
+   *
+   * @return The hash of the grid.
+   */
+  default long getGridHash() {
+    return GridHashes.hashEngine(this);
+  }
+
+  int getWidth();
+
+  int getHeight();
+}
@@ -0,0 +1,37 @@
+package gol.game.engine;
+
+/**
+ * The boundary topologies for the grid edges. The boundary decides the value of the ghost cells
+ * that surround the grid, which are refreshed once per generation before evolving it.
+ */
+public enum GridBoundary {
+  /** The cells outside the grid are always dead. */
+  DEAD("dead"),
+  /** The grid wraps around, so the edges are neighbours of the opposite edges. */
+  WRAP("wrap"),
+  /** The cells outside the grid mirror the cells on the edge of the grid. */
+  MIRROR("mirror");
+
+  private final String argumentName;
+
+  GridBoundary(String argumentName) {
+    this.argumentName = argumentName;
+  }
+
+  /**
+   * Finds the boundary for the given argument name.
+   *
+   * @param argumentName The name of the boundary given in the console.
+   * @return The boundary with the given name, or null if there is no boundary with that name.
+   */
+  public static GridBoundary fromArgumentName(String argumentName) {
+    for (GridBoundary boundary : values()) {
+      if (boundary.argumentName.equals(argumentName)) return boundary;
+    }
+    return null;
+  }
+
+  public String getArgumentName() {
+    return argumentName;
+  }
+}
@@ -0,0 +1,73 @@
+package gol.game.engine;
+
+/**
+ * The 64 bit hash of a generation, built from the packed words of its rows. Every row is hashed
+ * on its own and the grid hash adds the mixed row hashes, so the engines can hash the rows while
+ * the stepping kernel writes them, in any order and in parallel bands. The hash only depends on the
+ * cells, so the engines that use these hashes give the same hash for the same generation.
+ */
+public final class GridHashes {
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+  private static final long MIX_MULTIPLIER = 0xBF58476D1CE4E5B9L;
+
+  private GridHashes() {}
+
+  /**
+   * Adds the next word of a row to the hash of the row. The words are added in column order.
+   *
+   * @param rowHash The hash of the previous words of the row, zero for the first word.
+   * @param word The next word of the row, in the layout of {@link GolEngine#getRowWord(int, int)}.
+   * @return The hash of the row up to the word.
+   */
+  public static long addWord(long rowHash, long word) {
+    return Long.rotateLeft(rowHash + word * GOLDEN_GAMMA, 27) * MIX_MULTIPLIER;
+  }
+
+  /**
+   * Adds the hash of a row to the hash of the grid. The rows can be added in any order.
+   *
+   * @param gridHash The hash of the other rows, zero for the first row.
+   * @param rowIndex The row index.
+   * @param rowHash The hash of the row.
+   * @return The hash of the grid with the row.
+   */
+  public static long addRow(long gridHash, int rowIndex, long rowHash) {
+    long mixed = rowHash ^ (rowIndex * GOLDEN_GAMMA);
+    mixed = (mixed ^ (mixed >>> 30)) * MIX_MULTIPLIER;
+    mixed = (mixed ^ (mixed >>> 27)) * 0x94D049BB133111EBL;
+    return gridHash + (mixed ^ (mixed >>> 31));
+  }
+
+  /**
+   * Returns the hash of the grid from the hashes of all its rows.
+   *
+   * @param rowHashes The hash of every row.
+   * @return The hash of the grid.
+   */
+  public static long hashRows(long[] rowHashes) {
+    long gridHash = 0;
+    for (int rowIndex = 0; rowIndex < rowHashes.length; rowIndex++) {
+      gridHash = addRow(gridHash, rowIndex, rowHashes[rowIndex]);
+    }
+    return gridHash;
+  }
+
+  /**
+   * Returns the hash of the current generation of the engine, reading all its row words.
+   *
+   * @param engine The engine to hash.
+   * @return The hash of the grid.
+   */
+  public static long hashEngine(GolEngine engine) {
+    int wordsPerRow = (engine.getWidth() + Long.SIZE - 1) / Long.SIZE;
+    long gridHash = 0;
+    for (int rowIndex = 0; rowIndex < engine.getHeight(); rowIndex++) {
+      long rowHash = 0;
+      for (int wordIndex = 0; wordIndex < wordsPerRow; wordIndex++) {
+        rowHash = addWord(rowHash, engine.getRowWord(rowIndex, wordIndex));
+      }
+      gridHash = addRow(gridHash, rowIndex, rowHash);
+    }
+    return gridHash;
+  }
+}
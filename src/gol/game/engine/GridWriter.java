@@ -0,0 +1,49 @@
+package gol.game.engine;
+
+import gol.GolFrame;
+
+/**
+ * Grid where the initial generation is written, a word of 64 cells or a single cell at a time. The
+ * populations, the patterns, the soups and the snapshots are loaded straight into the storage of
+ * the engine that evolves them, so the initial generation is never held in another matrix.
+ */
+public interface GridWriter {
+  /**
+   * Sets 64 cells of a row from the bits of the given word, the cell of the lowest column in the
+   * lowest bit. The bits after the last column of the row are ignored.
+   *
+   * @param rowIndex The row index of the cells.
+   * @param wordIndex The index of the word, which holds the columns from 64 times the index.
+   * @param word The word with the packed cells.
+   */
+  void setRowWord(int rowIndex, int wordIndex, long word);
+
+  /**
+   * Sets the cell in the given position alive.
+   *
+   * @param rowIndex The row index of the cell.
+   * @param columnIndex The column index of the cell.
+   */
+  void setCellAlive(int rowIndex, int columnIndex);
+
+  /**
+   * Copies the words of the rows in the given range from the frame, which must have the width of
+   * the grid. Every row of the frame is copied to the row of the grid with the same index.
+   *
+   * @param frame The frame with the population.
+   * @param fromRow The first copied row, inclusive.
+   * @param toRow The last copied row, exclusive.
+   */
+  default void copyRows(GolFrame frame, int fromRow, int toRow) {
+    int wordsPerRow = (getWidth() + Long.SIZE - 1) / Long.SIZE;
+    for (int rowIndex = fromRow; rowIndex < toRow; rowIndex++) {
+      for (int wordIndex = 0; wordIndex < wordsPerRow; wordIndex++) {
+        setRowWord(rowIndex, wordIndex, frame.getRowWord(rowIndex, wordIndex));
+      }
+    }
+  }
+
+  int getWidth();
+
+  int getHeight();
+}
@@ -0,0 +1,435 @@
+package gol.game.engine;
+
+import gol.game.constants.GameValues;
+import java.util.Arrays;
+
+/**
+ * Gol engine that implements the HashLife algorithm. The universe is a quadtree of canonical nodes,
+ * so every repeated square of cells is stored once, and every node memoises the result of evolving
+ * its center. This lets the engine jump ahead an exponential number of generations when the
+ * pattern is repetitive.
+ *
+ * <p>The universe is unbounded: the grid is a window placed on it, starting at the origin. The
+ * generations match the grid engines while the pattern stays clear of the grid edges, and a cell
+ * that leaves the window keeps evolving outside of it.
+ *
+ * <p>The canonical node table has a limit, checked before every node is evolved, so it also holds
+ * in the middle of a long jump. When it is exceeded, every memoised result is dropped and only the
+ * nodes reachable from the current universe and from the nodes being evolved are kept. The partial
+ * results of the jump stay valid, at worst some of them are created again as duplicated nodes. When
+ * the kept nodes are over half the limit, the next collection waits until they double, so a large
+ * universe is not collected again at every evolved node.
+ */
+public class HashLifeEngine implements GolEngine {
+  private static final Node DEAD_LEAF = new Node(0, 0);
+  private static final Node ALIVE_LEAF = new Node(1, 1);
+  private static final int INITIAL_TABLE_SIZE = 1 << 12;
+  private static final int INITIAL_PINNED_NODES = 2 * Long.SIZE;
+
+  private final int width;
+  private final int height;
+  private final int maxNodes;
+  private Node[] table = new Node[INITIAL_TABLE_SIZE];
+  private Node[] emptyNodes = new Node[Long.SIZE];
+  private int nodeCount;
+  private int collectThreshold;
+  private Node[] pinnedNodes = new Node[INITIAL_PINNED_NODES];
+  private int pinnedCount;
+  private Node root;
+
+  /**
+   * Constructor for the hashlife engine with the default node limit.
+   *
+   * @param grid The matrix for the initial game grid.
+   * @param width The width of the grid.
+   * @param height The height of the grid.
+   */
+  public HashLifeEngine(int[][] grid, int width, int height) {
+    this(grid, width, height, GameValues.HASHLIFE_MAX_NODES);
+  }
+
+  /**
+   * Constructor for the hashlife engine. The given matrix is only read, later changes to it are not
+   * seen by the engine.
+   *
+   * @param grid The matrix for the initial game grid.
+   * @param width The width of the grid.
+   * @param height The height of the grid.
+   * @param maxNodes The number of canonical nodes over which the node table is collected.
+   */
+  public HashLifeEngine(int[][] grid, int width, int height, int maxNodes) {
+    this(new BitPackedEngine(grid, width, height), maxNodes);
+  }
+
+  /**
+   * Constructor for the hashlife engine with the default node limit.
+   *
+   * @param initial The engine with the initial generation, which is only read.
+   */
+  public HashLifeEngine(GolEngine initial) {
+    this(initial, GameValues.HASHLIFE_MAX_NODES);
+  }
+
+  /**
+   * Constructor for the hashlife engine. The given engine is only read, later changes to it are not
+   * seen by the engine.
+   *
+   * @param initial The engine with the initial generation.
+   * @param maxNodes The number of canonical nodes over which the node table is collected.
+   */
+  public HashLifeEngine(GolEngine initial, int maxNodes) {
+    this.width = initial.getWidth();
+    this.height = initial.getHeight();
+    this.maxNodes = maxNodes;
+    this.collectThreshold = maxNodes;
+    int level = 1;
+    while ((1L << (level - 1)) < Math.max(width, height)) level++;
+    this.root = buildNode(initial, level, -(1L << (level - 1)), -(1L << (level - 1)));
+  }
+
+  private static int combineHashes(Node northWest, Node northEast, Node southWest, Node southEast) {
+    int hash = northWest.hash;
+    hash = hash * 0x9E3779B1 + northEast.hash;
+    hash = hash * 0x9E3779B1 + southWest.hash;
+    hash = hash * 0x9E3779B1 + southEast.hash;
+    return hash ^ (hash >>> 15);
+  }
+
+  private static int cellBit(Node node, int x, int y) {
+    Node quadrant = node;
+    for (int size = 2; size > 0; size >>= 1) {
+      boolean east = (x & size) != 0;
+      boolean south = (y & size) != 0;
+      quadrant = quadrant.quadrant(east, south);
+    }
+    return (int) quadrant.population;
+  }
+
+  private Node buildNode(GolEngine initial, int level, long x, long y) {
+    long size = 1L << level;
+    if (x >= width || y >= height || x + size <= 0 || y + size <= 0) {
+      return emptyNode(level);
+    }
+    if (level == 0) {
+      return initial.isCellAlive((int) y, (int) x) ? ALIVE_LEAF : DEAD_LEAF;
+    }
+    long half = size >> 1;
+    return join(
+        buildNode(initial, level - 1, x, y),
+        buildNode(initial, level - 1, x + half, y),
+        buildNode(initial, level - 1, x, y + half),
+        buildNode(initial, level - 1, x + half, y + half));
+  }
+
+  private Node emptyNode(int level) {
+    if (level == 0) return DEAD_LEAF;
+    Node empty = emptyNodes[level];
+    if (empty == null) {
+      Node quadrant = emptyNode(level - 1);
+      empty = join(quadrant, quadrant, quadrant, quadrant);
+      emptyNodes[level] = empty;
+    }
+    return empty;
+  }
+
+  /** Returns the canonical node with the given quadrants, creating it if it does not exist. */
+  private Node join(Node northWest, Node northEast, Node southWest, Node southEast) {
+    int hash = combineHashes(northWest, northEast, southWest, southEast);
+    int bucket = hash & (table.length - 1);
+    for (Node node = table[bucket]; node != null; node = node.nextInBucket) {
+      if (node.hash == hash
+          && node.northWest == northWest
+          && node.northEast == northEast
+          && node.southWest == southWest
+          && node.southEast == southEast) {
+        return node;
+      }
+    }
+    Node node = new Node(northWest, northEast, southWest, southEast, hash);
+    insert(node);
+    return node;
+  }
+
+  private void insert(Node node) {
+    if (nodeCount >= table.length - (table.length >> 2)) resizeTable();
+    int bucket = node.hash & (table.length - 1);
+    node.nextInBucket = table[bucket];
+    table[bucket] = node;
+    nodeCount++;
+  }
+
+  private void resizeTable() {
+    Node[] oldTable = table;
+    table = new Node[oldTable.length << 1];
+    for (Node bucketHead : oldTable) {
+      Node node = bucketHead;
+      while (node != null) {
+        Node next = node.nextInBucket;
+        int bucket = node.hash & (table.length - 1);
+        node.nextInBucket = table[bucket];
+        table[bucket] = node;
+        node = next;
+      }
+    }
+  }
+
+  /**
+   * Drops every memoised result and keeps in the table only the nodes reachable from the root and
+   * from the pinned nodes that are being evolved. The dropped nodes are then freed by the garbage
+   * collector.
+   */
+  private void collectNodes() {
+    for (Node bucketHead : table) {
+      for (Node node = bucketHead; node != null; node = node.nextInBucket) {
+        node.result = null;
+        node.stepResult = null;
+        node.stepExponent = -1;
+        node.collected = true;
+      }
+    }
+    table = new Node[INITIAL_TABLE_SIZE];
+    emptyNodes = new Node[Long.SIZE];
+    nodeCount = 0;
+    keepNode(root);
+    for (int index = 0; index < pinnedCount; index++) keepNode(pinnedNodes[index]);
+    collectThreshold = Math.max(maxNodes, 2 * nodeCount);
+  }
+
+  private void keepNode(Node node) {
+    if (node.level == 0 || !node.collected) return;
+    node.collected = false;
+    keepNode(node.northWest);
+    keepNode(node.northEast);
+    keepNode(node.southWest);
+    keepNode(node.southEast);
+    insert(node);
+  }
+
+  private Node centeredHorizontal(Node west, Node east) {
+    return join(west.northEast, east.northWest, west.southEast, east.southWest);
+  }
+
+  private Node centeredVertical(Node north, Node south) {
+    return join(north.southWest, north.southEast, south.northWest, south.northEast);
+  }
+
+  private Node centeredSubnode(Node node) {
+    return join(
+        node.northWest.southEast,
+        node.northEast.southWest,
+        node.southWest.northEast,
+        node.southEast.northWest);
+  }
+
+  /** Evolves one generation of the two by two center of a four by four node. */
+  private Node evolveLevelTwo(Node node) {
+    Node[] center = new Node[4];
+    for (int index = 0; index < center.length; index++) {
+      int x = 1 + (index & 1);
+      int y = 1 + (index >> 1);
+      int aliveNeighbours = 0;
+      for (int neighbourY = y - 1; neighbourY <= y + 1; neighbourY++) {
+        for (int neighbourX = x - 1; neighbourX <= x + 1; neighbourX++) {
+          if (neighbourX != x || neighbourY != y) {
+            aliveNeighbours += cellBit(node, neighbourX, neighbourY);
+          }
+        }
+      }
+      boolean alive = aliveNeighbours == 3 || (aliveNeighbours == 2 && cellBit(node, x, y) == 1);
+      center[index] = alive ? ALIVE_LEAF : DEAD_LEAF;
+    }
+    return join(center[0], center[1], center[2], center[3]);
+  }
+
+  /**
+   * Returns the center of the given node, half of its size, evolved two to the power of the given
+   * exponent generations. The exponent can be at most the node level minus two.
+   */
+  private Node successor(Node node, int exponent) {
+    if (node.population == 0) return node.northWest;
+    boolean fullSpeed = exponent == node.level - 2;
+    if (fullSpeed && node.result != null) return node.result;
+    if (!fullSpeed && node.stepExponent == exponent) return node.stepResult;
+
+    pin(node);
+    if (nodeCount > collectThreshold) collectNodes();
+    Node result;
+    if (node.level == 2) {
+      result = evolveLevelTwo(node);
+    } else {
+      int subExponent = Math.min(exponent, node.level - 3);
+      Node c00 = successor(node.northWest, subExponent);
+      Node c01 = successor(centeredHorizontal(node.northWest, node.northEast), subExponent);
+      Node c02 = successor(node.northEast, subExponent);
+      Node c10 = successor(centeredVertical(node.northWest, node.southWest), subExponent);
+      Node c11 = successor(centeredSubnode(node), subExponent);
+      Node c12 = successor(centeredVertical(node.northEast, node.southEast), subExponent);
+      Node c20 = successor(node.southWest, subExponent);
+      Node c21 = successor(centeredHorizontal(node.southWest, node.southEast), subExponent);
+      Node c22 = successor(node.southEast, subExponent);
+      if (fullSpeed) {
+        result =
+            join(
+                successor(join(c00, c01, c10, c11), subExponent),
+                successor(join(c01, c02, c11, c12), subExponent),
+                successor(join(c10, c11, c20, c21), subExponent),
+                successor(join(c11, c12, c21, c22), subExponent));
+      } else {
+        result =
+            join(
+                join(c00.southEast, c01.southWest, c10.northEast, c11.northWest),
+                join(c01.southEast, c02.southWest, c11.northEast, c12.northWest),
+                join(c10.southEast, c11.southWest, c20.northEast, c21.northWest),
+                join(c11.southEast, c12.southWest, c21.northEast, c22.northWest));
+      }
+    }
+
+    if (fullSpeed) {
+      node.result = result;
+    } else {
+      node.stepResult = result;
+      node.stepExponent = exponent;
+    }
+    pinnedCount--;
+    return result;
+  }
+
+  /** Keeps the node in the table while it is evolved, even if the table is collected meanwhile. */
+  private void pin(Node node) {
+    if (pinnedCount == pinnedNodes.length) {
+      pinnedNodes = Arrays.copyOf(pinnedNodes, pinnedCount << 1);
+    }
+    pinnedNodes[pinnedCount++] = node;
+  }
+
+  /** Returns a node twice as big as the given one, with the given node in its center. */
+  private Node expand(Node node) {
+    Node border = emptyNode(node.level - 1);
+    return join(
+        join(border, border, border, node.northWest),
+        join(border, border, node.northEast, border),
+        join(border, node.southWest, border, border),
+        join(node.southEast, border, border, border));
+  }
+
+  /** Checks if all the population of the node is inside its central quarter of the center. */
+  private static boolean isPadded(Node node) {
+    return node.northWest.population == node.northWest.southEast.southEast.population
+        && node.northEast.population == node.northEast.southWest.southWest.population
+        && node.southWest.population == node.southWest.northEast.northEast.population
+        && node.southEast.population == node.southEast.northWest.northWest.population;
+  }
+
+  private void advancePowerOfTwo(int exponent) {
+    while (root.level < Math.max(exponent + 2, 3) || !isPadded(root)) {
+      root = expand(root);
+    }
+    root = successor(expand(root), exponent);
+  }
+
+  /** Updates the grid life following the gol rules for evolution. */
+  @Override
+  public void updateGridLife() {
+    advancePowerOfTwo(0);
+  }
+
+  /**
+   * Advances the given number of generations. Every set bit of the number is a single jump of a
+   * power of two generations.
+   *
+   * @param generations The number of generations to advance.
+   */
+  @Override
+  public void advanceGenerations(long generations) {
+    for (int exponent = 0; exponent < Long.SIZE - 1; exponent++) {
+      if ((generations & (1L << exponent)) != 0) advancePowerOfTwo(exponent);
+    }
+  }
+
+  @Override
+  public boolean isCellAlive(int rowIndex, int columnIndex) {
+    Node node = root;
+    long half = 1L << (root.level - 1);
+    long x = columnIndex + half;
+    long y = rowIndex + half;
+    while (node.level > 0 && node.population > 0) {
+      half = 1L << (node.level - 1);
+      boolean east = x >= half;
+      boolean south = y >= half;
+      if (east) x -= half;
+      if (south) y -= half;
+      node = node.quadrant(east, south);
+    }
+    return node.population > 0;
+  }
+
+  /**
+   * Returns the number of alive cells in the whole universe, including outside of the grid.
+   *
+   * @return The population of the universe.
+   */
+  public long getPopulation() {
+    return root.population;
+  }
+
+  /**
+   * Returns the number of canonical nodes currently in the node table.
+   *
+   * @return The number of canonical nodes.
+   */
+  public int getNodeCount() {
+    return nodeCount;
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  /** A square of two to the power of level cells. The leaves are the single cells. */
+  private static final class Node {
+    private final Node northWest;
+    private final Node northEast;
+    private final Node southWest;
+    private final Node southEast;
+    private final int level;
+    private final long population;
+    private final int hash;
+    private Node nextInBucket;
+    private Node result;
+    private Node stepResult;
+    private int stepExponent = -1;
+    private boolean collected;
+
+    private Node(long population, int hash) {
+      this.northWest = null;
+      this.northEast = null;
+      this.southWest = null;
+      this.southEast = null;
+      this.level = 0;
+      this.population = population;
+      this.hash = hash;
+    }
+
+    private Node(Node northWest, Node northEast, Node southWest, Node southEast, int hash) {
+      this.northWest = northWest;
+      this.northEast = northEast;
+      this.southWest = southWest;
+      this.southEast = southEast;
+      this.level = northWest.level + 1;
+      this.population =
+          northWest.population + northEast.population + southWest.population + southEast.population;
+      this.hash = hash;
+    }
+
+    private Node quadrant(boolean east, boolean south) {
+      if (south) return east ? southEast : southWest;
+      return east ? northEast : northWest;
+    }
+  }
+}
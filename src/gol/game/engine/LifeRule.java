@@ -0,0 +1,136 @@
+package gol.game.engine;
+
+import gol.game.constants.GameValues;
+import java.util.Locale;
+
+/**
+ * Life-like rule in the B/S notation, like B3/S23 for the game of life or B36/S23 for HighLife. The
+ * rule is compiled once into a single int of next states: the bit of every neighbour count is the
+ * next state of a dead cell, and the same bit shifted sixteen places is the next state of an alive
+ * cell. The kernels find the next state of a cell with one shift of that int, so every rule evolves
+ * as fast as the game of life, without interpreting the rule for every cell.
+ */
+public final class LifeRule {
+  /** The rule of the game of life. */
+  public static final LifeRule CONWAY = parse(GameValues.CONWAY_RULE);
+
+  /** The places the state of a cell is shifted before it is added to the neighbours index. */
+  static final int CELL_SHIFT = 4;
+
+  private static final int MAX_NEIGHBOURS = 8;
+  private static final int SURVIVAL_SHIFT = 1 << CELL_SHIFT;
+
+  private final int birthMask;
+  private final int survivalMask;
+  private final int nextStates;
+
+  private LifeRule(int birthMask, int survivalMask) {
+    this.birthMask = birthMask;
+    this.survivalMask = survivalMask;
+    this.nextStates = birthMask | survivalMask << SURVIVAL_SHIFT;
+  }
+
+  /**
+   * Parses a rule in the B/S notation, like B36/S23, in any letter case and with the birth and
+   * survival lists in any order. The older S/B notation of the rle files, like 23/36 for HighLife,
+   * is also accepted.
+   *
+   * @param rule The rule.
+   * @return The parsed rule.
+   * @throws IllegalArgumentException If the rule does not follow the notation.
+   */
+  public static LifeRule parse(String rule) {
+    String normalizedRule = rule.trim().toUpperCase(Locale.ROOT);
+    int separator = normalizedRule.indexOf('/');
+    if (separator < 0 || normalizedRule.indexOf('/', separator + 1) >= 0) {
+      throw invalidRule(rule);
+    }
+    String first = normalizedRule.substring(0, separator);
+    String second = normalizedRule.substring(separator + 1);
+    if (first.startsWith("B") && second.startsWith("S")) {
+      return new LifeRule(
+          parseCounts(first.substring(1), rule), parseCounts(second.substring(1), rule));
+    } else if (first.startsWith("S") && second.startsWith("B")) {
+      return new LifeRule(
+          parseCounts(second.substring(1), rule), parseCounts(first.substring(1), rule));
+    }
+    return new LifeRule(parseCounts(second, rule), parseCounts(first, rule));
+  }
+
+  /** Returns the mask with the bit of every neighbour count of the list set. */
+  private static int parseCounts(String counts, String rule) {
+    int mask = 0;
+    for (int index = 0; index < counts.length(); index++) {
+      int count = counts.charAt(index) - '0';
+      if (count < 0 || count > MAX_NEIGHBOURS || (mask & 1 << count) != 0) {
+        throw invalidRule(rule);
+      }
+      mask |= 1 << count;
+    }
+    return mask;
+  }
+
+  private static IllegalArgumentException invalidRule(String rule) {
+    return new IllegalArgumentException(
+        "The rule has to follow the B/S notation, like "
+            + GameValues.CONWAY_RULE
+            + ", but "
+            + rule
+            + " given");
+  }
+
+  /**
+   * Returns the next state of a cell.
+   *
+   * @param aliveNeighbours The alive neighbours of the cell, between zero and eight.
+   * @param cell The state of the cell, one if alive and zero if dead.
+   * @return One if the cell is alive in the next generation, zero if not.
+   */
+  public int nextCell(int aliveNeighbours, int cell) {
+    return (nextStates >>> (aliveNeighbours | cell << CELL_SHIFT)) & 1;
+  }
+
+  /**
+   * Returns the compiled next states. The next state of a cell is the bit at its alive neighbours
+   * or its state shifted {@link #CELL_SHIFT} places.
+   */
+  int getNextStates() {
+    return nextStates;
+  }
+
+  /**
+   * Checks if the rule is the rule of the game of life.
+   *
+   * @return True if the rule is B3/S23, false if not.
+   */
+  public boolean isConway() {
+    return equals(CONWAY);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) return true;
+    if (!(other instanceof LifeRule)) return false;
+    LifeRule otherRule = (LifeRule) other;
+    return birthMask == otherRule.birthMask && survivalMask == otherRule.survivalMask;
+  }
+
+  @Override
+  public int hashCode() {
+    return nextStates;
+  }
+
+  /** Returns the rule in the B/S notation, with the counts of every list in increasing order. */
+  @Override
+  public String toString() {
+    return "B" + formatCounts(birthMask) + "/S" + formatCounts(survivalMask);
+  }
+
+  private static String formatCounts(int mask) {
+    StringBuilder counts = new StringBuilder();
+    for (int count = 0; count <= MAX_NEIGHBOURS; count++) {
+      if ((mask & 1 << count) != 0) counts.append(count);
+    }
+    return counts.toString();
+  }
+}
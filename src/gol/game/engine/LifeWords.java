@@ -0,0 +1,41 @@
+package gol.game.engine;
+
+/** Bitwise evolution of 64 cells at once, shared by the bit packed engines. */
+final class LifeWords {
+  private LifeWords() {}
+
+  /**
+   * Evolves the 64 cells of a word. Every argument holds, in each bit position, the corresponding
+   * neighbour of the cell in that position of the center word. The eight neighbour words are summed
+   * in parallel with bitwise half and full adders, so every bit position ends with its own four bit
+   * neighbour count.
+   */
+  static long nextWord(
+      long topWest,
+      long top,
+      long topEast,
+      long west,
+      long center,
+      long east,
+      long downWest,
+      long down,
+      long downEast) {
+    long topOnes = topWest ^ top ^ topEast;
+    long topTwos = (topWest & top) | (topEast & (topWest ^ top));
+    long middleOnes = west ^ east;
+    long middleTwos = west & east;
+    long downOnes = downWest ^ down ^ downEast;
+    long downTwos = (downWest & down) | (downEast & (downWest ^ down));
+
+    long ones = topOnes ^ middleOnes ^ downOnes;
+    long onesCarry = (topOnes & middleOnes) | (downOnes & (topOnes ^ middleOnes));
+
+    long topMiddleTwos = topTwos ^ middleTwos;
+    long downCarryTwos = downTwos ^ onesCarry;
+    long twos = topMiddleTwos ^ downCarryTwos;
+    long fours = (topTwos & middleTwos) ^ (downTwos & onesCarry) ^ (topMiddleTwos & downCarryTwos);
+    long eights = topTwos & middleTwos & downTwos & onesCarry;
+
+    return twos & ~fours & ~eights & (ones | center);
+  }
+}
@@ -0,0 +1,266 @@
+package gol.game.engine;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import jdk.incubator.foreign.MemoryAccess;
+import jdk.incubator.foreign.MemorySegment;
+import jdk.incubator.foreign.ResourceScope;
+
+/**
+ * Gol engine that stores both generations packed 64 cells per word in one contiguous segment of
+ * native memory, so the collector never scans or moves the cells and the grid is not bounded by the
+ * heap. The segment can map a file instead, which lets the operating system page out the rows of
+ * a grid larger than the memory. Every row is followed by a dead word and every generation has a
+ * dead row above and below the grid, so the words are evolved like in the bit packed engine
+ * without checking the edges. The cells outside the grid are always dead. The memory of the
+ * segment is freed when the engine is closed, and the engine can not be used after that.
+ *
+ * <p>The native segment is reserved like the direct buffers, so it is bounded by {@code
+ * -XX:MaxDirectMemorySize}, which is the maximum heap size by default. A grid larger than that has
+ * to raise the limit or map a file, whose pages are not reserved.
+ */
+public final class OffHeapEngine
+    implements GolEngine, GridWriter, StepCounter, AutoCloseable {
+  private static final int WORD_SHIFT = 6;
+  private static final int WORD_BITS = 64;
+
+  private final int width;
+  private final int height;
+  private final int wordsPerRow;
+  private final long rowStride;
+  private final long lastWordMask;
+  private final ResourceScope scope;
+  private final MemorySegment words;
+  private final RowBandStepper stepper;
+  private final RowBandStepper.RowRangeUpdater rowRangeUpdater = this::updateRows;
+  private final long[] rowHashes;
+  private long generationStart;
+  private long nextGenerationStart;
+  private boolean rowHashesValid;
+
+  /**
+   * Constructor for the off-heap engine. The given engine is only read, later changes to it are
+   * not seen by the engine.
+   *
+   * @param initial The engine with the initial generation.
+   * @param stepper The stepper that decides if the rows are evolved in parallel bands.
+   * @param mappedFile The file that backs the segment, which is created or overwritten, or null to
+   *     allocate the segment in native memory.
+   * @throws IOException If the file can not be mapped.
+   */
+  public OffHeapEngine(GolEngine initial, RowBandStepper stepper, Path mappedFile)
+      throws IOException {
+    this(initial.getWidth(), initial.getHeight(), stepper, mappedFile);
+    for (int rowIndex = 0; rowIndex < height; rowIndex++) {
+      long rowStart = rowStart(generationStart, rowIndex);
+      for (int wordIndex = 0; wordIndex < wordsPerRow; wordIndex++) {
+        MemoryAccess.setLongAtIndex(
+            words, rowStart + wordIndex, initial.getRowWord(rowIndex, wordIndex));
+      }
+    }
+  }
+
+  /**
+   * Constructor for the off-heap engine with every cell dead. The initial generation is then
+   * written with the methods of the grid writer, straight into the segment.
+   *
+   * @param width The width of the grid.
+   * @param height The height of the grid.
+   * @param stepper The stepper that decides if the rows are evolved in parallel bands.
+   * @param mappedFile The file that backs the segment, which is created or overwritten, or null to
+   *     allocate the segment in native memory.
+   * @throws IOException If the file can not be mapped.
+   */
+  public OffHeapEngine(int width, int height, RowBandStepper stepper, Path mappedFile)
+      throws IOException {
+    this.width = width;
+    this.height = height;
+    this.stepper = stepper;
+    this.wordsPerRow = (width + WORD_BITS - 1) >>> WORD_SHIFT;
+    this.rowStride = wordsPerRow + 1L;
+    this.lastWordMask = lastWordMask(width);
+    this.rowHashes = new long[height];
+    long generationWords = (height + 2L) * rowStride;
+    this.generationStart = 0;
+    this.nextGenerationStart = generationWords;
+    this.scope = ResourceScope.newSharedScope();
+    try {
+      this.words = allocate(2 * generationWords * Long.BYTES, mappedFile, scope);
+    } catch (IOException | RuntimeException exception) {
+      scope.close();
+      throw exception;
+    }
+  }
+
+  /**
+   * Allocates the zeroed segment of both generations. The mapped file is emptied first, so the
+   * mapping grows it with zeros that the file system does not write until they change. The shared
+   * scope lets the parallel bands of the stepper read and write the segment from their threads.
+   *
+   * @throws IOException If the file can not be mapped, or the native memory can not be reserved.
+   */
+  private static MemorySegment allocate(long bytes, Path mappedFile, ResourceScope scope)
+      throws IOException {
+    if (mappedFile == null) {
+      try {
+        return MemorySegment.allocateNative(bytes, Long.BYTES, scope);
+      } catch (OutOfMemoryError error) {
+        throw new IOException(
+            "The "
+                + bytes
+                + " bytes of native memory can not be reserved, they are limited by"
+                + " -XX:MaxDirectMemorySize",
+            error);
+      }
+    }
+    FileChannel.open(
+            mappedFile,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)
+        .close();
+    return MemorySegment.mapFile(mappedFile, 0, bytes, FileChannel.MapMode.READ_WRITE, scope);
+  }
+
+  private static long lastWordMask(int width) {
+    int usedBits = width & (WORD_BITS - 1);
+    return usedBits == 0 ? -1L : (1L << usedBits) - 1;
+  }
+
+  /** Returns the index of the first word of the row in the generation that starts at the index. */
+  private long rowStart(long generation, int rowIndex) {
+    return generation + (rowIndex + 1L) * rowStride;
+  }
+
+  /**
+   * Evolves the rows of the range, hashing every next row while its words are written. The words
+   * of the three rows slide along the row, so every word is read from the segment once. Every row
+   * is read through a slice of its own, whose int indexes let the compiler check the bounds once
+   * per row instead of once per word.
+   */
+  private void updateRows(int fromRow, int toRow) {
+    int lastWordIndex = wordsPerRow - 1;
+    long rowBytes = rowStride * Long.BYTES;
+    for (int rowIndex = fromRow; rowIndex < toRow; rowIndex++) {
+      long rowStart = rowStart(generationStart, rowIndex);
+      MemorySegment topRow = words.asSlice((rowStart - rowStride) * Long.BYTES, rowBytes);
+      MemorySegment row = words.asSlice(rowStart * Long.BYTES, rowBytes);
+      MemorySegment downRow = words.asSlice((rowStart + rowStride) * Long.BYTES, rowBytes);
+      MemorySegment nextRow =
+          words.asSlice(rowStart(nextGenerationStart, rowIndex) * Long.BYTES, rowBytes);
+      long topWest = 0;
+      long top = MemoryAccess.getLongAtIndex(topRow, 0);
+      long west = 0;
+      long center = MemoryAccess.getLongAtIndex(row, 0);
+      long downWest = 0;
+      long down = MemoryAccess.getLongAtIndex(downRow, 0);
+      long rowHash = 0;
+      for (int wordIndex = 0; wordIndex <= lastWordIndex; wordIndex++) {
+        long topEast = MemoryAccess.getLongAtIndex(topRow, wordIndex + 1);
+        long east = MemoryAccess.getLongAtIndex(row, wordIndex + 1);
+        long downEast = MemoryAccess.getLongAtIndex(downRow, wordIndex + 1);
+        long word =
+            LifeWords.nextWord(
+                (top << 1) | (topWest >>> (WORD_BITS - 1)),
+                top,
+                (top >>> 1) | (topEast << (WORD_BITS - 1)),
+                (center << 1) | (west >>> (WORD_BITS - 1)),
+                center,
+                (center >>> 1) | (east << (WORD_BITS - 1)),
+                (down << 1) | (downWest >>> (WORD_BITS - 1)),
+                down,
+                (down >>> 1) | (downEast << (WORD_BITS - 1)));
+        if (wordIndex == lastWordIndex) word &= lastWordMask;
+        MemoryAccess.setLongAtIndex(nextRow, wordIndex, word);
+        rowHash = GridHashes.addWord(rowHash, word);
+        topWest = top;
+        top = topEast;
+        west = center;
+        center = east;
+        downWest = down;
+        down = downEast;
+      }
+      rowHashes[rowIndex] = rowHash;
+    }
+  }
+
+  /** Updates the grid life following the gol rules for evolution. */
+  @Override
+  public void updateGridLife() {
+    stepper.updateRows(height, width, rowRangeUpdater);
+    long previousGenerationStart = generationStart;
+    generationStart = nextGenerationStart;
+    nextGenerationStart = previousGenerationStart;
+    rowHashesValid = true;
+  }
+
+  /** Counts the last step against the previous generation, which is kept in the next words. */
+  @Override
+  public void countLastStep(long[] counts) {
+    long population = 0;
+    long births = 0;
+    long deaths = 0;
+    for (int rowIndex = 0; rowIndex < height; rowIndex++) {
+      long rowStart = rowStart(generationStart, rowIndex);
+      long previousRowStart = rowStart(nextGenerationStart, rowIndex);
+      for (int wordIndex = 0; wordIndex < wordsPerRow; wordIndex++) {
+        long word = MemoryAccess.getLongAtIndex(words, rowStart + wordIndex);
+        long previousWord = MemoryAccess.getLongAtIndex(words, previousRowStart + wordIndex);
+        population += Long.bitCount(word);
+        births += Long.bitCount(word & ~previousWord);
+        deaths += Long.bitCount(previousWord & ~word);
+      }
+    }
+    counts[0] = population;
+    counts[1] = births;
+    counts[2] = deaths;
+  }
+
+  @Override
+  public void setRowWord(int rowIndex, int wordIndex, long word) {
+    rowHashesValid = false;
+    MemoryAccess.setLongAtIndex(
+        words,
+        rowStart(generationStart, rowIndex) + wordIndex,
+        wordIndex == wordsPerRow - 1 ? word & lastWordMask : word);
+  }
+
+  @Override
+  public void setCellAlive(int rowIndex, int columnIndex) {
+    int wordIndex = columnIndex >>> WORD_SHIFT;
+    setRowWord(rowIndex, wordIndex, getRowWord(rowIndex, wordIndex) | 1L << columnIndex);
+  }
+
+  @Override
+  public boolean isCellAlive(int rowIndex, int columnIndex) {
+    return (getRowWord(rowIndex, columnIndex >>> WORD_SHIFT) & (1L << columnIndex)) != 0;
+  }
+
+  @Override
+  public long getRowWord(int rowIndex, int wordIndex) {
+    return MemoryAccess.getLongAtIndex(words, rowStart(generationStart, rowIndex) + wordIndex);
+  }
+
+  @Override
+  public long getGridHash() {
+    return rowHashesValid ? GridHashes.hashRows(rowHashes) : GridHashes.hashEngine(this);
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  /** Frees the native memory of the segment, or unmaps the file. */
+  @Override
+  public void close() {
+    scope.close();
+  }
+}
@@ -0,0 +1,78 @@
+package gol.game.engine;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Path;
+
+/**
+ * Factory of the engine that stores the grid outside the heap. The engine is loaded by name, only
+ * when the foreign memory module is present, so the game still runs on the heap without it.
+ */
+public final class OffHeapEngines {
+  private static final String FOREIGN_MODULE = "jdk.incubator.foreign";
+  private static final String OFF_HEAP_ENGINE_CLASS = "gol.game.engine.OffHeapEngine";
+
+  private OffHeapEngines() {}
+
+  /**
+   * Creates the engine that stores the grid in native memory or in a mapped file, with the foreign
+   * memory api. The foreign module is an incubator module, which is only present when the jvm runs
+   * with {@code --add-modules jdk.incubator.foreign}. The engine is closed to free its memory.
+   *
+   * @param initial The engine with the initial generation, which is only read.
+   * @param stepper The stepper that decides if the rows are evolved in parallel bands.
+   * @param mappedFile The file that backs the grid, or null to store it in native memory.
+   * @return The off-heap engine, which is also {@link AutoCloseable}, or null if the foreign module
+   *     is not present.
+   * @throws IOException If the file can not be mapped.
+   */
+  public static GolEngine create(GolEngine initial, RowBandStepper stepper, Path mappedFile)
+      throws IOException {
+    return newEngine(
+        new Class<?>[] {GolEngine.class, RowBandStepper.class, Path.class},
+        initial,
+        stepper,
+        mappedFile);
+  }
+
+  /**
+   * Creates the off-heap engine with every cell dead, which is also a {@link GridWriter}, so the
+   * initial generation is loaded straight into the native memory or the mapped file.
+   *
+   * @param width The width of the grid.
+   * @param height The height of the grid.
+   * @param stepper The stepper that decides if the rows are evolved in parallel bands.
+   * @param mappedFile The file that backs the grid, or null to store it in native memory.
+   * @return The off-heap engine, which is also {@link AutoCloseable}, or null if the foreign module
+   *     is not present.
+   * @throws IOException If the file can not be mapped.
+   */
+  public static GolEngine create(int width, int height, RowBandStepper stepper, Path mappedFile)
+      throws IOException {
+    return newEngine(
+        new Class<?>[] {int.class, int.class, RowBandStepper.class, Path.class},
+        width,
+        height,
+        stepper,
+        mappedFile);
+  }
+
+  private static GolEngine newEngine(Class<?>[] parameterTypes, Object... arguments)
+      throws IOException {
+    if (ModuleLayer.boot().findModule(FOREIGN_MODULE).isEmpty()) return null;
+    try {
+      return (GolEngine)
+          Class.forName(OFF_HEAP_ENGINE_CLASS)
+              .getDeclaredConstructor(parameterTypes)
+              .newInstance(arguments);
+    } catch (InvocationTargetException exception) {
+      Throwable cause = exception.getCause();
+      if (cause instanceof IOException) throw (IOException) cause;
+      if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+      if (cause instanceof Error) throw (Error) cause;
+      return null;
+    } catch (ReflectiveOperationException | LinkageError exception) {
+      return null;
+    }
+  }
+}
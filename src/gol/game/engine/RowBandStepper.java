@@ -0,0 +1,110 @@
+package gol.game.engine;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Stepper that evolves the rows of a grid in bands. Every row of the next generation depends only
+ * on the previous generation, so the bands are split on a fork/join pool and evolved in parallel.
+ * Grids with fewer cells than the sequential threshold are evolved in the calling thread.
+ */
+public class RowBandStepper {
+  private static final RowBandStepper SEQUENTIAL = new RowBandStepper(1, Integer.MAX_VALUE);
+
+  private final int parallelism;
+  private final int sequentialThreshold;
+  private final ForkJoinPool pool;
+
+  /**
+   * Constructor for the row band stepper.
+   *
+   * @param parallelism The number of threads that evolve the bands. One evolves every row in the
+   *     calling thread.
+   * @param sequentialThreshold The number of cells below which a grid or a band is not split.
+   */
+  public RowBandStepper(int parallelism, int sequentialThreshold) {
+    this.parallelism = parallelism;
+    this.sequentialThreshold = sequentialThreshold;
+    this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+  }
+
+  /**
+   * Returns the stepper that evolves every row in the calling thread.
+   *
+   * @return The sequential stepper.
+   */
+  public static RowBandStepper sequential() {
+    return SEQUENTIAL;
+  }
+
+  /**
+   * Evolves the rows from zero to the given row count, in parallel bands if the grid is over the
+   * sequential threshold. Returns when every row is evolved.
+   *
+   * @param rowCount The number of rows of the grid.
+   * @param cellsPerRow The number of cells of each row.
+   * @param rowRangeUpdater The updater that evolves a range of rows.
+   */
+  public void updateRows(int rowCount, int cellsPerRow, RowRangeUpdater rowRangeUpdater) {
+    long cells = (long) rowCount * cellsPerRow;
+    if (pool == null || cells <= sequentialThreshold) {
+      rowRangeUpdater.updateRows(0, rowCount);
+    } else {
+      int bandRows = Math.max(1, sequentialThreshold / Math.max(1, cellsPerRow));
+      pool.invoke(new RowBandTask(rowRangeUpdater, 0, rowCount, bandRows));
+    }
+  }
+
+  /** Stops the threads of the pool. The stepper can not be used after it is shut down. */
+  public void shutdown() {
+    if (pool != null) pool.shutdown();
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  public int getSequentialThreshold() {
+    return sequentialThreshold;
+  }
+
+  /** Functional interface for the engines code that evolves a range of rows. */
+  @FunctionalInterface
+  public interface RowRangeUpdater {
+    /**
+     * Evolves the rows in the given range. Only the rows of the range may be written.
+     *
+     * @param fromRow The first row of the range, inclusive.
+     * @param toRow The last row of the range, exclusive.
+     */
+    void updateRows(int fromRow, int toRow);
+  }
+
+  private static class RowBandTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final transient RowRangeUpdater rowRangeUpdater;
+    private final int fromRow;
+    private final int toRow;
+    private final int bandRows;
+
+    RowBandTask(RowRangeUpdater rowRangeUpdater, int fromRow, int toRow, int bandRows) {
+      this.rowRangeUpdater = rowRangeUpdater;
+      this.fromRow = fromRow;
+      this.toRow = toRow;
+      this.bandRows = bandRows;
+    }
+
+    @Override
+    protected void compute() {
+      if (toRow - fromRow <= bandRows) {
+        rowRangeUpdater.updateRows(fromRow, toRow);
+      } else {
+        int middleRow = (fromRow + toRow) >>> 1;
+        invokeAll(
+            new RowBandTask(rowRangeUpdater, fromRow, middleRow, bandRows),
+            new RowBandTask(rowRangeUpdater, middleRow, toRow, bandRows));
+      }
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package gol.game.engine;
+
+/**
+ * Kernel that evolves a row of a grid stored one int per cell. Every row has a ghost cell at both
+ * ends, so the cells of the grid go from index one to the width, and their neighbours are always in
+ * the three given rows.
+ */
+@FunctionalInterface
+public interface RowKernel {
+  /**
+   * Evolves the cells of a row into the updated row and returns the hash of the updated row. The
+   * hash adds the updated cells packed 64 at a time with {@link GridHashes#addWord(long, long)},
+   * the cell of the lowest column in the lowest bit.
+   *
+   * @param topRow The row above, with its ghost cells.
+   * @param currentRow The row to evolve, with its ghost cells.
+   * @param downRow The row below, with its ghost cells.
+   * @param updatedRow The row where the evolved cells are written.
+   * @param width The number of cells of the row, without the ghost cells.
+   * @return The hash of the updated row.
+   */
+  long updateRow(int[] topRow, int[] currentRow, int[] downRow, int[] updatedRow, int width);
+}
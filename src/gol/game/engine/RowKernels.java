@@ -0,0 +1,33 @@
+package gol.game.engine;
+
+/**
+ * Factory of the row kernels that need modules the jvm may not have. The kernels are loaded by
+ * name, only when their module is present, so the game still runs on the scalar kernel without
+ * them.
+ */
+public final class RowKernels {
+  private static final String VECTOR_MODULE = "jdk.incubator.vector";
+  private static final String VECTOR_KERNEL_CLASS = "gol.game.engine.VectorRowKernel";
+
+  private RowKernels() {}
+
+  /**
+   * Creates the kernel that evolves many cells per instruction with the vector api. The vector
+   * module is an incubator module, which is only present when the jvm runs with {@code
+   * --add-modules jdk.incubator.vector}.
+   *
+   * @param rule The rule that evolves every cell.
+   * @return The vector kernel, or null if the vector module is not present.
+   */
+  public static RowKernel createVectorKernel(LifeRule rule) {
+    if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) return null;
+    try {
+      return (RowKernel)
+          Class.forName(VECTOR_KERNEL_CLASS)
+              .getDeclaredConstructor(LifeRule.class)
+              .newInstance(rule);
+    } catch (ReflectiveOperationException | LinkageError exception) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,272 @@
+package gol.game.engine;
+
+import gol.utils.LongHashMap;
+import java.util.Arrays;
+
+/**
+ * Gol engine for an unbounded universe made of 64 by 64 bit packed tiles. The tiles are stored in
+ * a map keyed by their tile coordinates, they are created when the cells on the edge of a
+ * neighbour tile can give birth inside them, and they are freed when they become empty. The memory
+ * follows the live population instead of the bounding box of the pattern.
+ *
+ * <p>The grid is a window placed on the universe, starting at the origin. The generations match
+ * the grid engines while the pattern stays clear of the grid edges, and a cell that leaves the
+ * window keeps evolving outside of it.
+ */
+public class SparseTileEngine implements GolEngine, StepCounter {
+  private static final int TILE_SHIFT = 6;
+  private static final int TILE_SIZE = 1 << TILE_SHIFT;
+  private static final int LAST = TILE_SIZE - 1;
+  private static final long[] DEAD_TILE_ROWS = new long[TILE_SIZE];
+
+  private final int width;
+  private final int height;
+  private final LongHashMap<Tile> tiles = new LongHashMap<>();
+  private final long[] freedTileCounts = new long[3];
+  private Tile[] tileSnapshot = new Tile[0];
+
+  /**
+   * Constructor for the sparse tile engine. The given matrix is only read, later changes to it are
+   * not seen by the engine.
+   *
+   * @param grid The matrix for the initial game grid.
+   * @param width The width of the grid.
+   * @param height The height of the grid.
+   */
+  public SparseTileEngine(int[][] grid, int width, int height) {
+    this(new BitPackedEngine(grid, width, height));
+  }
+
+  /**
+   * Constructor for the sparse tile engine. The given engine is only read, later changes to it are
+   * not seen by the engine. The tiles are as wide as a word, so every word of the engine that has
+   * an alive cell is the row of a tile.
+   *
+   * @param initial The engine with the initial generation.
+   */
+  public SparseTileEngine(GolEngine initial) {
+    this.width = initial.getWidth();
+    this.height = initial.getHeight();
+    int tileColumns = (width + TILE_SIZE - 1) >> TILE_SHIFT;
+    for (int rowIndex = 0; rowIndex < height; rowIndex++) {
+      for (int tileX = 0; tileX < tileColumns; tileX++) {
+        long word = initial.getRowWord(rowIndex, tileX);
+        if (word != 0) getOrCreateTile(tileX, rowIndex >> TILE_SHIFT).rows[rowIndex & LAST] = word;
+      }
+    }
+  }
+
+  private static long tileKey(int tileX, int tileY) {
+    return ((long) tileY << 32) | (tileX & 0xFFFFFFFFL);
+  }
+
+  private static long[] rowsOf(Tile tile) {
+    return tile == null ? DEAD_TILE_ROWS : tile.rows;
+  }
+
+  private Tile getOrCreateTile(int tileX, int tileY) {
+    long key = tileKey(tileX, tileY);
+    Tile tile = tiles.get(key);
+    if (tile == null) {
+      tile = new Tile(tileX, tileY);
+      tiles.put(key, tile);
+    }
+    return tile;
+  }
+
+  private Tile getTile(int tileX, int tileY) {
+    return tiles.get(tileKey(tileX, tileY));
+  }
+
+  /** Creates the missing neighbour tiles where the edge cells of the tile can give birth. */
+  private void createReachedNeighbours(Tile tile) {
+    long[] rows = tile.rows;
+    long columns = 0;
+    for (long row : rows) columns |= row;
+    int tileX = tile.tileX;
+    int tileY = tile.tileY;
+    if (rows[0] != 0) getOrCreateTile(tileX, tileY - 1);
+    if (rows[LAST] != 0) getOrCreateTile(tileX, tileY + 1);
+    if ((columns & 1L) != 0) getOrCreateTile(tileX - 1, tileY);
+    if (columns < 0) getOrCreateTile(tileX + 1, tileY);
+    if ((rows[0] & 1L) != 0) getOrCreateTile(tileX - 1, tileY - 1);
+    if (rows[0] < 0) getOrCreateTile(tileX + 1, tileY - 1);
+    if ((rows[LAST] & 1L) != 0) getOrCreateTile(tileX - 1, tileY + 1);
+    if (rows[LAST] < 0) getOrCreateTile(tileX + 1, tileY + 1);
+  }
+
+  private void evolveTile(Tile tile) {
+    int tileX = tile.tileX;
+    int tileY = tile.tileY;
+    long[] north = rowsOf(getTile(tileX, tileY - 1));
+    long[] south = rowsOf(getTile(tileX, tileY + 1));
+    long[] west = rowsOf(getTile(tileX - 1, tileY));
+    long[] east = rowsOf(getTile(tileX + 1, tileY));
+    long[] northWest = rowsOf(getTile(tileX - 1, tileY - 1));
+    long[] northEast = rowsOf(getTile(tileX + 1, tileY - 1));
+    long[] southWest = rowsOf(getTile(tileX - 1, tileY + 1));
+    long[] southEast = rowsOf(getTile(tileX + 1, tileY + 1));
+    long[] rows = tile.rows;
+
+    for (int rowIndex = 0; rowIndex < TILE_SIZE; rowIndex++) {
+      long top;
+      long topWestWord;
+      long topEastWord;
+      if (rowIndex == 0) {
+        top = north[LAST];
+        topWestWord = northWest[LAST];
+        topEastWord = northEast[LAST];
+      } else {
+        top = rows[rowIndex - 1];
+        topWestWord = west[rowIndex - 1];
+        topEastWord = east[rowIndex - 1];
+      }
+      long down;
+      long downWestWord;
+      long downEastWord;
+      if (rowIndex == LAST) {
+        down = south[0];
+        downWestWord = southWest[0];
+        downEastWord = southEast[0];
+      } else {
+        down = rows[rowIndex + 1];
+        downWestWord = west[rowIndex + 1];
+        downEastWord = east[rowIndex + 1];
+      }
+      long center = rows[rowIndex];
+      tile.nextRows[rowIndex] =
+          LifeWords.nextWord(
+              (top << 1) | (topWestWord >>> LAST),
+              top,
+              (top >>> 1) | (topEastWord << LAST),
+              (center << 1) | (west[rowIndex] >>> LAST),
+              center,
+              (center >>> 1) | (east[rowIndex] << LAST),
+              (down << 1) | (downWestWord >>> LAST),
+              down,
+              (down >>> 1) | (downEastWord << LAST));
+    }
+  }
+
+  /** Updates the grid life following the gol rules for evolution. */
+  @Override
+  public void updateGridLife() {
+    Arrays.fill(freedTileCounts, 0);
+    tileSnapshot = tiles.valuesToArray(tileSnapshot);
+    for (Tile tile : tileSnapshot) {
+      if (tile == null) break;
+      createReachedNeighbours(tile);
+    }
+
+    tileSnapshot = tiles.valuesToArray(tileSnapshot);
+    for (Tile tile : tileSnapshot) {
+      if (tile == null) break;
+      evolveTile(tile);
+    }
+
+    for (Tile tile : tileSnapshot) {
+      if (tile == null) break;
+      tile.swapRows();
+      if (tile.isEmpty()) {
+        addTileCounts(tile, freedTileCounts);
+        tiles.remove(tileKey(tile.tileX, tile.tileY));
+      }
+    }
+  }
+
+  /**
+   * Counts the cells of the last step inside the grid, against the previous generation that every
+   * tile keeps in its next rows. The cells of the tiles freed by the step were counted as deaths
+   * before the tiles were removed.
+   */
+  @Override
+  public void countLastStep(long[] counts) {
+    System.arraycopy(freedTileCounts, 0, counts, 0, freedTileCounts.length);
+    tiles.forEachValue(tile -> addTileCounts(tile, counts));
+  }
+
+  /** Adds the cells of the tile inside the grid to the population, the births and the deaths. */
+  private void addTileCounts(Tile tile, long[] counts) {
+    int firstColumn = tile.tileX << TILE_SHIFT;
+    if (tile.tileX < 0 || firstColumn >= width) return;
+    long columnMask = width - firstColumn >= TILE_SIZE ? -1L : (1L << (width - firstColumn)) - 1;
+    int firstRow = tile.tileY << TILE_SHIFT;
+    int fromRow = Math.max(0, -firstRow);
+    int toRow = Math.min(TILE_SIZE, height - firstRow);
+    for (int row = fromRow; row < toRow; row++) {
+      long word = tile.rows[row] & columnMask;
+      long previousWord = tile.nextRows[row] & columnMask;
+      counts[0] += Long.bitCount(word);
+      counts[1] += Long.bitCount(word & ~previousWord);
+      counts[2] += Long.bitCount(previousWord & ~word);
+    }
+  }
+
+  @Override
+  public boolean isCellAlive(int rowIndex, int columnIndex) {
+    Tile tile = getTile(columnIndex >> TILE_SHIFT, rowIndex >> TILE_SHIFT);
+    return tile != null && (tile.rows[rowIndex & LAST] & (1L << columnIndex)) != 0;
+  }
+
+  /**
+   * Returns the number of alive cells in the whole universe, including outside of the grid.
+   *
+   * @return The population of the universe.
+   */
+  public long getPopulation() {
+    long[] population = new long[1];
+    tiles.forEachValue(tile -> population[0] += tile.population());
+    return population[0];
+  }
+
+  /**
+   * Returns the number of tiles that are currently allocated.
+   *
+   * @return The number of tiles.
+   */
+  public int getTileCount() {
+    return tiles.size();
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  /** A 64 by 64 square of cells, one long per row with the west column in the lowest bit. */
+  private static final class Tile {
+    private final int tileX;
+    private final int tileY;
+    private long[] rows = new long[TILE_SIZE];
+    private long[] nextRows = new long[TILE_SIZE];
+
+    private Tile(int tileX, int tileY) {
+      this.tileX = tileX;
+      this.tileY = tileY;
+    }
+
+    private void swapRows() {
+      long[] previousRows = rows;
+      rows = nextRows;
+      nextRows = previousRows;
+    }
+
+    private boolean isEmpty() {
+      for (long row : rows) {
+        if (row != 0) return false;
+      }
+      return true;
+    }
+
+    private long population() {
+      long population = 0;
+      for (long row : rows) population += Long.bitCount(row);
+      return population;
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package gol.game.engine;
+
+/**
+ * Engine that counts the cells of its last step without a copy of the grid. The engines that evolve
+ * into a second buffer still hold the previous generation in it after the step, and the engines
+ * that only change some cells know which ones they changed, so the births and the deaths are
+ * counted from them.
+ */
+public interface StepCounter {
+  /**
+   * Counts the alive cells of the current generation, and the cells born and the cells dead in the
+   * last step. The births and the deaths are only counted right after a step, before any cell of
+   * the grid is set.
+   *
+   * @param counts The array where the population, the births and the deaths are written, in that
+   *     order.
+   */
+  void countLastStep(long[] counts);
+}
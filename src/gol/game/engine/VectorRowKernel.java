@@ -0,0 +1,95 @@
+package gol.game.engine;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Row kernel that evolves as many cells per instruction as int lanes fit in the preferred vector
+ * size of the processor. The eight neighbours of a vector of cells are the vectors loaded one cell
+ * to the left and to the right in the three rows, so the neighbours are summed with seven vector
+ * additions. The next states compiled from the rule are shifted in every lane by the neighbours and
+ * the cell, so every rule takes the same instructions, and the alive lanes of the next generation
+ * are packed into the words of the row hash straight from the comparison mask. The cells after the
+ * last whole vector are evolved one by one.
+ *
+ * <p>The lanes are ints because the grid keeps an int per cell, so a 256 bit vector evolves 8 cells
+ * per instruction where byte lanes would evolve 32, and every cell reads and writes four bytes.
+ * Byte lanes would have to narrow the nine loaded vectors and widen the stored one at every step,
+ * which costs more than the narrower additions save, so they would only pay off with a byte grid.
+ * The cells packed as bits, 64 per word, are evolved by the bits engine.
+ *
+ * <p>Only loaded through {@link RowKernels#createVectorKernel(LifeRule)}, which checks that the
+ * vector module is present.
+ */
+final class VectorRowKernel implements RowKernel {
+  private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+  private static final int LANES = SPECIES.length();
+  private static final int HALO = 1;
+  private static final int WORD_MASK = Long.SIZE - 1;
+
+  private final LifeRule rule;
+
+  /**
+   * Constructor for the vector kernel.
+   *
+   * @param rule The rule that evolves every cell.
+   */
+  VectorRowKernel(LifeRule rule) {
+    this.rule = rule;
+  }
+
+  @Override
+  public long updateRow(
+      int[] topRow, int[] currentRow, int[] downRow, int[] updatedRow, int width) {
+    IntVector nextStates = IntVector.broadcast(SPECIES, rule.getNextStates());
+    long rowHash = 0;
+    long word = 0;
+    int column = 0;
+    for (; column + LANES <= width; column += LANES) {
+      int index = column + HALO;
+      IntVector aliveNeighbours =
+          IntVector.fromArray(SPECIES, topRow, index - 1)
+              .add(IntVector.fromArray(SPECIES, topRow, index))
+              .add(IntVector.fromArray(SPECIES, topRow, index + 1))
+              .add(IntVector.fromArray(SPECIES, currentRow, index - 1))
+              .add(IntVector.fromArray(SPECIES, currentRow, index + 1))
+              .add(IntVector.fromArray(SPECIES, downRow, index - 1))
+              .add(IntVector.fromArray(SPECIES, downRow, index))
+              .add(IntVector.fromArray(SPECIES, downRow, index + 1));
+      IntVector cells =
+          IntVector.fromArray(SPECIES, currentRow, index)
+              .lanewise(VectorOperators.LSHL, LifeRule.CELL_SHIFT);
+      IntVector nextCells =
+          nextStates.lanewise(VectorOperators.LSHR, aliveNeighbours.or(cells)).and(1);
+      nextCells.intoArray(updatedRow, index);
+      word |= nextCells.eq(1).toLong() << (column & WORD_MASK);
+      if (((column + LANES) & WORD_MASK) == 0) {
+        rowHash = GridHashes.addWord(rowHash, word);
+        word = 0;
+      }
+    }
+    for (; column < width; column++) {
+      int index = column + HALO;
+      int aliveNeighbours =
+          topRow[index - 1]
+              + topRow[index]
+              + topRow[index + 1]
+              + currentRow[index - 1]
+              + currentRow[index + 1]
+              + downRow[index - 1]
+              + downRow[index]
+              + downRow[index + 1];
+      updatedRow[index] = rule.nextCell(aliveNeighbours, currentRow[index]);
+      word |= (long) updatedRow[index] << (column & WORD_MASK);
+      if ((column & WORD_MASK) == WORD_MASK || column == width - 1) {
+        rowHash = GridHashes.addWord(rowHash, word);
+        word = 0;
+      }
+    }
+    if ((width & (LANES - 1)) == 0 && (width & WORD_MASK) != 0) {
+      rowHash = GridHashes.addWord(rowHash, word);
+    }
+    return rowHash;
+  }
+}
@@ -0,0 +1,86 @@
+package gol.game.generator;
+
+/**
+ * Detector of still lifes and oscillations from the hashes of consecutive generations. It keeps a
+ * bounded history of the last hashes, and a hash that is already in the history means that the
+ * generation repeats, with the distance between both as the period. The period of a still life is
+ * one.
+ *
+ * <p>The hashes have 64 bits, so two different generations with the same hash are unlikely but
+ * possible, and a detected cycle is not verified cell by cell.
+ */
+public class CycleDetector {
+  private final long[] hashes;
+  private final long[] generations;
+  private int size;
+  private int next;
+  private int period;
+  private long detectionGeneration;
+
+  /**
+   * Constructor for the detector.
+   *
+   * @param maxPeriod The longest period that can be detected, which is the size of the history.
+   */
+  public CycleDetector(int maxPeriod) {
+    this.hashes = new long[maxPeriod];
+    this.generations = new long[maxPeriod];
+  }
+
+  /**
+   * Adds the hash of the next generation to the history. The generations have to be observed in
+   * order, without gaps.
+   *
+   * @param generation The generation of the hash.
+   * @param hash The hash of the generation.
+   * @return True if a cycle is detected, now or before, false if not.
+   */
+  public boolean observe(long generation, long hash) {
+    if (period > 0) return true;
+    for (int distance = 1; distance <= size; distance++) {
+      int index = Math.floorMod(next - distance, hashes.length);
+      if (hashes[index] == hash) {
+        period = (int) (generation - generations[index]);
+        detectionGeneration = generation;
+        return true;
+      }
+    }
+    hashes[next] = hash;
+    generations[next] = generation;
+    next = (next + 1) % hashes.length;
+    size = Math.min(size + 1, hashes.length);
+    return false;
+  }
+
+  public boolean isCycleDetected() {
+    return period > 0;
+  }
+
+  /**
+   * Returns the period of the detected cycle.
+   *
+   * @return The period, or zero if no cycle was detected.
+   */
+  public int getPeriod() {
+    return period;
+  }
+
+  /**
+   * Returns the generation where the cycle was detected, which repeats the generation one period
+   * before it.
+   *
+   * @return The generation of the detection.
+   */
+  public long getDetectionGeneration() {
+    return detectionGeneration;
+  }
+
+  /**
+   * Returns the first generation of the detected cycle that was observed.
+   *
+   * @return The generation that the detection generation repeats.
+   */
+  public long getCycleStartGeneration() {
+    return detectionGeneration - period;
+  }
+}
@@ -0,0 +1,43 @@
+package gol.game.generator;
+
+import gol.GolFrame;
+import gol.game.engine.GolEngine;
+
+/** Frame backed directly by the cells of an engine, without copying them. */
+class EngineFrame implements GolFrame {
+  private final GolEngine engine;
+  private long generation;
+
+  EngineFrame(GolEngine engine) {
+    this.engine = engine;
+  }
+
+  void setGeneration(long generation) {
+    this.generation = generation;
+  }
+
+  @Override
+  public boolean isCellAlive(int rowIndex, int columnIndex) {
+    return engine.isCellAlive(rowIndex, columnIndex);
+  }
+
+  @Override
+  public long getRowWord(int rowIndex, int wordIndex) {
+    return engine.getRowWord(rowIndex, wordIndex);
+  }
+
+  @Override
+  public long getGeneration() {
+    return generation;
+  }
+
+  @Override
+  public int getWidth() {
+    return engine.getWidth();
+  }
+
+  @Override
+  public int getHeight() {
+    return engine.getHeight();
+  }
+}
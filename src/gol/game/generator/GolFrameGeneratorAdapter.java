@@ -0,0 +1,70 @@
+package gol.game.generator;
+
+import gol.GolFrame;
+import gol.GolFrameGenerator;
+import gol.GolGenerator;
+import gol.game.constants.GameValues;
+import gol.game.metrics.SimulationMetrics;
+
+/**
+ * Adapter that lets the string based renderers draw the frames of a frame generator. The frames are
+ * formatted into a reused builder.
+ */
+public class GolFrameGeneratorAdapter implements GolGenerator {
+  private final GolFrameGenerator frameGenerator;
+  private final SimulationMetrics metrics;
+  private final StringBuilder gridStringFormat = new StringBuilder();
+
+  /**
+   * Constructor for the adapter.
+   *
+   * @param frameGenerator The generator of the frames to format.
+   */
+  public GolFrameGeneratorAdapter(GolFrameGenerator frameGenerator) {
+    this(frameGenerator, null);
+  }
+
+  /**
+   * Constructor for the adapter that records the time to format every frame.
+   *
+   * @param frameGenerator The generator of the frames to format.
+   * @param metrics The metrics of the simulation, or null if they are not recorded.
+   */
+  public GolFrameGeneratorAdapter(GolFrameGenerator frameGenerator, SimulationMetrics metrics) {
+    this.frameGenerator = frameGenerator;
+    this.metrics = metrics;
+  }
+
+  /**
+   * Formats the given frame with the gol renderer format.
+   *
+   * @param frame The frame to format.
+   * @param builder The builder where the format is appended.
+   */
+  public static void appendRendererFormat(GolFrame frame, StringBuilder builder) {
+    int width = frame.getWidth();
+    int height = frame.getHeight();
+    for (int rowIndex = 0; rowIndex < height; rowIndex++) {
+      for (int wordIndex = 0; (wordIndex << 6) < width; wordIndex++) {
+        long word = frame.getRowWord(rowIndex, wordIndex);
+        int lastColumn = Math.min(width - (wordIndex << 6), Long.SIZE);
+        for (int bit = 0; bit < lastColumn; bit++) {
+          builder.append(
+              (word & (1L << bit)) != 0 ? GameValues.ALIVE_CELL_CHAR : GameValues.DEAD_CELL_CHAR);
+        }
+      }
+      builder.append(GameValues.NEW_ROW_CHAR);
+    }
+  }
+
+  @Override
+  public String getNextGenerationAsString(long l) {
+    GolFrame frame = frameGenerator.getNextGenerationFrame(l);
+    long startNanos = System.nanoTime();
+    gridStringFormat.setLength(0);
+    appendRendererFormat(frame, gridStringFormat);
+    String rendererFormat = gridStringFormat.toString();
+    if (metrics != null) metrics.recordRender(System.nanoTime() - startNanos);
+    return rendererFormat;
+  }
+}
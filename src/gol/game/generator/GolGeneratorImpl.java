@@ -1,21 +1,142 @@
 package gol.game.generator;
 
-import gol.GolGenerator;
-import gol.game.GolGrid;
+import gol.GolFrame;
+import gol.GolFrameGenerator;
+import gol.game.engine.GolEngine;
 
-/** Implementation of the GolGenerator interface. */
-public class GolGeneratorImpl implements GolGenerator {
-  private final GolGrid grid;
+/**
+ * Implementation of the GolGenerator interface. With a cycle detector, the generations are
+ * evolved one by one and hashed until the grid repeats, and from then on the generator skips the
+ * whole periods and only evolves the remainder.
+ */
+public class GolGeneratorImpl implements SeekableGolGenerator, GolFrameGenerator {
+  private final GolEngine grid;
+  private final EngineFrame frame;
+  private final CycleDetector cycleDetector;
+  private long generation;
 
-  public GolGeneratorImpl(GolGrid grid) {
+  /**
+   * Constructor for the generator.
+   *
+   * @param grid The engine that holds and evolves the game grid.
+   */
+  public GolGeneratorImpl(GolEngine grid) {
+    this(grid, 0);
+  }
+
+  /**
+   * Constructor for the generator of an engine that does not start in the first generation, like
+   * an engine resumed from a snapshot.
+   *
+   * @param grid The engine that holds and evolves the game grid.
+   * @param generation The generation that the engine holds.
+   */
+  public GolGeneratorImpl(GolEngine grid, long generation) {
+    this(grid, generation, null);
+  }
+
+  /**
+   * Constructor for the generator with a cycle detector.
+   *
+   * @param grid The engine that holds and evolves the game grid.
+   * @param generation The generation that the engine holds.
+   * @param cycleDetector The detector of the cycles, or null to evolve every generation.
+   */
+  public GolGeneratorImpl(GolEngine grid, long generation, CycleDetector cycleDetector) {
     this.grid = grid;
+    this.frame = new EngineFrame(grid);
+    this.cycleDetector = cycleDetector;
+    this.generation = generation;
+    if (cycleDetector != null) cycleDetector.observe(generation, grid.getGridHash());
   }
 
+  /**
+   * Returns the given generation. The renderers ask for consecutive generations, but any later
+   * generation can be asked and the engine jumps to it.
+   *
+   * @param l The generation to return.
+   * @return The string renderer format of the generation.
+   */
   @Override
   public String getNextGenerationAsString(long l) {
-    String generationStringFormat = grid.toRendererFormat();
-    grid.updateGridLife();
-    return generationStringFormat;
+    seekGeneration(l);
+    return grid.toRendererFormat();
+  }
+
+  /**
+   * Returns the given generation as a frame backed by the engine cells. The frame is reused and it
+   * follows the engine, so it is only valid until the next generation is asked.
+   *
+   * @param generation The generation to return.
+   * @return The frame of the generation.
+   */
+  @Override
+  public GolFrame getNextGenerationFrame(long generation) {
+    seekGeneration(generation);
+    frame.setGeneration(generation);
+    return frame;
+  }
+
+  @Override
+  public void advanceGenerations(long generations) {
+    long remaining = advanceUntilCycle(generations);
+    if (remaining > 0) {
+      grid.advanceGenerations(remaining % cycleDetector.getPeriod());
+      generation += remaining;
+    }
+  }
+
+  /**
+   * Advances the given number of generations, but stops at the generation where a cycle is
+   * detected. Without a cycle detector, every generation is advanced.
+   *
+   * @param generations The number of generations to advance.
+   * @return The number of generations that were not advanced, zero if no cycle stopped them.
+   */
+  public long advanceUntilCycle(long generations) {
+    if (generations < 0) {
+      throw new IllegalArgumentException("The generations to advance can not be negative");
+    }
+    if (cycleDetector == null) {
+      grid.advanceGenerations(generations);
+      generation += generations;
+      return 0;
+    }
+    long remaining = generations;
+    while (remaining > 0 && !cycleDetector.isCycleDetected()) {
+      grid.updateGridLife();
+      generation++;
+      remaining--;
+      cycleDetector.observe(generation, grid.getGridHash());
+    }
+    return remaining;
+  }
+
+  /**
+   * Returns the cycle detector of the generator.
+   *
+   * @return The cycle detector, or null if the generator does not detect cycles.
+   */
+  public CycleDetector getCycleDetector() {
+    return cycleDetector;
+  }
+
+  @Override
+  public void seekGeneration(long generation) {
+    if (generation < this.generation) {
+      throw new IllegalArgumentException(
+          "Can not go back to generation " + generation + " from " + this.generation);
+    }
+    advanceGenerations(generation - this.generation);
   }
-}
 
+  @Override
+  public String getCurrentGenerationAsString() {
+    return grid.toRendererFormat();
+  }
+
+  @Override
+  public long getGeneration() {
+    return generation;
+  }
+}
@@ -0,0 +1,55 @@
+package gol.game.generator;
+
+import gol.GolFrame;
+
+/** Frame that owns a bit packed copy of the cells of a generation. */
+class PackedFrame implements GolFrame {
+  private final int width;
+  private final int height;
+  private final int wordsPerRow;
+  private final long[] words;
+  private long generation;
+
+  PackedFrame(int width, int height) {
+    this.width = width;
+    this.height = height;
+    this.wordsPerRow = (width + Long.SIZE - 1) / Long.SIZE;
+    this.words = new long[height * wordsPerRow];
+  }
+
+  /** Copies the cells and the generation of the given frame, which must have the same size. */
+  void copyFrom(GolFrame frame) {
+    for (int rowIndex = 0; rowIndex < height; rowIndex++) {
+      int rowOffset = rowIndex * wordsPerRow;
+      for (int wordIndex = 0; wordIndex < wordsPerRow; wordIndex++) {
+        words[rowOffset + wordIndex] = frame.getRowWord(rowIndex, wordIndex);
+      }
+    }
+    generation = frame.getGeneration();
+  }
+
+  @Override
+  public boolean isCellAlive(int rowIndex, int columnIndex) {
+    return (getRowWord(rowIndex, columnIndex / Long.SIZE) & (1L << columnIndex)) != 0;
+  }
+
+  @Override
+  public long getRowWord(int rowIndex, int wordIndex) {
+    return words[rowIndex * wordsPerRow + wordIndex];
+  }
+
+  @Override
+  public long getGeneration() {
+    return generation;
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+}
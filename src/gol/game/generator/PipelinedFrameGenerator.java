@@ -0,0 +1,147 @@
+package gol.game.generator;
+
+import gol.GolFrame;
+import gol.GolFrameGenerator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Frame generator that computes the generations ahead of the renderer. A producer thread asks the
+ * source generator for consecutive generations and copies them into a ring of preallocated frames,
+ * and the renderer takes the frames in order. When every frame of the ring is computed and not yet
+ * rendered the producer waits, so it never runs more than the lookahead ahead of the renderer.
+ *
+ * <p>The source generator is only used by the producer thread after the generator is started.
+ */
+public class PipelinedFrameGenerator implements GolFrameGenerator, AutoCloseable {
+  private final GolFrameGenerator source;
+  private final long firstGeneration;
+  private final long maxGenerations;
+  private final BlockingQueue<PackedFrame> freeFrames;
+  private final BlockingQueue<PackedFrame> readyFrames;
+  private final PackedFrame endFrame;
+  private final Thread producer;
+  private volatile RuntimeException producerFailure;
+  private PackedFrame currentFrame;
+
+  /**
+   * Constructor for the generator. The producer does not compute any generation until the
+   * generator is started.
+   *
+   * @param source The generator that computes the generations.
+   * @param width The width of the grid.
+   * @param height The height of the grid.
+   * @param lookahead The number of generations that can be computed ahead of the renderer.
+   * @param firstGeneration The first generation that the renderer asks for.
+   * @param maxGenerations The number of generations that the renderer asks for, zero for all.
+   */
+  public PipelinedFrameGenerator(
+      GolFrameGenerator source,
+      int width,
+      int height,
+      int lookahead,
+      long firstGeneration,
+      long maxGenerations) {
+    if (lookahead < 1) throw new IllegalArgumentException("The lookahead has to be at least one");
+    this.source = source;
+    this.firstGeneration = firstGeneration;
+    this.maxGenerations = maxGenerations;
+    this.freeFrames = new ArrayBlockingQueue<>(lookahead + 1);
+    this.readyFrames = new ArrayBlockingQueue<>(lookahead + 2);
+    for (int frameIndex = 0; frameIndex <= lookahead; frameIndex++) {
+      freeFrames.add(new PackedFrame(width, height));
+    }
+    this.endFrame = new PackedFrame(0, 0);
+    this.producer = new Thread(this::produceFrames, "gol-frame-producer");
+    this.producer.setDaemon(true);
+  }
+
+  /**
+   * Starts the producer thread.
+   *
+   * @return This generator.
+   */
+  public PipelinedFrameGenerator start() {
+    producer.start();
+    return this;
+  }
+
+  private void produceFrames() {
+    try {
+      for (long generation = firstGeneration;
+          maxGenerations == 0 || generation < firstGeneration + maxGenerations;
+          generation++) {
+        PackedFrame frame = freeFrames.take();
+        frame.copyFrom(source.getNextGenerationFrame(generation));
+        readyFrames.put(frame);
+      }
+    } catch (InterruptedException exception) {
+      return;
+    } catch (RuntimeException exception) {
+      producerFailure = exception;
+    }
+    readyFrames.offer(endFrame);
+  }
+
+  /**
+   * Returns the given generation from the computed frames. The frames of the generations before it
+   * are released, so the generations can be skipped but not asked again.
+   *
+   * @param generation The generation to return.
+   * @return The frame of the generation, valid until the next call.
+   * @throws NoSuchElementException If the producer stopped before the generation.
+   */
+  @Override
+  public GolFrame getNextGenerationFrame(long generation) {
+    while (true) {
+      if (currentFrame != null) {
+        if (currentFrame.getGeneration() == generation) return currentFrame;
+        if (currentFrame.getGeneration() > generation) {
+          throw new IllegalArgumentException(
+              "Can not go back to generation "
+                  + generation
+                  + " from "
+                  + currentFrame.getGeneration());
+        }
+        freeFrames.add(currentFrame);
+      }
+      currentFrame = takeReadyFrame();
+      if (currentFrame == endFrame) {
+        currentFrame = null;
+        readyFrames.offer(endFrame);
+        if (producerFailure != null) throw producerFailure;
+        throw new NoSuchElementException("The generation " + generation + " was not computed");
+      }
+    }
+  }
+
+  private PackedFrame takeReadyFrame() {
+    try {
+      return readyFrames.take();
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for a generation", exception);
+    }
+  }
+
+  /**
+   * Returns the number of computed frames waiting to be returned.
+   *
+   * @return The number of ready frames.
+   */
+  public int getReadyFrameCount() {
+    return readyFrames.size();
+  }
+
+  /** Stops the producer thread and waits for it to finish. */
+  @Override
+  public void close() {
+    producer.interrupt();
+    try {
+      producer.join();
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package gol.game.generator;
+
+import gol.GolFrame;
+import gol.GolFrameGenerator;
+import gol.game.recording.RunRecording;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Generator that replays the generations of a recorded run instead of evolving them. The
+ * generations are read from the recording, so the generator can also go back, and moving to a
+ * generation only decodes the frames after its closest keyframe. The renderers count their
+ * generations from zero, so the generation that they ask is counted from the first generation of
+ * the replay.
+ */
+public class ReplayGenerator implements SeekableGolGenerator, GolFrameGenerator {
+  private final RunRecording recording;
+  private final long firstGeneration;
+  private final StringBuilder gridStringFormat = new StringBuilder();
+
+  /**
+   * Constructor for the generator.
+   *
+   * @param recording The recording to replay.
+   * @param firstGeneration The recorded generation that the renderers see as the generation zero.
+   */
+  public ReplayGenerator(RunRecording recording, long firstGeneration) {
+    this.recording = recording;
+    this.firstGeneration = firstGeneration;
+  }
+
+  /**
+   * Returns the given generation of the replay, counted from its first generation.
+   *
+   * @param l The generation to return.
+   * @return The string renderer format of the generation.
+   */
+  @Override
+  public String getNextGenerationAsString(long l) {
+    seekGeneration(firstGeneration + l);
+    return getCurrentGenerationAsString();
+  }
+
+  /**
+   * Returns the given generation of the replay, counted from its first generation, as a frame
+   * backed by the recording. The frame is only valid until the next generation is asked.
+   *
+   * @param generation The generation to return.
+   * @return The frame of the generation, which has its recorded generation.
+   */
+  @Override
+  public GolFrame getNextGenerationFrame(long generation) {
+    seekGeneration(firstGeneration + generation);
+    return recording;
+  }
+
+  @Override
+  public void advanceGenerations(long generations) {
+    if (generations < 0) {
+      throw new IllegalArgumentException("The generations to advance can not be negative");
+    }
+    seekGeneration(recording.getGeneration() + generations);
+  }
+
+  /**
+   * Moves to the given recorded generation, before or after the current one.
+   *
+   * @param generation The recorded generation to move to.
+   */
+  @Override
+  public void seekGeneration(long generation) {
+    if (generation == recording.getGeneration()) return;
+    try {
+      recording.seek(generation);
+    } catch (IOException exception) {
+      throw new UncheckedIOException("The recording can not be replayed", exception);
+    }
+  }
+
+  @Override
+  public String getCurrentGenerationAsString() {
+    gridStringFormat.setLength(0);
+    GolFrameGeneratorAdapter.appendRendererFormat(recording, gridStringFormat);
+    return gridStringFormat.toString();
+  }
+
+  @Override
+  public long getGeneration() {
+    return recording.getGeneration();
+  }
+}
@@ -0,0 +1,33 @@
+package gol.game.generator;
+
+import gol.GolGenerator;
+
+/**
+ * Generator that can move forward any number of generations at once, instead of one generation per
+ * call of the renderer.
+ */
+public interface SeekableGolGenerator extends GolGenerator {
+  /**
+   * Advances the given number of generations from the current one.
+   *
+   * @param generations The number of generations to advance, zero or greater.
+   */
+  void advanceGenerations(long generations);
+
+  /**
+   * Moves to the given generation. The generator can not go back to a generation before the
+   * current one.
+   *
+   * @param generation The generation to move to.
+   */
+  void seekGeneration(long generation);
+
+  /**
+   * Returns the string renderer format for the current generation.
+   *
+   * @return The string representation of the current generation.
+   */
+  String getCurrentGenerationAsString();
+
+  long getGeneration();
+}
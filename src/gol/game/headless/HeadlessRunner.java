@@ -0,0 +1,241 @@
+package gol.game.headless;
+
+import gol.GolFrame;
+import gol.game.configuration.GameConfiguration;
+import gol.game.constants.GameValues;
+import gol.game.engine.ActiveCellEngine;
+import gol.game.engine.GolEngine;
+import gol.game.engine.LifeRule;
+import gol.game.generator.CycleDetector;
+import gol.game.generator.GolGeneratorImpl;
+import gol.game.metrics.MetricsReporter;
+import gol.game.metrics.SimulationMetrics;
+import gol.game.recording.RunRecorder;
+import gol.game.snapshot.GridSnapshot;
+import gol.inputOutput.printers.ErrorPrinter;
+import gol.utils.Logger;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the generations of an engine as fast as possible without rendering them, then writes the
+ * final generation and a summary of the run. The engine jumps to the last generation with {@link
+ * GolEngine#advanceGenerations(long)}, so the engines that can skip generations do it. When there
+ * is a checkpoint, the run stops every checkpoint interval to write a snapshot, which can be
+ * resumed if the run is stopped. When the cycles are detected, the run either stops at the first
+ * repeated generation or skips the remaining whole periods. When the metrics are on, their dump is
+ * printed after the summary. When the run is recorded, every generation is evolved and recorded one
+ * at a time, from the first one, so the engines do not jump ahead.
+ */
+public class HeadlessRunner {
+  private HeadlessRunner() {}
+
+  /**
+   * Evolves the engine of the configuration its number of generations and prints the wall time,
+   * the generations per second, the cell updates per second and the peak heap of the run. The
+   * final generation is written in the renderer format, one row per line.
+   *
+   * @param configuration The validated configuration, with the filled game grid.
+   */
+  public static void run(GameConfiguration configuration) {
+    GolEngine engine = configuration.getGameEngine();
+    CycleDetector cycleDetector = configuration.createCycleDetector();
+    GolGeneratorImpl generator =
+        new GolGeneratorImpl(engine, configuration.getStartGeneration(), cycleDetector);
+    boolean stopOnCycle = configuration.stopsOnCycle();
+    long generations = configuration.getGenerations();
+    String checkpoint = configuration.getCheckpoint();
+    long checkpointInterval =
+        configuration.getCheckpointInterval() == 0
+            ? generations
+            : configuration.getCheckpointInterval();
+    SimulationMetrics metrics = configuration.getSimulationMetrics();
+    MetricsReporter reporter =
+        metrics != null && configuration.getMetricsDumpSeconds() > 0
+            ? MetricsReporter.start(metrics, configuration.getMetricsDumpSeconds())
+            : null;
+    List<MemoryPoolMXBean> heapPools = heapPools();
+    heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+    long startNanos = System.nanoTime();
+    RunRecorder recorder = createRecorder(configuration, generator);
+    long evolved = 0;
+    while (evolved < generations) {
+      long step = Math.min(checkpointInterval, generations - evolved);
+      long recorded = 0;
+      while (recorder != null && recorded < step) {
+        if (stopOnCycle && generator.advanceUntilCycle(1) > 0) break;
+        if (!stopOnCycle) generator.advanceGenerations(1);
+        recorded++;
+        recorder = recordGeneration(recorder, generator);
+      }
+      long remaining = step - recorded;
+      if (stopOnCycle) {
+        evolved += step - generator.advanceUntilCycle(remaining);
+      } else {
+        generator.advanceGenerations(remaining);
+        evolved += step;
+      }
+      if (!checkpoint.isEmpty()) writeCheckpoint(generator, configuration.getRule(), checkpoint);
+      if (stopOnCycle && cycleDetector.isCycleDetected()) break;
+    }
+    long elapsedNanos = Math.max(System.nanoTime() - startNanos, 1);
+    if (reporter != null) reporter.close();
+
+    double elapsedSeconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+    double cellUpdates = (double) evolved * engine.getWidth() * engine.getHeight();
+    Logger.logConfigurationValue("The generations were", evolved);
+    Logger.logConfigurationValue("The final generation is", generator.getGeneration());
+    Logger.logConfigurationValue("The wall time in seconds was", format(elapsedSeconds));
+    Logger.logConfigurationValue(
+        "The generations per second were", format(evolved / elapsedSeconds));
+    Logger.logConfigurationValue(
+        "The cell updates per second were", format(cellUpdates / elapsedSeconds));
+    Logger.logConfigurationValue("The peak heap in bytes was", peakHeapBytes(heapPools));
+    ActiveCellEngine activeCellEngine = configuration.getActiveCellEngine();
+    if (activeCellEngine != null) {
+      Logger.logConfigurationValue("The active cells are", activeCellEngine.getActiveCellCount());
+      Logger.logConfigurationValue(
+          "The cells changed in the last generation were",
+          activeCellEngine.getChangedCellCount());
+    }
+    if (cycleDetector != null && cycleDetector.isCycleDetected()) {
+      Logger.logConfigurationValue("The cycle period is", cycleDetector.getPeriod());
+      Logger.logConfigurationValue(
+          "The cycle starts at generation", cycleDetector.getCycleStartGeneration());
+      Logger.logConfigurationValue(
+          "The cycle was detected at generation", cycleDetector.getDetectionGeneration());
+    }
+    if (recorder != null) closeRecorder(recorder);
+    if (metrics != null) Logger.logMetrics(metrics.dump());
+
+    try {
+      writeGeneration(engine, configuration.getOutput());
+    } catch (IOException exception) {
+      ErrorPrinter.printError(
+          "The final generation could not be written: " + exception.getMessage());
+    }
+  }
+
+  private static void writeCheckpoint(
+      GolGeneratorImpl generator, LifeRule rule, String checkpoint) {
+    try {
+      GolFrame frame = generator.getNextGenerationFrame(generator.getGeneration());
+      GridSnapshot.write(frame, rule.toString(), Paths.get(checkpoint));
+    } catch (IOException exception) {
+      ErrorPrinter.printError("The checkpoint could not be written: " + exception.getMessage());
+    }
+  }
+
+  /**
+   * Creates the recorder of the configuration and records the first generation.
+   *
+   * @return The recorder, or null if the run is not recorded or the recording can not be created.
+   */
+  private static RunRecorder createRecorder(
+      GameConfiguration configuration, GolGeneratorImpl generator) {
+    if (configuration.getRecording().isEmpty()) return null;
+    try {
+      RunRecorder recorder =
+          RunRecorder.create(
+              Paths.get(configuration.getRecording()),
+              configuration.getWidth(),
+              configuration.getHeight(),
+              configuration.getRule().toString(),
+              configuration.getKeyframeInterval());
+      return recordGeneration(recorder, generator);
+    } catch (IOException exception) {
+      ErrorPrinter.printError("The recording could not be created: " + exception.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Records the current generation of the generator. The run goes on without recording if the
+   * generation can not be written.
+   *
+   * @return The recorder, or null if the generation could not be written.
+   */
+  private static RunRecorder recordGeneration(RunRecorder recorder, GolGeneratorImpl generator) {
+    try {
+      recorder.record(generator.getNextGenerationFrame(generator.getGeneration()));
+      return recorder;
+    } catch (IOException exception) {
+      ErrorPrinter.printError("The recording could not be written: " + exception.getMessage());
+      closeRecorder(recorder);
+      return null;
+    }
+  }
+
+  /** Closes the recorder, which writes its index, and prints the size of the recording. */
+  private static void closeRecorder(RunRecorder recorder) {
+    try {
+      long recordingBytes = recorder.getBytes();
+      recorder.close();
+      Logger.logConfigurationValue("The recorded generations were", recorder.getFrames());
+      Logger.logConfigurationValue("The recording bytes were", recordingBytes);
+    } catch (IOException exception) {
+      ErrorPrinter.printError("The recording could not be closed: " + exception.getMessage());
+    }
+  }
+
+  private static List<MemoryPoolMXBean> heapPools() {
+    return ManagementFactory.getMemoryPoolMXBeans().stream()
+        .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isValid())
+        .toList();
+  }
+
+  /**
+   * Returns the sum of the peak usage of every heap pool since the peaks were reset. The pools
+   * reach their peaks at different times, so it is an upper bound of the peak heap.
+   */
+  private static long peakHeapBytes(List<MemoryPoolMXBean> heapPools) {
+    long peakBytes = 0;
+    for (MemoryPoolMXBean pool : heapPools) peakBytes += pool.getPeakUsage().getUsed();
+    return peakBytes;
+  }
+
+  private static String format(double value) {
+    return String.format(Locale.ROOT, "%.3f", value);
+  }
+
+  private static void writeGeneration(GolEngine engine, String outputPath) throws IOException {
+    boolean standardOutput = outputPath.isEmpty();
+    OutputStream stream =
+        standardOutput
+            ? new FileOutputStream(FileDescriptor.out)
+            : Files.newOutputStream(Paths.get(outputPath));
+    Writer writer =
+        new BufferedWriter(
+            new OutputStreamWriter(stream, StandardCharsets.US_ASCII),
+            GameValues.HEADLESS_OUTPUT_BUFFER_BYTES);
+    try {
+      for (int rowIndex = 0; rowIndex < engine.getHeight(); rowIndex++) {
+        for (int columnIndex = 0; columnIndex < engine.getWidth(); columnIndex++) {
+          writer.write(
+              engine.isCellAlive(rowIndex, columnIndex)
+                  ? GameValues.ALIVE_CELL_CHAR
+                  : GameValues.DEAD_CELL_CHAR);
+        }
+        writer.write(GameValues.NEW_ROW_CHAR);
+      }
+    } finally {
+      if (standardOutput) writer.flush();
+      else writer.close();
+    }
+  }
+}
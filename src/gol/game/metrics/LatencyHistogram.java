@@ -0,0 +1,75 @@
+package gol.game.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations in power of two buckets of nanoseconds. Recording is one increment of an
+ * atomic counter, so it is cheap enough to record every generation, and the percentiles are
+ * approximated by the upper bound of their bucket.
+ */
+class LatencyHistogram {
+  private static final int BUCKETS = Long.SIZE;
+
+  private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKETS);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final AtomicLong maxNanos = new AtomicLong();
+
+  void record(long nanos) {
+    long duration = Math.max(nanos, 0);
+    int bucket = duration == 0 ? 0 : BUCKETS - 1 - Long.numberOfLeadingZeros(duration);
+    bucketCounts.incrementAndGet(bucket);
+    count.increment();
+    totalNanos.add(duration);
+    if (duration > maxNanos.get()) maxNanos.accumulateAndGet(duration, Math::max);
+  }
+
+  long getCount() {
+    return count.sum();
+  }
+
+  long getMeanNanos() {
+    long samples = count.sum();
+    return samples == 0 ? 0 : totalNanos.sum() / samples;
+  }
+
+  long getMaxNanos() {
+    return maxNanos.get();
+  }
+
+  /**
+   * Returns the upper bound of the bucket that holds the given percentile, capped by the longest
+   * recorded duration.
+   *
+   * @param percentile The percentile, between zero and one hundred.
+   * @return The upper bound in nanoseconds, or zero if nothing was recorded.
+   */
+  long getPercentileNanos(double percentile) {
+    long samples = 0;
+    long[] counts = new long[BUCKETS];
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      counts[bucket] = bucketCounts.get(bucket);
+      samples += counts[bucket];
+    }
+    if (samples == 0) return 0;
+    long rank = (long) Math.ceil(samples * percentile / 100.0);
+    long seen = 0;
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      seen += counts[bucket];
+      if (seen >= rank) {
+        long upperBound = bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << (bucket + 1)) - 1;
+        return Math.min(upperBound, maxNanos.get());
+      }
+    }
+    return maxNanos.get();
+  }
+
+  void reset() {
+    for (int bucket = 0; bucket < BUCKETS; bucket++) bucketCounts.set(bucket, 0);
+    count.reset();
+    totalNanos.reset();
+    maxNanos.set(0);
+  }
+}
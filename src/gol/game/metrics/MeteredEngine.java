@@ -0,0 +1,136 @@
+package gol.game.metrics;
+
+import gol.game.engine.GolEngine;
+import gol.game.engine.StepCounter;
+
+/**
+ * Engine that measures the generations of another engine into the simulation metrics. Every
+ * generation step is timed, and one of every sample interval generations also records the
+ * population, the births and the deaths, and the heap allocated by the step. The engines that count
+ * their last step compare it with the previous generation they still hold, or with the cells they
+ * changed, so the grid is never copied and the generations that are not sampled only pay for two
+ * reads of the clock. The engines that advance many generations at once, like the hashlife engine
+ * and the distributed workers, still advance them at once, and only the last one is sampled.
+ */
+public class MeteredEngine implements GolEngine {
+  private static final int SAMPLE_INTERVAL = 16;
+
+  private final GolEngine engine;
+  private final SimulationMetrics metrics;
+  private final StepCounter stepCounter;
+  private final long[] counts = new long[3];
+  private final boolean jumpsAhead;
+  private long steps;
+
+  /**
+   * Constructor for the metered engine.
+   *
+   * @param engine The engine to measure.
+   * @param metrics The metrics where the measures are recorded.
+   * @param jumpsAhead If the engine advances many generations faster at once than one at a time.
+   */
+  public MeteredEngine(GolEngine engine, SimulationMetrics metrics, boolean jumpsAhead) {
+    this.engine = engine;
+    this.metrics = metrics;
+    this.jumpsAhead = jumpsAhead;
+    this.stepCounter = engine instanceof StepCounter ? (StepCounter) engine : null;
+  }
+
+  /**
+   * Records the cells of the last step. The engines that do not count their steps only have their
+   * population counted, from the words of the grid.
+   */
+  private void recordSample(long allocatedBytes) {
+    if (stepCounter == null) {
+      metrics.recordSample(countPopulation(), 0, 0, allocatedBytes);
+      return;
+    }
+    stepCounter.countLastStep(counts);
+    metrics.recordSample(counts[0], counts[1], counts[2], allocatedBytes);
+  }
+
+  private long countPopulation() {
+    int height = engine.getHeight();
+    int wordsPerRow = (engine.getWidth() + Long.SIZE - 1) / Long.SIZE;
+    long population = 0;
+    for (int rowIndex = 0; rowIndex < height; rowIndex++) {
+      for (int wordIndex = 0; wordIndex < wordsPerRow; wordIndex++) {
+        population += Long.bitCount(engine.getRowWord(rowIndex, wordIndex));
+      }
+    }
+    return population;
+  }
+
+  @Override
+  public void updateGridLife() {
+    if (steps++ % SAMPLE_INTERVAL != 0) {
+      long startNanos = System.nanoTime();
+      engine.updateGridLife();
+      metrics.recordSteps(System.nanoTime() - startNanos, 1);
+      return;
+    }
+    long startBytes = metrics.currentThreadAllocatedBytes();
+    long startNanos = System.nanoTime();
+    engine.updateGridLife();
+    long elapsedNanos = System.nanoTime() - startNanos;
+    long endBytes = metrics.currentThreadAllocatedBytes();
+    metrics.recordSteps(elapsedNanos, 1);
+    recordSample(startBytes < 0 ? -1 : endBytes - startBytes);
+  }
+
+  /**
+   * Advances the given number of generations, one step at a time so every generation is measured.
+   * The engines that jump ahead advance all the generations at once, recorded as steps of the mean
+   * duration, and their last generation is sampled.
+   *
+   * @param generations The number of generations to advance.
+   */
+  @Override
+  public void advanceGenerations(long generations) {
+    if (!jumpsAhead) {
+      for (long generation = 0; generation < generations; generation++) {
+        updateGridLife();
+      }
+      return;
+    }
+    if (generations == 0) return;
+    long startNanos = System.nanoTime();
+    engine.advanceGenerations(generations);
+    metrics.recordSteps((System.nanoTime() - startNanos) / generations, generations);
+    steps += generations;
+    recordSample(-1);
+  }
+
+  @Override
+  public String toRendererFormat() {
+    long startNanos = System.nanoTime();
+    String rendererFormat = engine.toRendererFormat();
+    metrics.recordRender(System.nanoTime() - startNanos);
+    return rendererFormat;
+  }
+
+  @Override
+  public boolean isCellAlive(int rowIndex, int columnIndex) {
+    return engine.isCellAlive(rowIndex, columnIndex);
+  }
+
+  @Override
+  public long getRowWord(int rowIndex, int wordIndex) {
+    return engine.getRowWord(rowIndex, wordIndex);
+  }
+
+  @Override
+  public long getGridHash() {
+    return engine.getGridHash();
+  }
+
+  @Override
+  public int getWidth() {
+    return engine.getWidth();
+  }
+
+  @Override
+  public int getHeight() {
+    return engine.getHeight();
+  }
+}
@@ -0,0 +1,44 @@
+package gol.game.metrics;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prints the text dump of the simulation metrics to the standard error every given period. The
+ * dumps are printed from a daemon thread, so the reporter never keeps the game running and the
+ * standard output keeps only the generations.
+ */
+public class MetricsReporter implements AutoCloseable {
+  private final ScheduledExecutorService executor;
+
+  private MetricsReporter(ScheduledExecutorService executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * Starts printing the metrics every given period.
+   *
+   * @param metrics The metrics to print.
+   * @param periodSeconds The seconds between the dumps.
+   * @return The started reporter.
+   */
+  public static MetricsReporter start(SimulationMetrics metrics, int periodSeconds) {
+    ScheduledExecutorService executor =
+        Executors.newSingleThreadScheduledExecutor(
+            task -> {
+              Thread thread = new Thread(task, "gol-metrics-reporter");
+              thread.setDaemon(true);
+              return thread;
+            });
+    executor.scheduleAtFixedRate(
+        () -> System.err.println(metrics.dump()), periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    return new MetricsReporter(executor);
+  }
+
+  /** Stops printing the metrics. */
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+}
@@ -0,0 +1,213 @@
+package gol.game.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Metrics of a simulation: the latency of every generation step, the time to render or format a
+ * generation, and the population, births, deaths and heap allocation of the sampled generations.
+ * The metrics are lock free counters, so the simulation records them without contention and a
+ * jmx client or the periodic dump reads them from other threads.
+ */
+public class SimulationMetrics implements SimulationMetricsMBean {
+  private static final String OBJECT_NAME = "gol:type=SimulationMetrics";
+
+  private final LatencyHistogram stepLatency = new LatencyHistogram();
+  private final LatencyHistogram renderLatency = new LatencyHistogram();
+  private final LongAdder generations = new LongAdder();
+  private final LongAdder births = new LongAdder();
+  private final LongAdder deaths = new LongAdder();
+  private final com.sun.management.ThreadMXBean allocationBean;
+  private volatile long population;
+  private volatile long allocatedBytesPerGeneration;
+  private volatile IntSupplier queueDepth = () -> 0;
+
+  /** Constructor for empty metrics. */
+  public SimulationMetrics() {
+    ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    allocationBean =
+        threadBean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported()
+            ? (com.sun.management.ThreadMXBean) threadBean
+            : null;
+  }
+
+  /**
+   * Registers the metrics in the platform mbean server.
+   *
+   * @throws JMException If the metrics can not be registered.
+   */
+  public void register() throws JMException {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = new ObjectName(OBJECT_NAME);
+    if (server.isRegistered(name)) server.unregisterMBean(name);
+    server.registerMBean(this, name);
+  }
+
+  /**
+   * Returns the bytes allocated by the current thread, if the jvm measures it.
+   *
+   * @return The allocated bytes, or -1 if they are not measured.
+   */
+  long currentThreadAllocatedBytes() {
+    return allocationBean == null ? -1 : allocationBean.getCurrentThreadAllocatedBytes();
+  }
+
+  /**
+   * Records the steps of some generations.
+   *
+   * @param stepNanos The duration of each generation.
+   * @param stepGenerations The number of generations that were stepped.
+   */
+  void recordSteps(long stepNanos, long stepGenerations) {
+    stepLatency.record(stepNanos);
+    generations.add(stepGenerations);
+  }
+
+  /**
+   * Records the cells of a sampled generation.
+   *
+   * @param sampledPopulation The alive cells of the generation.
+   * @param sampledBirths The cells born in the generation.
+   * @param sampledDeaths The cells that died in the generation.
+   * @param allocatedBytes The bytes allocated to step the generation, or -1 if not measured.
+   */
+  void recordSample(
+      long sampledPopulation, long sampledBirths, long sampledDeaths, long allocatedBytes) {
+    population = sampledPopulation;
+    births.add(sampledBirths);
+    deaths.add(sampledDeaths);
+    if (allocatedBytes >= 0) allocatedBytesPerGeneration = allocatedBytes;
+  }
+
+  /**
+   * Records the time to render or format a generation.
+   *
+   * @param nanos The duration of the rendering.
+   */
+  public void recordRender(long nanos) {
+    renderLatency.record(nanos);
+  }
+
+  /**
+   * Sets the gauge of the frames waiting to be rendered.
+   *
+   * @param queueDepth The supplier of the number of waiting frames.
+   */
+  public void setQueueDepthGauge(IntSupplier queueDepth) {
+    this.queueDepth = queueDepth;
+  }
+
+  @Override
+  public long getGenerations() {
+    return generations.sum();
+  }
+
+  @Override
+  public long getStepMeanNanos() {
+    return stepLatency.getMeanNanos();
+  }
+
+  @Override
+  public long getStepP50Nanos() {
+    return stepLatency.getPercentileNanos(50);
+  }
+
+  @Override
+  public long getStepP99Nanos() {
+    return stepLatency.getPercentileNanos(99);
+  }
+
+  @Override
+  public long getStepMaxNanos() {
+    return stepLatency.getMaxNanos();
+  }
+
+  @Override
+  public long getRenderCount() {
+    return renderLatency.getCount();
+  }
+
+  @Override
+  public long getRenderMeanNanos() {
+    return renderLatency.getMeanNanos();
+  }
+
+  @Override
+  public long getRenderP99Nanos() {
+    return renderLatency.getPercentileNanos(99);
+  }
+
+  /** Returns the population of the last sampled generation. */
+  @Override
+  public long getPopulation() {
+    return population;
+  }
+
+  /** Returns the births of the sampled generations. */
+  @Override
+  public long getBirths() {
+    return births.sum();
+  }
+
+  /** Returns the deaths of the sampled generations. */
+  @Override
+  public long getDeaths() {
+    return deaths.sum();
+  }
+
+  /** Returns the bytes allocated by the stepping thread in the last sampled generation. */
+  @Override
+  public long getAllocatedBytesPerGeneration() {
+    return allocatedBytesPerGeneration;
+  }
+
+  @Override
+  public int getQueueDepth() {
+    return queueDepth.getAsInt();
+  }
+
+  @Override
+  public String dump() {
+    return "generations="
+        + getGenerations()
+        + "\nstep.mean.ns="
+        + getStepMeanNanos()
+        + "\nstep.p50.ns="
+        + getStepP50Nanos()
+        + "\nstep.p99.ns="
+        + getStepP99Nanos()
+        + "\nstep.max.ns="
+        + getStepMaxNanos()
+        + "\nrender.count="
+        + getRenderCount()
+        + "\nrender.mean.ns="
+        + getRenderMeanNanos()
+        + "\nrender.p99.ns="
+        + getRenderP99Nanos()
+        + "\npopulation="
+        + getPopulation()
+        + "\nbirths="
+        + getBirths()
+        + "\ndeaths="
+        + getDeaths()
+        + "\nallocated.bytes.per.generation="
+        + getAllocatedBytesPerGeneration()
+        + "\nqueue.depth="
+        + getQueueDepth();
+  }
+
+  @Override
+  public void reset() {
+    stepLatency.reset();
+    renderLatency.reset();
+    generations.reset();
+    births.reset();
+    deaths.reset();
+  }
+}
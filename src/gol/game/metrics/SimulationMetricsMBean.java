@@ -0,0 +1,40 @@
+package gol.game.metrics;
+
+/** Management interface of the simulation metrics, published over jmx. */
+public interface SimulationMetricsMBean {
+  long getGenerations();
+
+  long getStepMeanNanos();
+
+  long getStepP50Nanos();
+
+  long getStepP99Nanos();
+
+  long getStepMaxNanos();
+
+  long getRenderCount();
+
+  long getRenderMeanNanos();
+
+  long getRenderP99Nanos();
+
+  long getPopulation();
+
+  long getBirths();
+
+  long getDeaths();
+
+  long getAllocatedBytesPerGeneration();
+
+  int getQueueDepth();
+
+  /**
+   * Returns the metrics as text, one metric per line.
+   *
+   * @return The text dump of the metrics.
+   */
+  String dump();
+
+  /** Resets the latency histograms and the counters. */
+  void reset();
+}
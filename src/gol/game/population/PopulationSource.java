@@ -0,0 +1,191 @@
+package gol.game.population;
+
+import gol.game.engine.GridWriter;
+import gol.game.engine.LifeRule;
+import gol.game.engine.RowBandStepper;
+import gol.game.snapshot.GridSnapshot;
+import gol.inputOutput.readers.PatternLoader;
+import gol.inputOutput.readers.PopulationLoader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Source of the initial generation of a game: a population string, a pattern file, a snapshot to
+ * resume or a random soup. The source can be loaded into any range of rows of the grid, so every
+ * worker of a distributed game loads its own strip from the same source. The soup generates only
+ * the rows of the range and the snapshot reads only their words, while the population and the
+ * pattern are read whole and only the cells of the range are set.
+ */
+public final class PopulationSource {
+  /** The kinds of sources. */
+  public enum Kind {
+    POPULATION,
+    PATTERN,
+    SNAPSHOT,
+    SOUP
+  }
+
+  private final Kind kind;
+  private final String value;
+  private final long seed;
+  private final double density;
+
+  /**
+   * Constructor for the source.
+   *
+   * @param kind The kind of the source.
+   * @param value The population string, or the path of the pattern or the snapshot file. The path
+   *     is read by every worker of a distributed game, so it should be absolute.
+   * @param seed The seed of the soup.
+   * @param density The probability of a cell of the soup being alive, between zero and one.
+   */
+  public PopulationSource(Kind kind, String value, long seed, double density) {
+    this.kind = kind;
+    this.value = value;
+    this.seed = seed;
+    this.density = density;
+  }
+
+  /**
+   * Loads the source into every row of the given grid, which is expected to have only dead cells.
+   *
+   * @param grid The grid where the alive cells are set.
+   * @param rule The rule of the game, which a pattern file has to follow.
+   * @param stepper The stepper that decides if the rows of a soup are filled in parallel bands.
+   * @throws IOException If the files can not be read, or the population or the pattern are not
+   *     valid. The message describes the error.
+   */
+  public void load(GridWriter grid, LifeRule rule, RowBandStepper stepper) throws IOException {
+    load(grid, 0, grid.getHeight(), rule, stepper);
+  }
+
+  /**
+   * Loads the source into the rows of the given range of the grid, which is expected to have only
+   * dead cells in them. The cells of the other rows are never set, and the population and the
+   * pattern are validated against the whole grid.
+   *
+   * @param grid The grid where the alive cells are set.
+   * @param fromRow The first loaded row, inclusive.
+   * @param toRow The last loaded row, exclusive.
+   * @param rule The rule of the game, which a pattern file has to follow.
+   * @param stepper The stepper that decides if the rows of a soup are filled in parallel bands.
+   * @throws IOException If the files can not be read, or the population or the pattern are not
+   *     valid. The message describes the error.
+   */
+  public void load(GridWriter grid, int fromRow, int toRow, LifeRule rule, RowBandStepper stepper)
+      throws IOException {
+    if (kind == Kind.SOUP) {
+      new RandomSoupGenerator(seed, density).fill(grid, fromRow, toRow, stepper);
+    } else if (kind == Kind.SNAPSHOT) {
+      loadSnapshot(grid, fromRow, toRow);
+    } else {
+      boolean wholeGrid = fromRow == 0 && toRow == grid.getHeight();
+      GridWriter rangeGrid = wholeGrid ? grid : new RowRangeWriter(grid, fromRow, toRow);
+      if (kind == Kind.PATTERN) {
+        loadPattern(rangeGrid, rule);
+      } else {
+        PopulationLoader.load(value, rangeGrid);
+      }
+    }
+  }
+
+  /**
+   * Reads the generation where the game starts, the generation of the snapshot or zero for the
+   * other sources. Only the header of the snapshot is read.
+   *
+   * @return The first generation of the game.
+   * @throws IOException If the snapshot can not be read.
+   */
+  public long readGeneration() throws IOException {
+    return kind == Kind.SNAPSHOT ? openSnapshot().getGeneration() : 0;
+  }
+
+  private GridSnapshot openSnapshot() throws IOException {
+    try {
+      return GridSnapshot.open(Paths.get(value));
+    } catch (IOException exception) {
+      String message = "The snapshot can not be resumed: " + exception.getMessage();
+      throw new IOException(message, exception);
+    }
+  }
+
+  private void loadSnapshot(GridWriter grid, int fromRow, int toRow) throws IOException {
+    GridSnapshot snapshot = openSnapshot();
+    if (snapshot.getWidth() != grid.getWidth() || snapshot.getHeight() != grid.getHeight()) {
+      throw new IOException(
+          "The snapshot grid is "
+              + snapshot.getWidth()
+              + "x"
+              + snapshot.getHeight()
+              + ", but the grid is "
+              + grid.getWidth()
+              + "x"
+              + grid.getHeight());
+    }
+    grid.copyRows(snapshot, fromRow, toRow);
+  }
+
+  private void loadPattern(GridWriter grid, LifeRule rule) throws IOException {
+    try (Reader reader =
+        new InputStreamReader(
+            Files.newInputStream(Paths.get(value)), StandardCharsets.ISO_8859_1)) {
+      PatternLoader.load(reader, grid, rule);
+    } catch (IOException exception) {
+      String message = "The pattern can not be loaded: " + exception.getMessage();
+      throw new IOException(message, exception);
+    }
+  }
+
+  public Kind getKind() {
+    return kind;
+  }
+
+  public String getValue() {
+    return value;
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  public double getDensity() {
+    return density;
+  }
+
+  /** Grid that sets only the cells of a range of rows of another grid, of the same size. */
+  private static final class RowRangeWriter implements GridWriter {
+    private final GridWriter grid;
+    private final int fromRow;
+    private final int toRow;
+
+    private RowRangeWriter(GridWriter grid, int fromRow, int toRow) {
+      this.grid = grid;
+      this.fromRow = fromRow;
+      this.toRow = toRow;
+    }
+
+    @Override
+    public void setRowWord(int rowIndex, int wordIndex, long word) {
+      if (rowIndex >= fromRow && rowIndex < toRow) grid.setRowWord(rowIndex, wordIndex, word);
+    }
+
+    @Override
+    public void setCellAlive(int rowIndex, int columnIndex) {
+      if (rowIndex >= fromRow && rowIndex < toRow) grid.setCellAlive(rowIndex, columnIndex);
+    }
+
+    @Override
+    public int getWidth() {
+      return grid.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+      return grid.getHeight();
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package gol.game.population;
+
+import gol.game.engine.GridWriter;
+import gol.game.engine.RowBandStepper;
+import java.util.SplittableRandom;
+
+/**
+ * Generator of random soups, grids where every cell is alive with the same probability. The cells
+ * are generated 64 at a time as the bits of a random word, and every row has its own random
+ * generator split from the seed in row order, so the soup of a seed is the same when the rows are
+ * filled in parallel.
+ */
+public class RandomSoupGenerator {
+  /** The bits of precision of the density, which is rounded to a multiple of 2^-16. */
+  private static final int DENSITY_BITS = 16;
+
+  private final long seed;
+  private final long densityBits;
+
+  /**
+   * Constructor for the generator.
+   *
+   * @param seed The seed of the soup.
+   * @param density The probability of a cell being alive, between zero and one.
+   */
+  public RandomSoupGenerator(long seed, double density) {
+    this.seed = seed;
+    this.densityBits = Math.round(density * (1L << DENSITY_BITS));
+  }
+
+  /**
+   * Returns a random word where every bit is one with the probability of the density. The density
+   * bits are read from the least significant one: a one bit makes the word the union with a new
+   * random word, a zero bit the intersection, which halves or completes the probability of every
+   * bit each time.
+   */
+  private static long nextWord(SplittableRandom random, long densityBits) {
+    if (densityBits == 0) return 0L;
+    if (densityBits >= 1L << DENSITY_BITS) return -1L;
+    int bit = Long.numberOfTrailingZeros(densityBits);
+    long word = random.nextLong();
+    for (bit++; bit < DENSITY_BITS; bit++) {
+      long nextRandom = random.nextLong();
+      word = ((densityBits >>> bit) & 1L) != 0 ? word | nextRandom : word & nextRandom;
+    }
+    return word;
+  }
+
+  /**
+   * Fills the given grid with the soup of the generator, replacing every cell.
+   *
+   * @param grid The grid to fill.
+   * @param stepper The stepper that decides if the rows are filled in parallel bands.
+   */
+  public void fill(GridWriter grid, RowBandStepper stepper) {
+    fill(grid, 0, grid.getHeight(), stepper);
+  }
+
+  /**
+   * Fills the rows of the given range of the grid with the soup of the generator, replacing their
+   * cells. The generators of the rows before the range are split and skipped without generating
+   * their words, so the rows are the same as in the soup of the whole grid.
+   *
+   * @param grid The grid to fill.
+   * @param fromRow The first filled row, inclusive.
+   * @param toRow The last filled row, exclusive.
+   * @param stepper The stepper that decides if the rows are filled in parallel bands.
+   */
+  public void fill(GridWriter grid, int fromRow, int toRow, RowBandStepper stepper) {
+    int wordsPerRow = (grid.getWidth() + Long.SIZE - 1) / Long.SIZE;
+    SplittableRandom seedRandom = new SplittableRandom(seed);
+    for (int rowIndex = 0; rowIndex < fromRow; rowIndex++) seedRandom.split();
+    SplittableRandom[] rowRandoms = new SplittableRandom[toRow - fromRow];
+    for (int rowIndex = 0; rowIndex < rowRandoms.length; rowIndex++) {
+      rowRandoms[rowIndex] = seedRandom.split();
+    }
+
+    stepper.updateRows(
+        rowRandoms.length,
+        grid.getWidth(),
+        (fromBandRow, toBandRow) -> {
+          for (int rowIndex = fromBandRow; rowIndex < toBandRow; rowIndex++) {
+            SplittableRandom random = rowRandoms[rowIndex];
+            for (int wordIndex = 0; wordIndex < wordsPerRow; wordIndex++) {
+              grid.setRowWord(fromRow + rowIndex, wordIndex, nextWord(random, densityBits));
+            }
+          }
+        });
+  }
+
+  /**
+   * Generates the rows of the soup of the generator as packed words, the cell of the lowest column
+   * in the lowest bit. The soup is the same that fills a grid of the same size.
+   *
+   * @param width The width of the soup.
+   * @param height The height of the soup.
+   * @return The words of every row, with the bits after the last column cleared.
+   */
+  public long[][] generateRows(int width, int height) {
+    int wordsPerRow = (width + Long.SIZE - 1) / Long.SIZE;
+    int usedBits = width & (Long.SIZE - 1);
+    long lastWordMask = usedBits == 0 ? -1L : (1L << usedBits) - 1;
+    SplittableRandom seedRandom = new SplittableRandom(seed);
+    long[][] rows = new long[height][wordsPerRow];
+    for (int rowIndex = 0; rowIndex < height; rowIndex++) {
+      SplittableRandom random = seedRandom.split();
+      for (int wordIndex = 0; wordIndex < wordsPerRow; wordIndex++) {
+        rows[rowIndex][wordIndex] = nextWord(random, densityBits);
+      }
+      rows[rowIndex][wordsPerRow - 1] &= lastWordMask;
+    }
+    return rows;
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+}
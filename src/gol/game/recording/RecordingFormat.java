@@ -0,0 +1,118 @@
+package gol.game.recording;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Layout of the recording files and the codec of their frames. The file starts with a fixed size
+ * header, like the snapshots, followed by one record per generation and, when the recording is
+ * closed, by the index of the keyframes and a footer that points to it.
+ *
+ * <p>The header has the magic number, the format version, the width, the height, the keyframe
+ * interval and the rule of the grid. A record has the generation, the kind of the frame and the
+ * number of bytes of its payload. The payload of a keyframe encodes the packed words of the
+ * generation, and the payload of a delta frame encodes the xor of its words with the words of the
+ * previous generation, so the cells that did not change are zero words. Both are run length
+ * encoded as a sequence of runs: the number of zero words, the number of literal words and the
+ * literal words. The counts are unsigned varints and every value is little endian.
+ */
+final class RecordingFormat {
+  static final int MAGIC = 0x474F4C52;
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 64;
+  static final int RULE_OFFSET = 24;
+  static final int MAX_RULE_BYTES = HEADER_BYTES - RULE_OFFSET;
+  static final int RECORD_HEADER_BYTES = Long.BYTES + 1 + Integer.BYTES;
+  static final byte KEYFRAME = 1;
+  static final byte DELTA_FRAME = 2;
+  static final int INDEX_MAGIC = 0x474F4C49;
+  static final int INDEX_ENTRY_BYTES = 2 * Long.BYTES;
+  static final int FOOTER_BYTES = 2 * Long.BYTES + Integer.BYTES;
+
+  private static final int VARINT_BITS = 7;
+  private static final int VARINT_MASK = (1 << VARINT_BITS) - 1;
+  private static final int MAX_VARINT_BYTES = 5;
+
+  private RecordingFormat() {}
+
+  static int wordsPerRow(int width) {
+    return (width + Long.SIZE - 1) / Long.SIZE;
+  }
+
+  /**
+   * Encodes the xor of the given words into the payload, which is grown when it is full.
+   *
+   * @param words The words of the generation.
+   * @param previousWords The words of the previous generation, or null for a keyframe.
+   * @param payload The buffer where the payload is appended.
+   * @return The payload buffer, a new one if it was grown.
+   */
+  static ByteBuffer encode(long[] words, long[] previousWords, ByteBuffer payload) {
+    int wordIndex = 0;
+    while (wordIndex < words.length) {
+      int zeroStart = wordIndex;
+      while (wordIndex < words.length && delta(words, previousWords, wordIndex) == 0) wordIndex++;
+      int literalStart = wordIndex;
+      while (wordIndex < words.length && delta(words, previousWords, wordIndex) != 0) wordIndex++;
+      int literalWords = wordIndex - literalStart;
+      payload = ensureRemaining(payload, 2 * MAX_VARINT_BYTES + literalWords * Long.BYTES);
+      putVarint(payload, literalStart - zeroStart);
+      putVarint(payload, literalWords);
+      for (int index = literalStart; index < wordIndex; index++) {
+        payload.putLong(delta(words, previousWords, index));
+      }
+    }
+    return payload;
+  }
+
+  /**
+   * Decodes a payload into the given words. A keyframe replaces the words, while a delta frame is
+   * xored into the words of the previous generation.
+   *
+   * @param payload The payload, from its first byte to its limit.
+   * @param keyframe If the payload is the one of a keyframe.
+   * @param words The words of the previous generation, replaced by the decoded generation.
+   */
+  static void decode(ByteBuffer payload, boolean keyframe, long[] words) {
+    if (keyframe) Arrays.fill(words, 0L);
+    int wordIndex = 0;
+    while (payload.hasRemaining()) {
+      wordIndex += getVarint(payload);
+      int literalEnd = wordIndex + getVarint(payload);
+      if (literalEnd > words.length || literalEnd < wordIndex) {
+        throw new IllegalArgumentException("The frame has more words than the grid");
+      }
+      for (; wordIndex < literalEnd; wordIndex++) words[wordIndex] ^= payload.getLong();
+    }
+  }
+
+  private static long delta(long[] words, long[] previousWords, int wordIndex) {
+    return previousWords == null ? words[wordIndex] : words[wordIndex] ^ previousWords[wordIndex];
+  }
+
+  private static ByteBuffer ensureRemaining(ByteBuffer payload, int bytes) {
+    if (payload.remaining() >= bytes) return payload;
+    int capacity = Math.max(payload.capacity() * 2, payload.position() + bytes);
+    ByteBuffer grown = ByteBuffer.allocate(capacity).order(payload.order());
+    payload.flip();
+    return grown.put(payload);
+  }
+
+  private static void putVarint(ByteBuffer buffer, int value) {
+    while ((value & ~VARINT_MASK) != 0) {
+      buffer.put((byte) ((value & VARINT_MASK) | (VARINT_MASK + 1)));
+      value >>>= VARINT_BITS;
+    }
+    buffer.put((byte) value);
+  }
+
+  private static int getVarint(ByteBuffer buffer) {
+    int value = 0;
+    for (int shift = 0; shift < MAX_VARINT_BYTES * VARINT_BITS; shift += VARINT_BITS) {
+      int part = buffer.get();
+      value |= (part & VARINT_MASK) << shift;
+      if ((part & (VARINT_MASK + 1)) == 0) return value;
+    }
+    throw new IllegalArgumentException("The frame has a count longer than an int");
+  }
+}
@@ -0,0 +1,186 @@
+package gol.game.recording;
+
+import gol.GolFrame;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Recorder that streams consecutive generations of a run to a file, as a keyframe every keyframe
+ * interval and as the run length encoded xor with the previous generation in between. A generation
+ * where few cells change takes a few bytes, and a generation can be read back by decoding at most
+ * a keyframe interval of frames. The index of the keyframes is written when the recorder is closed,
+ * and a recording that was not closed can still be replayed, its index is rebuilt by reading every
+ * record header.
+ */
+public class RunRecorder implements Closeable {
+  private static final int INITIAL_PAYLOAD_BYTES = 1 << 16;
+
+  private final FileChannel channel;
+  private final int width;
+  private final int height;
+  private final int wordsPerRow;
+  private final int keyframeInterval;
+  private final ByteBuffer recordHeader =
+      ByteBuffer.allocate(RecordingFormat.RECORD_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+  private ByteBuffer payload =
+      ByteBuffer.allocate(INITIAL_PAYLOAD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+  private long[] words;
+  private long[] previousWords;
+  private long[] keyframeGenerations = new long[16];
+  private long[] keyframeOffsets = new long[16];
+  private int keyframes;
+  private long frames;
+  private long lastGeneration;
+
+  private RunRecorder(FileChannel channel, int width, int height, int keyframeInterval) {
+    this.channel = channel;
+    this.width = width;
+    this.height = height;
+    this.wordsPerRow = RecordingFormat.wordsPerRow(width);
+    this.keyframeInterval = keyframeInterval;
+    this.words = new long[height * wordsPerRow];
+    this.previousWords = new long[height * wordsPerRow];
+  }
+
+  /**
+   * Creates the recording file, replacing any file with the same path, and writes its header.
+   *
+   * @param path The file of the recording.
+   * @param width The width of the grid.
+   * @param height The height of the grid.
+   * @param rule The rule of the grid, in the B/S notation.
+   * @param keyframeInterval The number of frames from a keyframe to the next one.
+   * @return The recorder.
+   * @throws IOException If the file can not be written.
+   */
+  public static RunRecorder create(
+      Path path, int width, int height, String rule, int keyframeInterval) throws IOException {
+    byte[] ruleBytes = rule.getBytes(StandardCharsets.US_ASCII);
+    if (ruleBytes.length > RecordingFormat.MAX_RULE_BYTES) {
+      throw new IllegalArgumentException("The rule " + rule + " does not fit in a recording");
+    }
+    FileChannel channel =
+        FileChannel.open(
+            path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE);
+    ByteBuffer header =
+        ByteBuffer.allocate(RecordingFormat.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    header.putInt(RecordingFormat.MAGIC).putInt(RecordingFormat.VERSION);
+    header.putInt(width).putInt(height).putInt(keyframeInterval).putInt(ruleBytes.length);
+    header.put(ruleBytes).clear();
+    try {
+      writeFully(channel, header);
+    } catch (IOException exception) {
+      channel.close();
+      throw exception;
+    }
+    return new RunRecorder(channel, width, height, keyframeInterval);
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) channel.write(buffer);
+  }
+
+  /**
+   * Appends the given frame, which has to be the generation after the last recorded one, or any
+   * generation for the first frame.
+   *
+   * @param frame The frame of the generation, with the size of the recording.
+   * @throws IOException If the frame can not be written.
+   */
+  public void record(GolFrame frame) throws IOException {
+    long generation = frame.getGeneration();
+    if (frames > 0 && generation != lastGeneration + 1) {
+      throw new IllegalArgumentException(
+          "The generation " + generation + " does not follow " + lastGeneration);
+    }
+    for (int rowIndex = 0; rowIndex < height; rowIndex++) {
+      int rowOffset = rowIndex * wordsPerRow;
+      for (int wordIndex = 0; wordIndex < wordsPerRow; wordIndex++) {
+        words[rowOffset + wordIndex] = frame.getRowWord(rowIndex, wordIndex);
+      }
+    }
+    boolean keyframe = frames % keyframeInterval == 0;
+    if (keyframe) addKeyframe(generation, channel.position());
+
+    payload.clear();
+    payload = RecordingFormat.encode(words, keyframe ? null : previousWords, payload);
+    payload.flip();
+    recordHeader.clear();
+    recordHeader.putLong(generation);
+    recordHeader.put(keyframe ? RecordingFormat.KEYFRAME : RecordingFormat.DELTA_FRAME);
+    recordHeader.putInt(payload.remaining()).flip();
+    writeFully(channel, recordHeader);
+    writeFully(channel, payload);
+
+    long[] recordedWords = words;
+    words = previousWords;
+    previousWords = recordedWords;
+    lastGeneration = generation;
+    frames++;
+  }
+
+  private void addKeyframe(long generation, long offset) {
+    if (keyframes == keyframeGenerations.length) {
+      keyframeGenerations = Arrays.copyOf(keyframeGenerations, keyframes * 2);
+      keyframeOffsets = Arrays.copyOf(keyframeOffsets, keyframes * 2);
+    }
+    keyframeGenerations[keyframes] = generation;
+    keyframeOffsets[keyframes] = offset;
+    keyframes++;
+  }
+
+  public long getFrames() {
+    return frames;
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  /**
+   * Returns the bytes written so far, without the index.
+   *
+   * @return The size of the recording.
+   * @throws IOException If the size can not be read.
+   */
+  public long getBytes() throws IOException {
+    return channel.position();
+  }
+
+  /** Writes the index of the keyframes and the footer, and closes the file. */
+  @Override
+  public void close() throws IOException {
+    try {
+      long indexOffset = channel.position();
+      ByteBuffer index =
+          ByteBuffer.allocate(
+                  Integer.BYTES
+                      + keyframes * RecordingFormat.INDEX_ENTRY_BYTES
+                      + RecordingFormat.FOOTER_BYTES)
+              .order(ByteOrder.LITTLE_ENDIAN);
+      index.putInt(keyframes);
+      for (int keyframe = 0; keyframe < keyframes; keyframe++) {
+        index.putLong(keyframeGenerations[keyframe]).putLong(keyframeOffsets[keyframe]);
+      }
+      index.putLong(lastGeneration).putLong(indexOffset).putInt(RecordingFormat.INDEX_MAGIC);
+      index.flip();
+      writeFully(channel, index);
+    } finally {
+      channel.close();
+    }
+  }
+}
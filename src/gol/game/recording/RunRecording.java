@@ -0,0 +1,305 @@
+package gol.game.recording;
+
+import gol.GolFrame;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Recording of a run opened for replay, which is the frame of the generation it was last moved to.
+ * Moving to a generation decodes the frames from the closest keyframe before it, or from the
+ * current generation when it is closer, so any generation of a long run is read without decoding
+ * the run from its start. The frame is reused for every generation.
+ */
+public class RunRecording implements GolFrame, Closeable {
+  private final FileChannel channel;
+  private final Path path;
+  private final int width;
+  private final int height;
+  private final int wordsPerRow;
+  private final int keyframeInterval;
+  private final String rule;
+  private final long[] keyframeGenerations;
+  private final long[] keyframeOffsets;
+  private final long lastGeneration;
+  private final long[] words;
+  private final ByteBuffer recordHeader =
+      ByteBuffer.allocate(RecordingFormat.RECORD_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+  private ByteBuffer payload = ByteBuffer.allocate(0);
+  private long generation = -1;
+  private long nextRecordOffset;
+
+  private RunRecording(
+      FileChannel channel,
+      Path path,
+      ByteBuffer header,
+      long[][] keyframeIndex,
+      long lastGeneration) {
+    this.channel = channel;
+    this.path = path;
+    this.width = header.getInt(2 * Integer.BYTES);
+    this.height = header.getInt(3 * Integer.BYTES);
+    this.keyframeInterval = header.getInt(4 * Integer.BYTES);
+    byte[] ruleBytes = new byte[header.getInt(5 * Integer.BYTES)];
+    header.get(RecordingFormat.RULE_OFFSET, ruleBytes);
+    this.rule = new String(ruleBytes, StandardCharsets.US_ASCII);
+    this.wordsPerRow = RecordingFormat.wordsPerRow(width);
+    this.keyframeGenerations = keyframeIndex[0];
+    this.keyframeOffsets = keyframeIndex[1];
+    this.lastGeneration = lastGeneration;
+    this.words = new long[height * wordsPerRow];
+  }
+
+  /**
+   * Opens the recording in the given file and moves to its first generation.
+   *
+   * @param path The file of the recording.
+   * @return The recording.
+   * @throws IOException If the file can not be read or it is not a valid recording.
+   */
+  public static RunRecording open(Path path) throws IOException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      ByteBuffer header = readHeader(channel, path);
+      long[][] keyframeIndex = new long[2][];
+      long lastGeneration = readIndex(channel, keyframeIndex);
+      if (lastGeneration < 0) lastGeneration = scanRecords(channel, keyframeIndex);
+      if (keyframeIndex[0].length == 0) {
+        throw new IOException("The recording " + path + " has no generations");
+      }
+      RunRecording recording =
+          new RunRecording(channel, path, header, keyframeIndex, lastGeneration);
+      recording.seek(recording.getFirstGeneration());
+      return recording;
+    } catch (IOException | RuntimeException exception) {
+      channel.close();
+      throw exception;
+    }
+  }
+
+  private static ByteBuffer readHeader(FileChannel channel, Path path) throws IOException {
+    ByteBuffer header =
+        ByteBuffer.allocate(RecordingFormat.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    if (channel.size() < RecordingFormat.HEADER_BYTES
+        || !readFully(channel, header, 0)
+        || header.getInt(0) != RecordingFormat.MAGIC) {
+      throw new IOException("The file " + path + " is not a run recording");
+    }
+    int version = header.getInt(Integer.BYTES);
+    if (version != RecordingFormat.VERSION) {
+      throw new IOException("The recording version " + version + " is not supported");
+    }
+    int width = header.getInt(2 * Integer.BYTES);
+    int height = header.getInt(3 * Integer.BYTES);
+    int keyframeInterval = header.getInt(4 * Integer.BYTES);
+    int ruleLength = header.getInt(5 * Integer.BYTES);
+    if (width < 1
+        || height < 1
+        || keyframeInterval < 1
+        || (long) height * RecordingFormat.wordsPerRow(width) > Integer.MAX_VALUE
+        || ruleLength < 0
+        || ruleLength > RecordingFormat.MAX_RULE_BYTES) {
+      throw new IOException("The recording " + path + " has an invalid header");
+    }
+    return header;
+  }
+
+  /**
+   * Reads the index of the keyframes that the recorder writes when it is closed.
+   *
+   * @return The last generation of the recording, or -1 if the recording has no valid index.
+   */
+  private static long readIndex(FileChannel channel, long[][] keyframeIndex) throws IOException {
+    long footerOffset = channel.size() - RecordingFormat.FOOTER_BYTES;
+    if (footerOffset < RecordingFormat.HEADER_BYTES + Integer.BYTES) return -1;
+    ByteBuffer footer =
+        ByteBuffer.allocate(RecordingFormat.FOOTER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    readFully(channel, footer, footerOffset);
+    long lastGeneration = footer.getLong(0);
+    long indexOffset = footer.getLong(Long.BYTES);
+    if (footer.getInt(2 * Long.BYTES) != RecordingFormat.INDEX_MAGIC
+        || indexOffset < RecordingFormat.HEADER_BYTES
+        || indexOffset > footerOffset - Integer.BYTES) {
+      return -1;
+    }
+    ByteBuffer index =
+        ByteBuffer.allocate((int) Math.min(footerOffset - indexOffset, Integer.MAX_VALUE))
+            .order(ByteOrder.LITTLE_ENDIAN);
+    readFully(channel, index, indexOffset);
+    int keyframes = index.getInt();
+    long entryBytes = (long) keyframes * RecordingFormat.INDEX_ENTRY_BYTES;
+    if (keyframes < 0 || entryBytes != index.remaining()) return -1;
+    keyframeIndex[0] = new long[keyframes];
+    keyframeIndex[1] = new long[keyframes];
+    for (int keyframe = 0; keyframe < keyframes; keyframe++) {
+      keyframeIndex[0][keyframe] = index.getLong();
+      keyframeIndex[1][keyframe] = index.getLong();
+    }
+    return lastGeneration;
+  }
+
+  /**
+   * Rebuilds the index of a recording that was not closed, reading the header of every record.
+   * The records after the last complete one are ignored.
+   *
+   * @return The generation of the last complete record.
+   */
+  private static long scanRecords(FileChannel channel, long[][] keyframeIndex)
+      throws IOException {
+    ByteBuffer recordHeader =
+        ByteBuffer.allocate(RecordingFormat.RECORD_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    long[] generations = new long[16];
+    long[] offsets = new long[16];
+    int keyframes = 0;
+    long lastGeneration = -1;
+    long offset = RecordingFormat.HEADER_BYTES;
+    long size = channel.size();
+    while (readFully(channel, recordHeader.clear(), offset)) {
+      long recordGeneration = recordHeader.getLong(0);
+      byte kind = recordHeader.get(Long.BYTES);
+      int payloadBytes = recordHeader.getInt(Long.BYTES + 1);
+      long recordEnd = offset + RecordingFormat.RECORD_HEADER_BYTES + payloadBytes;
+      boolean validKind = kind == RecordingFormat.KEYFRAME || kind == RecordingFormat.DELTA_FRAME;
+      if (payloadBytes < 0 || recordEnd > size || !validKind) break;
+      if (kind == RecordingFormat.KEYFRAME) {
+        if (keyframes == generations.length) {
+          generations = Arrays.copyOf(generations, keyframes * 2);
+          offsets = Arrays.copyOf(offsets, keyframes * 2);
+        }
+        generations[keyframes] = recordGeneration;
+        offsets[keyframes] = offset;
+        keyframes++;
+      }
+      if (keyframes > 0) lastGeneration = recordGeneration;
+      offset = recordEnd;
+    }
+    keyframeIndex[0] = Arrays.copyOf(generations, keyframes);
+    keyframeIndex[1] = Arrays.copyOf(offsets, keyframes);
+    return lastGeneration;
+  }
+
+  /**
+   * Reads the buffer from its start to its limit at the given offset of the file, and flips it.
+   *
+   * @return True if the buffer was filled, false if the file ended before.
+   */
+  private static boolean readFully(FileChannel channel, ByteBuffer buffer, long offset)
+      throws IOException {
+    buffer.position(0);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, offset + buffer.position()) < 0) return false;
+    }
+    buffer.flip();
+    return true;
+  }
+
+  /**
+   * Moves the frame to the given generation, decoding the frames from the closest keyframe before
+   * it, or from the current generation if it is closer.
+   *
+   * @param targetGeneration The generation to move to, between the first and the last generation.
+   * @throws IOException If the records can not be read or they are not valid.
+   */
+  public void seek(long targetGeneration) throws IOException {
+    if (targetGeneration < getFirstGeneration() || targetGeneration > lastGeneration) {
+      throw new IllegalArgumentException(
+          "The generation "
+              + targetGeneration
+              + " is not between "
+              + getFirstGeneration()
+              + " and "
+              + lastGeneration);
+    }
+    int keyframe = Arrays.binarySearch(keyframeGenerations, targetGeneration);
+    if (keyframe < 0) keyframe = -keyframe - 2;
+    if (generation < keyframeGenerations[keyframe] || generation > targetGeneration) {
+      nextRecordOffset = keyframeOffsets[keyframe];
+    }
+    try {
+      while (generation != targetGeneration) readRecord();
+    } catch (RuntimeException exception) {
+      generation = -1;
+      throw new IOException("The recording " + path + " has an invalid frame", exception);
+    } catch (IOException exception) {
+      generation = -1;
+      throw exception;
+    }
+  }
+
+  private void readRecord() throws IOException {
+    if (!readFully(channel, recordHeader.clear(), nextRecordOffset)) {
+      throw new EOFException("The recording " + path + " ends before its last generation");
+    }
+    long recordGeneration = recordHeader.getLong(0);
+    boolean keyframe = recordHeader.get(Long.BYTES) == RecordingFormat.KEYFRAME;
+    int payloadBytes = recordHeader.getInt(Long.BYTES + 1);
+    if (!keyframe && recordGeneration != generation + 1) {
+      throw new IOException(
+          "The recording " + path + " misses the generation " + (generation + 1));
+    }
+    if (payload.capacity() < payloadBytes) {
+      payload = ByteBuffer.allocate(payloadBytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+    payload.clear().limit(payloadBytes);
+    long payloadOffset = nextRecordOffset + RecordingFormat.RECORD_HEADER_BYTES;
+    if (!readFully(channel, payload, payloadOffset)) {
+      throw new EOFException("The recording " + path + " ends before its last generation");
+    }
+    RecordingFormat.decode(payload, keyframe, words);
+    generation = recordGeneration;
+    nextRecordOffset = payloadOffset + payloadBytes;
+  }
+
+  @Override
+  public boolean isCellAlive(int rowIndex, int columnIndex) {
+    return (getRowWord(rowIndex, columnIndex / Long.SIZE) & (1L << columnIndex)) != 0;
+  }
+
+  @Override
+  public long getRowWord(int rowIndex, int wordIndex) {
+    return words[rowIndex * wordsPerRow + wordIndex];
+  }
+
+  @Override
+  public long getGeneration() {
+    return generation;
+  }
+
+  public long getFirstGeneration() {
+    return keyframeGenerations[0];
+  }
+
+  public long getLastGeneration() {
+    return lastGeneration;
+  }
+
+  public int getKeyframeInterval() {
+    return keyframeInterval;
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  public String getRule() {
+    return rule;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
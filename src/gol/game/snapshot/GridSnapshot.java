@@ -0,0 +1,207 @@
+package gol.game.snapshot;
+
+import gol.GolFrame;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary snapshot of a generation, stored in a file with a fixed size header followed by the bit
+ * packed rows. The file is read and written through memory mapped regions, so the cells never go
+ * through heap buffers and the file can be larger than the heap.
+ *
+ * <p>The header has the magic number, the format version, the width, the height, the generation
+ * and the rule of the grid. Every row is stored as 64 bit little endian words, the cell of the
+ * lowest column in the lowest bit, the same layout of {@link GolFrame#getRowWord(int, int)}.
+ */
+public class GridSnapshot implements GolFrame {
+  private static final int MAGIC = 0x474F4C53;
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 64;
+  private static final int RULE_OFFSET = 28;
+  private static final int MAX_RULE_BYTES = HEADER_BYTES - RULE_OFFSET;
+  private static final long MAX_REGION_BYTES = 1L << 30;
+
+  private final int width;
+  private final int height;
+  private final long generation;
+  private final String rule;
+  private final int wordsPerRow;
+  private final int rowsPerRegion;
+  private final MappedByteBuffer[] regions;
+
+  private GridSnapshot(
+      int width, int height, long generation, String rule, MappedByteBuffer[] regions) {
+    this.width = width;
+    this.height = height;
+    this.generation = generation;
+    this.rule = rule;
+    this.wordsPerRow = wordsPerRow(width);
+    this.rowsPerRegion = rowsPerRegion(wordsPerRow);
+    this.regions = regions;
+  }
+
+  private static int wordsPerRow(int width) {
+    return (width + Long.SIZE - 1) / Long.SIZE;
+  }
+
+  /** Returns the rows of a mapped region, which has to stay under the limit of a mapping. */
+  private static int rowsPerRegion(int wordsPerRow) {
+    return (int) Math.max(1, MAX_REGION_BYTES / ((long) wordsPerRow * Long.BYTES));
+  }
+
+  private static long regionOffset(int regionIndex, int rowsPerRegion, int wordsPerRow) {
+    return HEADER_BYTES + (long) regionIndex * rowsPerRegion * wordsPerRow * Long.BYTES;
+  }
+
+  private static long regionBytes(int firstRow, int height, int rowsPerRegion, int wordsPerRow) {
+    return (long) Math.min(rowsPerRegion, height - firstRow) * wordsPerRow * Long.BYTES;
+  }
+
+  /**
+   * Writes the given frame as a snapshot. The snapshot is written to a temporary file that
+   * replaces the given file when it is complete, so a run stopped while writing keeps the previous
+   * snapshot.
+   *
+   * @param frame The generation to write.
+   * @param rule The rule of the grid, in the B/S notation.
+   * @param path The file of the snapshot.
+   * @throws IOException If the file can not be written.
+   */
+  public static void write(GolFrame frame, String rule, Path path) throws IOException {
+    byte[] ruleBytes = rule.getBytes(StandardCharsets.US_ASCII);
+    if (ruleBytes.length > MAX_RULE_BYTES) {
+      throw new IllegalArgumentException("The rule " + rule + " does not fit in a snapshot");
+    }
+    int width = frame.getWidth();
+    int height = frame.getHeight();
+    int wordsPerRow = wordsPerRow(width);
+    int rowsPerRegion = rowsPerRegion(wordsPerRow);
+    Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+
+    try (FileChannel channel =
+        FileChannel.open(
+            temporaryPath,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+      header.order(ByteOrder.LITTLE_ENDIAN);
+      header.putInt(MAGIC).putInt(VERSION).putInt(width).putInt(height);
+      header.putLong(frame.getGeneration()).putInt(ruleBytes.length).put(ruleBytes);
+      header.force();
+
+      for (int firstRow = 0, regionIndex = 0;
+          firstRow < height;
+          firstRow += rowsPerRegion, regionIndex++) {
+        MappedByteBuffer region =
+            channel.map(
+                FileChannel.MapMode.READ_WRITE,
+                regionOffset(regionIndex, rowsPerRegion, wordsPerRow),
+                regionBytes(firstRow, height, rowsPerRegion, wordsPerRow));
+        region.order(ByteOrder.LITTLE_ENDIAN);
+        int lastRow = Math.min(firstRow + rowsPerRegion, height);
+        for (int rowIndex = firstRow; rowIndex < lastRow; rowIndex++) {
+          for (int wordIndex = 0; wordIndex < wordsPerRow; wordIndex++) {
+            region.putLong(frame.getRowWord(rowIndex, wordIndex));
+          }
+        }
+        region.force();
+      }
+    }
+    Files.move(
+        temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Opens the snapshot in the given file. The rows are mapped and read when they are asked, the
+   * file is not loaded.
+   *
+   * @param path The file of the snapshot.
+   * @return The snapshot.
+   * @throws IOException If the file can not be read or it is not a valid snapshot.
+   */
+  public static GridSnapshot open(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_BYTES) {
+        throw new IOException("The file " + path + " is not a grid snapshot");
+      }
+      MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+      header.order(ByteOrder.LITTLE_ENDIAN);
+      if (header.getInt() != MAGIC) {
+        throw new IOException("The file " + path + " is not a grid snapshot");
+      }
+      int version = header.getInt();
+      if (version != VERSION) {
+        throw new IOException("The snapshot version " + version + " is not supported");
+      }
+      int width = header.getInt();
+      int height = header.getInt();
+      long generation = header.getLong();
+      int ruleLength = header.getInt();
+      if (width < 1 || height < 1 || ruleLength < 0 || ruleLength > MAX_RULE_BYTES) {
+        throw new IOException("The snapshot " + path + " has an invalid header");
+      }
+      byte[] ruleBytes = new byte[ruleLength];
+      header.get(ruleBytes);
+
+      int wordsPerRow = wordsPerRow(width);
+      int rowsPerRegion = rowsPerRegion(wordsPerRow);
+      long expectedSize = HEADER_BYTES + (long) height * wordsPerRow * Long.BYTES;
+      if (channel.size() != expectedSize) {
+        throw new IOException(
+            "The snapshot " + path + " has " + channel.size() + " bytes, " + expectedSize
+                + " expected");
+      }
+      MappedByteBuffer[] regions = new MappedByteBuffer[(height - 1) / rowsPerRegion + 1];
+      for (int regionIndex = 0; regionIndex < regions.length; regionIndex++) {
+        regions[regionIndex] =
+            channel.map(
+                FileChannel.MapMode.READ_ONLY,
+                regionOffset(regionIndex, rowsPerRegion, wordsPerRow),
+                regionBytes(regionIndex * rowsPerRegion, height, rowsPerRegion, wordsPerRow));
+        regions[regionIndex].order(ByteOrder.LITTLE_ENDIAN);
+      }
+      String rule = new String(ruleBytes, StandardCharsets.US_ASCII);
+      return new GridSnapshot(width, height, generation, rule, regions);
+    }
+  }
+
+  @Override
+  public boolean isCellAlive(int rowIndex, int columnIndex) {
+    return (getRowWord(rowIndex, columnIndex / Long.SIZE) & (1L << columnIndex)) != 0;
+  }
+
+  @Override
+  public long getRowWord(int rowIndex, int wordIndex) {
+    int rowInRegion = rowIndex % rowsPerRegion;
+    int byteIndex = (rowInRegion * wordsPerRow + wordIndex) * Long.BYTES;
+    return regions[rowIndex / rowsPerRegion].getLong(byteIndex);
+  }
+
+  @Override
+  public long getGeneration() {
+    return generation;
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  public String getRule() {
+    return rule;
+  }
+}
@@ -1,29 +1,159 @@
 package gol.game.validations;
 
+import gol.game.constants.GameValues;
 import gol.game.constants.ValidValues;
+import gol.game.distributed.DistributedAddress;
+import gol.game.engine.GridBoundary;
+import gol.game.engine.LifeRule;
+import gol.game.snapshot.GridSnapshot;
 import gol.inputOutput.printers.ErrorPrinter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 /** Class with the methods for validating the argument values. */
 public class ArgumentValidator {
   private ArgumentValidator() {}
 
   /**
-   * Method for validating all the game arguments. Prints if any validation goes wrong.
+   * Method for validating all the game arguments. Prints if any validation goes wrong. The
+   * population is validated while it is loaded into the grid.
    *
    * @param width The width argument value of the grid.
    * @param height The height argument value of the grid.
    * @param generations The generations argument value.
    * @param speed The speed argument value.
-   * @param population The population argument value.
    * @return The boolean result of the validation, true if the validation went fine, false if not.
    */
-  public static boolean validateGameArguments(
-      int width, int height, int generations, int speed, String population) {
+  public static boolean validateGameArguments(int width, int height, int generations, int speed) {
     return (validateWidth(width)
         && validateHeight(height)
         && validateGenerations(generations)
-        && validateSpeed(speed)
-        && isValidPopulation(population, width, height));
+        && validateSpeed(speed));
+  }
+
+  /**
+   * Method for validating all the game arguments of the headless mode. The grid sides are not
+   * limited to the sizes of the displays, and the generations have to be finite. The speed is not
+   * validated, since the generations are not displayed. Prints if any validation goes wrong. The
+   * population is validated while it is loaded into the grid.
+   *
+   * @param width The width argument value of the grid.
+   * @param height The height argument value of the grid.
+   * @param generations The generations argument value.
+   * @param maxSide The largest width and height of the engine.
+   * @return The boolean result of the validation, true if the validation went fine, false if not.
+   */
+  public static boolean validateHeadlessArguments(
+      int width, int height, int generations, int maxSide) {
+    return (validateHeadlessSide("width", width, maxSide)
+        && validateHeadlessSide("height", height, maxSide)
+        && validateHeadlessGenerations(generations));
+  }
+
+  /**
+   * Validates if the given arguments meet the requirements of the census mode, which searches
+   * random soups of the given size and drops the soups that do not stabilise in the generations.
+   *
+   * @param width The width argument value of the soups.
+   * @param height The height argument value of the soups.
+   * @param generations The generations argument value.
+   * @param population The population argument value, which has to be random.
+   * @param soups The number of soups to search.
+   * @param resume The snapshot argument value, which has to be empty.
+   * @param pattern The pattern argument value, which has to be empty.
+   * @return The boolean result of the validation, true if the validation went fine, false if not.
+   */
+  public static boolean validateCensusArguments(
+      int width,
+      int height,
+      int generations,
+      String population,
+      int soups,
+      String resume,
+      String pattern) {
+    if (width < 1
+        || height < 1
+        || width > GameValues.CENSUS_MAX_SIDE
+        || height > GameValues.CENSUS_MAX_SIDE) {
+      String errorMessage =
+          "The width and height values have to be between 1 and "
+              + GameValues.CENSUS_MAX_SIDE
+              + " in census mode, but "
+              + width
+              + " and "
+              + height
+              + " given";
+      ErrorPrinter.printException(errorMessage);
+      return false;
+    } else if (generations < 1) {
+      String errorMessage =
+          "The generations value has to be greater than zero in census mode, but "
+              + generations
+              + " given";
+      ErrorPrinter.printException(errorMessage);
+      return false;
+    } else if (soups < 1) {
+      ErrorPrinter.printException(
+          "The soups value has to be greater than zero, but " + soups + " given");
+      return false;
+    } else if (!GameValues.RANDOM_POPULATION.equals(population)
+        || !resume.isEmpty()
+        || !pattern.isEmpty()) {
+      ErrorPrinter.printException(
+          "The census mode only searches random soups, the population has to be "
+              + GameValues.RANDOM_POPULATION);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Validates if the given grid side meets the requirements of the headless mode. The engines that
+   * store the cells packed take larger sides than the rest.
+   *
+   * @param sideName The name of the side, width or height.
+   * @param side The side argument value of the grid.
+   * @param maxSide The largest side of the engine.
+   * @return The boolean result of the validation, true if the validation went fine, false if not.
+   */
+  public static boolean validateHeadlessSide(String sideName, int side, int maxSide) {
+    if (side >= 1 && side <= maxSide) {
+      return true;
+    } else {
+      String errorMessage =
+          "The "
+              + sideName
+              + " value has to be between 1 and "
+              + maxSide
+              + " in headless mode, but "
+              + side
+              + " given";
+      ErrorPrinter.printException(errorMessage);
+      return false;
+    }
+  }
+
+  /**
+   * Validates if the given generations meets the requirements of the headless mode, where the run
+   * has to end.
+   *
+   * @param generations The generations argument value.
+   * @return The boolean result of the validation, true if the validation went fine, false if not.
+   */
+  public static boolean validateHeadlessGenerations(int generations) {
+    if (generations >= 1) {
+      return true;
+    } else {
+      String errorMessage =
+          "The generations value has to be greater than zero in headless mode, but "
+              + generations
+              + " given";
+      ErrorPrinter.printException(errorMessage);
+      return false;
+    }
   }
 
   /**
@@ -96,54 +226,529 @@ public class ArgumentValidator {
   }
 
   /**
-   * Method for validating if the population value meets the requirements for the population.
+   * Validates if the given parallelism meets the given requirements for its value.
    *
-   * @param population The string value for the population.
-   * @param width The value for the grid width.
-   * @param height The value for the grid height.
-   * @return The boolean value of the validation. If true, the validation went fine, if not, the
-   *     validation went wrong.
+   * @param parallelism The number of threads that evolve the grid.
+   * @param parallelThreshold The number of cells below which a grid or a band is not split.
+   * @return The boolean result of the validation, true if the validation went fine, false if not.
    */
-  public static boolean isValidPopulation(String population, int width, int height) {
-    if (countCharRepetitions(population, '#') + 1 > height) {
-      ErrorPrinter.printException("Invalid population, it has more rows that the square height");
+  public static boolean validateParallelism(int parallelism, int parallelThreshold) {
+    int processors = Runtime.getRuntime().availableProcessors();
+    if (parallelThreshold < 1) {
+      String errorMessage =
+          "The parallel threshold has to be greater than zero, but " + parallelThreshold + " given";
+      ErrorPrinter.printException(errorMessage);
+      return false;
+    } else if (parallelism >= 1 && parallelism <= processors) {
+      return true;
+    } else {
+      String errorMessage =
+          "The parallelism value has to be between 1 and "
+              + processors
+              + ", but "
+              + parallelism
+              + " given";
+      ErrorPrinter.printException(errorMessage);
       return false;
     }
-    String[] populationArr = population.split("#");
-    for (String rowPopulation : populationArr) {
-      if (!isValidRowPopulation(rowPopulation, width)) {
-        return false;
-      }
+  }
+
+  /**
+   * Validates if the given distributed arguments meet the requirements of a distributed grid. Every
+   * worker evolves a strip of at least one row with the kernel of the engine, so there can not be
+   * more workers than rows and the workers replace the parallel row bands.
+   *
+   * @param workers The number of workers, zero if the grid is not distributed.
+   * @param address The address of the coordinator, as host and port or only the port.
+   * @param engine The engine argument value.
+   * @param height The height argument value of the grid.
+   * @param parallelism The parallelism argument value.
+   * @return The boolean result of the validation, true if the validation went fine, false if not.
+   */
+  public static boolean validateDistributed(
+      int workers, String address, String engine, int height, int parallelism) {
+    int maxWorkers = Math.min(height, GameValues.MAX_WORKERS);
+    if (workers < 0 || workers > maxWorkers) {
+      String errorMessage =
+          "The workers value has to be between 0 and " + maxWorkers + ", but " + workers + " given";
+      ErrorPrinter.printException(errorMessage);
+      return false;
+    } else if (!validateAddress(address)) {
+      return false;
+    } else if (workers == 0) {
+      return true;
+    } else if (!containsValue(engine, ValidValues.VALID_DISTRIBUTED_ENGINE_VALUES)) {
+      String errorMessage =
+          "The distributed workers are only available for the "
+              + String.join(", ", ValidValues.VALID_DISTRIBUTED_ENGINE_VALUES)
+              + " engines";
+      ErrorPrinter.printException(errorMessage);
+      return false;
+    } else if (parallelism != 1) {
+      ErrorPrinter.printException("The parallelism can not be combined with distributed workers");
+      return false;
     }
     return true;
   }
 
-  private static int countCharRepetitions(String string, char character) {
-    int counter = 0;
-    for (int i = 0; i < string.length(); i++) {
-      if (string.charAt(i) == character) counter++;
+  /**
+   * Validates if the given address of a worker has a valid port.
+   *
+   * @param address The address of the coordinator, as host and port or only the port.
+   * @return The boolean result of the validation, true if the validation went fine, false if not.
+   */
+  public static boolean validateAddress(String address) {
+    if (DistributedAddress.isValid(address)) return true;
+    ErrorPrinter.printException(
+        "The address value has to be a port or a host and a port, but " + address + " given");
+    return false;
+  }
+
+  /**
+   * Validates if the given density percentage meets the given requirements for its value.
+   *
+   * @param density The percentage of alive cells of the random population.
+   * @return The boolean result of the validation, true if the validation went fine, false if not.
+   */
+  public static boolean validateDensity(int density) {
+    if (density >= 0 && density <= 100) {
+      return true;
+    } else {
+      String errorMessage =
+          "The density value has to be between 0 and 100, but " + density + " given";
+      ErrorPrinter.printException(errorMessage);
+      return false;
     }
-    return counter;
   }
 
   /**
-   * Validates if the given row population is valid.
+   * Validates if the given lookahead meets the given requirements for its value. The lookahead is
+   * only used by the displays.
    *
-   * @param rowPopulation The string value for the row population.
-   * @param width The width value for the grid width.
-   * @return The boolean value of the validation. If true, the validation went fine, if not, the
-   *     validation went wrong.
+   * @param lookahead The number of generations computed ahead of the display.
+   * @param headless If the game runs in headless mode.
+   * @return The boolean result of the validation, true if the validation went fine, false if not.
    */
-  private static boolean isValidRowPopulation(String rowPopulation, int width) {
-    if (rowPopulation.length() > width) {
-      ErrorPrinter.printException("Invalid population, it has more columns than the grid width");
+  public static boolean validateLookahead(int lookahead, boolean headless) {
+    if (lookahead < 0 || lookahead > GameValues.MAX_LOOKAHEAD) {
+      String errorMessage =
+          "The lookahead value has to be between 0 and "
+              + GameValues.MAX_LOOKAHEAD
+              + ", but "
+              + lookahead
+              + " given";
+      ErrorPrinter.printException(errorMessage);
+      return false;
+    } else if (lookahead > 0 && headless) {
+      ErrorPrinter.printException("The lookahead is not available in headless mode");
       return false;
     }
-    for (int i = 0; i < rowPopulation.length(); i++) {
-      if (!(rowPopulation.charAt(i) == '1' || rowPopulation.charAt(i) == '0')) {
-        ErrorPrinter.printException("Invalid population, it has values different than zero or one");
-        return false;
-      }
+    return true;
+  }
+
+  /**
+   * Validates if the given metrics value is on or off and if the seconds between the dumps of the
+   * metrics are in range. The metrics can only be dumped when they are on.
+   *
+   * @param metrics The metrics argument value.
+   * @param dumpSeconds The seconds between the dumps, zero for no dumps.
+   * @return The boolean result of the validation, true if the validation went fine, false if not.
+   */
+  public static boolean validateMetrics(String metrics, int dumpSeconds) {
+    if (!containsValue(metrics, ValidValues.VALID_METRICS_VALUES)) {
+      String errorMessage =
+          "The metrics value has to be one of "
+              + String.join(", ", ValidValues.VALID_METRICS_VALUES)
+              + ", but "
+              + metrics
+              + " given";
+      ErrorPrinter.printException(errorMessage);
+      return false;
+    } else if (dumpSeconds < 0 || dumpSeconds > GameValues.MAX_METRICS_DUMP_SECONDS) {
+      String errorMessage =
+          "The metrics dump seconds have to be between 0 and "
+              + GameValues.MAX_METRICS_DUMP_SECONDS
+              + ", but "
+              + dumpSeconds
+              + " given";
+      ErrorPrinter.printException(errorMessage);
+      return false;
+    } else if (dumpSeconds > 0 && GameValues.METRICS_OFF.equals(metrics)) {
+      ErrorPrinter.printException("The metrics can only be dumped when they are on");
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Validates if the given engine name is one of the available engines.
+   *
+   * @param engine The engine argument value.
+   * @return The boolean result of the validation, true if the validation went fine, false if not.
+   */
+  public static boolean validateEngine(String engine) {
+    if (containsValue(engine, ValidValues.VALID_ENGINE_VALUES)) {
+      return true;
+    } else {
+      String errorMessage =
+          "The engine value has to be one of "
+              + String.join(", ", ValidValues.VALID_ENGINE_VALUES)
+              + ", but "
+              + engine
+              + " given";
+      ErrorPrinter.printException(errorMessage);
+      return false;
+    }
+  }
+
+  /**
+   * Validates if the given display name is one of the available displays.
+   *
+   * @param display The display argument value.
+   * @return The boolean result of the validation, true if the validation went fine, false if not.
+   */
+  public static boolean validateDisplay(String display) {
+    if (containsValue(display, ValidValues.VALID_DISPLAY_VALUES)) {
+      return true;
+    } else {
+      String errorMessage =
+          "The display value has to be one of "
+              + String.join(", ", ValidValues.VALID_DISPLAY_VALUES)
+              + ", but "
+              + display
+              + " given";
+      ErrorPrinter.printException(errorMessage);
+      return false;
+    }
+  }
+
+  /**
+   * Validates if the given mode name is one of the run modes.
+   *
+   * @param mode The mode argument value.
+   * @return The boolean result of the validation, true if the validation went fine, false if not.
+   */
+  public static boolean validateMode(String mode) {
+    if (containsValue(mode, ValidValues.VALID_MODE_VALUES)) {
+      return true;
+    } else {
+      String errorMessage =
+          "The mode value has to be one of "
+              + String.join(", ", ValidValues.VALID_MODE_VALUES)
+              + ", but "
+              + mode
+              + " given";
+      ErrorPrinter.printException(errorMessage);
+      return false;
+    }
+  }
+
+  /**
+   * Validates if the given snapshot file can be resumed with the given grid size and rule.
+   *
+   * @param resume The path of the snapshot file.
+   * @param width The width argument value of the grid.
+   * @param height The height argument value of the grid.
+   * @param rule The rule argument value, which has to be valid.
+   * @return The boolean result of the validation, true if the validation went fine, false if not.
+   */
+  public static boolean validateResume(String resume, int width, int height, String rule) {
+    GridSnapshot snapshot;
+    try {
+      snapshot = GridSnapshot.open(Paths.get(resume));
+    } catch (IOException | InvalidPathException exception) {
+      ErrorPrinter.printException("The snapshot can not be resumed: " + exception.getMessage());
+      return false;
+    }
+    if (snapshot.getWidth() != width || snapshot.getHeight() != height) {
+      String errorMessage =
+          "The snapshot grid is "
+              + snapshot.getWidth()
+              + "x"
+              + snapshot.getHeight()
+              + ", but the grid is "
+              + width
+              + "x"
+              + height;
+      ErrorPrinter.printException(errorMessage);
+      return false;
+    }
+    LifeRule snapshotRule;
+    try {
+      snapshotRule = LifeRule.parse(snapshot.getRule());
+    } catch (IllegalArgumentException exception) {
+      ErrorPrinter.printException("The snapshot rule " + snapshot.getRule() + " is not supported");
+      return false;
+    }
+    if (!snapshotRule.equals(LifeRule.parse(rule))) {
+      String errorMessage =
+          "The snapshot rule " + snapshotRule + " is not the rule " + rule + " of the game";
+      ErrorPrinter.printException(errorMessage);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Validates if the given pattern file can be read. The pattern can not be combined with a
+   * resumed snapshot, which has its own population.
+   *
+   * @param pattern The path of the pattern file.
+   * @param resume The path of the resumed snapshot, empty if there is none.
+   * @return The boolean result of the validation, true if the validation went fine, false if not.
+   */
+  public static boolean validatePattern(String pattern, String resume) {
+    if (!resume.isEmpty()) {
+      ErrorPrinter.printException("The pattern can not be used when resuming a snapshot");
+      return false;
+    }
+    Path patternPath;
+    try {
+      patternPath = Paths.get(pattern);
+    } catch (InvalidPathException exception) {
+      ErrorPrinter.printException("The pattern path " + pattern + " is not valid");
+      return false;
+    }
+    if (!Files.isRegularFile(patternPath) || !Files.isReadable(patternPath)) {
+      ErrorPrinter.printException("The pattern file " + pattern + " can not be read");
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Validates if the given mapped file can back the grid. Only the off-heap engine maps its grid,
+   * and the file is created, so its directory has to exist.
+   *
+   * @param mappedFile The path of the mapped file, empty if the grid is not mapped.
+   * @param engine The engine argument value.
+   * @return The boolean result of the validation, true if the validation went fine, false if not.
+   */
+  public static boolean validateMappedFile(String mappedFile, String engine) {
+    if (mappedFile.isEmpty()) return true;
+    if (!GameValues.OFF_HEAP_ENGINE.equals(engine)) {
+      ErrorPrinter.printException(
+          "The mapped file can only be used with the " + GameValues.OFF_HEAP_ENGINE + " engine");
+      return false;
+    }
+    Path mappedPath;
+    try {
+      mappedPath = Paths.get(mappedFile).toAbsolutePath();
+    } catch (InvalidPathException exception) {
+      ErrorPrinter.printException("The mapped file path " + mappedFile + " is not valid");
+      return false;
+    }
+    if (Files.isDirectory(mappedPath) || !Files.isDirectory(mappedPath.getParent())) {
+      ErrorPrinter.printException("The mapped file " + mappedFile + " can not be created");
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Validates if the given recording values meet the requirements. The runs are only recorded in
+   * headless mode, and the recording file is created, so its directory has to exist. The recorded
+   * generations are kept in one array of words, so the words of the grid have to fit in it.
+   *
+   * @param recording The path of the recording file, empty if the run is not recorded.
+   * @param keyframeInterval The number of recorded generations from a keyframe to the next one.
+   * @param headless If the game runs in headless mode.
+   * @param width The width of the grid.
+   * @param height The height of the grid.
+   * @return The boolean result of the validation, true if the validation went fine, false if not.
+   */
+  public static boolean validateRecording(
+      String recording, int keyframeInterval, boolean headless, int width, int height) {
+    if (keyframeInterval < 1) {
+      String errorMessage =
+          "The keyframe interval has to be greater than zero, but " + keyframeInterval + " given";
+      ErrorPrinter.printException(errorMessage);
+      return false;
+    } else if (recording.isEmpty()) {
+      return true;
+    } else if (!headless) {
+      ErrorPrinter.printException("The run can only be recorded in headless mode");
+      return false;
+    } else if ((long) height * ((width + Long.SIZE - 1) / Long.SIZE) > Integer.MAX_VALUE) {
+      ErrorPrinter.printException(
+          "The grid of " + width + "x" + height + " is too large to be recorded");
+      return false;
+    }
+    Path recordingPath;
+    try {
+      recordingPath = Paths.get(recording).toAbsolutePath();
+    } catch (InvalidPathException exception) {
+      ErrorPrinter.printException("The recording path " + recording + " is not valid");
+      return false;
+    }
+    if (Files.isDirectory(recordingPath) || !Files.isDirectory(recordingPath.getParent())) {
+      ErrorPrinter.printException("The recording " + recording + " can not be created");
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Validates if the given replay range is inside the recorded generations.
+   *
+   * @param firstGeneration The recorded generation where the replay starts.
+   * @param generations The number of generations to replay.
+   * @param firstRecorded The first recorded generation.
+   * @param lastRecorded The last recorded generation.
+   * @return The boolean result of the validation, true if the validation went fine, false if not.
+   */
+  public static boolean validateReplay(
+      long firstGeneration, long generations, long firstRecorded, long lastRecorded) {
+    if (firstGeneration < firstRecorded || firstGeneration > lastRecorded) {
+      String errorMessage =
+          "The first replayed generation has to be between "
+              + firstRecorded
+              + " and "
+              + lastRecorded
+              + ", but "
+              + firstGeneration
+              + " given";
+      ErrorPrinter.printException(errorMessage);
+      return false;
+    }
+    long maxGenerations = Math.min(lastRecorded - firstGeneration + 1, Integer.MAX_VALUE);
+    if (generations < 1 || generations > maxGenerations) {
+      String errorMessage =
+          "The replayed generations have to be between 1 and "
+              + maxGenerations
+              + ", but "
+              + generations
+              + " given";
+      ErrorPrinter.printException(errorMessage);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Validates if the given checkpoint values meet the requirements. The snapshots are only written
+   * in headless mode, and the interval needs a snapshot file.
+   *
+   * @param checkpoint The path of the snapshot file, empty if there is no checkpoint.
+   * @param checkpointInterval The generations between snapshots, zero for only the last one.
+   * @param headless If the game runs in headless mode.
+   * @return The boolean result of the validation, true if the validation went fine, false if not.
+   */
+  public static boolean validateCheckpoint(
+      String checkpoint, int checkpointInterval, boolean headless) {
+    if (checkpointInterval < 0) {
+      String errorMessage =
+          "The checkpoint interval has to be zero or greater than zero, but "
+              + checkpointInterval
+              + " given";
+      ErrorPrinter.printException(errorMessage);
+      return false;
+    } else if (!checkpoint.isEmpty() && !headless) {
+      ErrorPrinter.printException("The checkpoint is only available in headless mode");
+      return false;
+    } else if (checkpoint.isEmpty() && checkpointInterval > 0) {
+      ErrorPrinter.printException("The checkpoint interval needs a checkpoint file");
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Validates if the given cycle value is one of the cycle detection values. The run can only stop
+   * on a cycle in headless mode, the displays can only skip the repeated generations. The engines
+   * with an unbounded universe can not detect cycles, because a grid that repeats can still
+   * change outside of it.
+   *
+   * @param cycle The cycle argument value.
+   * @param engine The engine argument value.
+   * @param headless If the game runs in headless mode.
+   * @return The boolean result of the validation, true if the validation went fine, false if not.
+   */
+  public static boolean validateCycle(String cycle, String engine, boolean headless) {
+    if (!containsValue(cycle, ValidValues.VALID_CYCLE_VALUES)) {
+      String errorMessage =
+          "The cycle value has to be one of "
+              + String.join(", ", ValidValues.VALID_CYCLE_VALUES)
+              + ", but "
+              + cycle
+              + " given";
+      ErrorPrinter.printException(errorMessage);
+      return false;
+    } else if (GameValues.CYCLE_STOP.equals(cycle) && !headless) {
+      ErrorPrinter.printException("The run can only stop on a cycle in headless mode");
+      return false;
+    } else if (!GameValues.CYCLE_OFF.equals(cycle)
+        && (GameValues.HASHLIFE_ENGINE.equals(engine)
+            || GameValues.SPARSE_TILE_ENGINE.equals(engine))) {
+      ErrorPrinter.printException("The cycles can not be detected with the " + engine + " engine");
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Validates if the given boundary name is one of the boundary topologies and if the given engine
+   * supports it. Only the engines that evolve the grid with halo support boundaries different from
+   * dead edges.
+   *
+   * @param boundary The boundary argument value.
+   * @param engine The engine argument value.
+   * @return The boolean result of the validation, true if the validation went fine, false if not.
+   */
+  public static boolean validateBoundary(String boundary, String engine) {
+    GridBoundary gridBoundary = GridBoundary.fromArgumentName(boundary);
+    if (gridBoundary == null) {
+      String errorMessage =
+          "The boundary value has to be dead, wrap or mirror, but " + boundary + " given";
+      ErrorPrinter.printException(errorMessage);
+      return false;
+    } else if (gridBoundary != GridBoundary.DEAD
+        && !containsValue(engine, ValidValues.VALID_BOUNDARY_ENGINE_VALUES)) {
+      String errorMessage =
+          "The "
+              + boundary
+              + " boundary is only available for the "
+              + String.join(", ", ValidValues.VALID_BOUNDARY_ENGINE_VALUES)
+              + " engines";
+      ErrorPrinter.printException(errorMessage);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Validates if the given rule follows the B/S notation and if the given engine supports it. Only
+   * the engines that evolve the grid with a rule compiled kernel support rules different from the
+   * game of life, and the census mode names its objects after the game of life.
+   *
+   * @param rule The rule argument value.
+   * @param engine The engine argument value.
+   * @param census If the game runs in census mode.
+   * @return The boolean result of the validation, true if the validation went fine, false if not.
+   */
+  public static boolean validateRule(String rule, String engine, boolean census) {
+    LifeRule lifeRule;
+    try {
+      lifeRule = LifeRule.parse(rule);
+    } catch (IllegalArgumentException exception) {
+      ErrorPrinter.printException(exception.getMessage());
+      return false;
+    }
+    if (lifeRule.isConway()) {
+      return true;
+    } else if (census) {
+      ErrorPrinter.printException(
+          "The census mode only searches soups of the " + GameValues.CONWAY_RULE + " rule");
+      return false;
+    } else if (!containsValue(engine, ValidValues.VALID_RULE_ENGINE_VALUES)) {
+      String errorMessage =
+          "The "
+              + rule
+              + " rule is only available for the "
+              + String.join(", ", ValidValues.VALID_RULE_ENGINE_VALUES)
+              + " engines";
+      ErrorPrinter.printException(errorMessage);
+      return false;
     }
     return true;
   }
@@ -159,4 +764,16 @@ public class ArgumentValidator {
     }
     return false;
   }
+
+  /**
+   * @param value The value that wants to be searched.
+   * @param validValues The set of values where the value will be searched.
+   * @return The boolean value for the search. If true, the value is found, if not it is false.
+   */
+  private static boolean containsValue(String value, String[] validValues) {
+    for (String validValue : validValues) {
+      if (validValue.equals(value)) return true;
+    }
+    return false;
+  }
 }
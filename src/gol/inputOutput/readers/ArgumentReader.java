@@ -43,6 +43,58 @@ public class ArgumentReader {
     return readArgumentValue(arguments, argumentIdentifier).orElse(ErrorReturns.stringErrorReturn);
   }
 
+  /**
+   * Method for reading an optional numeric value from the given arguments array. If the argument is
+   * not present the default value is returned, if it is repeated, empty or can't be parsed to
+   * integer it prints an error in the console.
+   *
+   * @param arguments The arguments array.
+   * @param argumentIdentifier The identifier for the needed argument value.
+   * @param defaultValue The value to use when the argument is not given.
+   * @return Returns the integer value for the given argument, the default value if it is not given,
+   *     or the int error return if it is repeated, empty or not an integer.
+   */
+  public static int readOptionalNumericArgument(
+      String[] arguments, char argumentIdentifier, int defaultValue) {
+    if (!containsArgument(arguments, argumentIdentifier)) {
+      return defaultValue;
+    }
+    return readNumericArgument(arguments, argumentIdentifier);
+  }
+
+  /**
+   * Method for reading an optional value from the given arguments array. If the argument is not
+   * present the default value is returned, if it is repeated or empty it prints an error in the
+   * console.
+   *
+   * @param arguments The arguments array.
+   * @param argumentIdentifier The identifier for the needed argument value.
+   * @param defaultValue The value to use when the argument is not given.
+   * @return Returns string value for the given argument, the default value if it is not given, or
+   *     null if it is repeated or empty.
+   */
+  public static String readOptionalStringArg(
+      String[] arguments, char argumentIdentifier, String defaultValue) {
+    if (!containsArgument(arguments, argumentIdentifier)) {
+      return defaultValue;
+    }
+    return readStringArg(arguments, argumentIdentifier);
+  }
+
+  /**
+   * Checks if the given argument identifier is present in the arguments array.
+   *
+   * @param arguments The arguments array.
+   * @param argumentIdentifier The searched argument identifier.
+   * @return Returns true if at least one argument starts with the identifier, false if not.
+   */
+  public static boolean containsArgument(String[] arguments, char argumentIdentifier) {
+    for (String arg : arguments) {
+      if (arg.charAt(0) == argumentIdentifier) return true;
+    }
+    return false;
+  }
+
   /**
    * Reads the string value for the given argument identifier. Will print an error in the console if
    * any.
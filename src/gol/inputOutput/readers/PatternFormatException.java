@@ -0,0 +1,19 @@
+package gol.inputOutput.readers;
+
+import java.io.IOException;
+
+/** Exception for a pattern file that does not follow its format, with the position of the error. */
+public class PatternFormatException extends IOException {
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Constructor for the exception.
+   *
+   * @param message The description of the error.
+   * @param line The line of the error, starting at one.
+   * @param column The column of the error, starting at one.
+   */
+  public PatternFormatException(String message, long line, long column) {
+    super(message + " at line " + line + ", column " + column);
+  }
+}
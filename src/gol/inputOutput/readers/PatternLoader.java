@@ -0,0 +1,273 @@
+package gol.inputOutput.readers;
+
+import gol.game.engine.GridWriter;
+import gol.game.engine.LifeRule;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Loads the standard pattern files into a grid. The file is read in chunks and parsed character by
+ * character, and every alive cell is set in the grid as soon as it is read, so the pattern is never
+ * held in memory as a string.
+ *
+ * <p>Two formats are supported. The run length encoded format, with the {@code x = m, y = n}
+ * header, is placed with its bounding box centered in the grid. The Life 1.06 format, starting
+ * with the {@code #Life 1.06} line and followed by one {@code x y} cell per line, is placed with
+ * its origin in the center of the grid. The rule of a run length encoded pattern, in the B/S or in
+ * the older S/B notation, has to be the rule of the game.
+ */
+public class PatternLoader {
+  private static final String LIFE_106_HEADER = "#Life 1.06";
+  private static final int BUFFER_CHARS = 1 << 13;
+  private static final int END = -1;
+
+  private final Input input;
+  private final GridWriter grid;
+  private final LifeRule rule;
+
+  private PatternLoader(Reader reader, GridWriter grid, LifeRule rule) {
+    this.input = new Input(reader);
+    this.grid = grid;
+    this.rule = rule;
+  }
+
+  /**
+   * Loads the pattern of the given reader into the grid. The reader is not closed.
+   *
+   * @param reader The reader of the pattern file.
+   * @param grid The grid where the alive cells are set.
+   * @param rule The rule of the game.
+   * @throws PatternFormatException If the pattern does not follow its format, it has another rule
+   *     or it does not fit in the grid.
+   * @throws IOException If the reader fails.
+   */
+  public static void load(Reader reader, GridWriter grid, LifeRule rule) throws IOException {
+    new PatternLoader(reader, grid, rule).load();
+  }
+
+  private void load() throws IOException {
+    if (input.peek() == '#') {
+      if (input.skipHeader(LIFE_106_HEADER)) {
+        loadLife106();
+        return;
+      }
+      input.skipLine();
+    }
+    loadRle();
+  }
+
+  private void loadLife106() throws IOException {
+    long rowOffset = grid.getHeight() / 2;
+    long columnOffset = grid.getWidth() / 2;
+    while (input.skipBlankLines() != END) {
+      if (input.peek() == '#') {
+        input.skipLine();
+        continue;
+      }
+      long column = input.readNumber(true);
+      input.skipSpaces();
+      long row = input.readNumber(true);
+      input.skipSpaces();
+      input.expectLineEnd();
+      setAlive(rowOffset + row, columnOffset + column);
+    }
+  }
+
+  private void loadRle() throws IOException {
+    while (input.skipBlankLines() == '#') input.skipLine();
+    input.expect('x');
+    input.expect('=');
+    long patternWidth = input.readNumber(false);
+    input.expect(',');
+    input.expect('y');
+    input.expect('=');
+    long patternHeight = input.readNumber(false);
+    input.skipSpaces();
+    if (input.peek() == ',') {
+      input.read();
+      readRleRule();
+    }
+    input.expectLineEnd();
+
+    long rowOffset = (grid.getHeight() - patternHeight) / 2;
+    long columnOffset = (grid.getWidth() - patternWidth) / 2;
+    long row = 0;
+    long column = 0;
+    while (true) {
+      int character = input.skipBlankLines();
+      long count = 1;
+      if (character >= '0' && character <= '9') {
+        count = input.readNumber(false);
+        character = input.skipBlankLines();
+      }
+      if (character == 'b' || character == '.') {
+        input.read();
+        column += count;
+      } else if (character == 'o' || character == 'A') {
+        input.read();
+        for (long index = 0; index < count; index++) {
+          setAlive(rowOffset + row, columnOffset + column++);
+        }
+      } else if (character == '$') {
+        input.read();
+        row += count;
+        column = 0;
+      } else if (character == '!') {
+        return;
+      } else if (character == END) {
+        throw input.error("The pattern ended without the ! mark");
+      } else {
+        throw input.error("Unexpected character " + (char) character);
+      }
+    }
+  }
+
+  private void readRleRule() throws IOException {
+    input.expect('r');
+    input.expectWord("ule");
+    input.expect('=');
+    input.skipSpaces();
+    StringBuilder patternRule = new StringBuilder();
+    for (int character = input.peek();
+        character != END && character != '\n' && character != '\r' && character != ' ';
+        character = input.peek()) {
+      patternRule.append((char) input.read());
+    }
+    LifeRule parsedRule;
+    try {
+      parsedRule = LifeRule.parse(patternRule.toString());
+    } catch (IllegalArgumentException exception) {
+      throw input.error("The pattern rule " + patternRule + " is not supported");
+    }
+    if (!parsedRule.equals(rule)) {
+      throw input.error("The pattern rule " + parsedRule + " is not the rule " + rule);
+    }
+  }
+
+  private void setAlive(long rowIndex, long columnIndex) throws PatternFormatException {
+    if (rowIndex < 0
+        || rowIndex >= grid.getHeight()
+        || columnIndex < 0
+        || columnIndex >= grid.getWidth()) {
+      throw input.error("The pattern does not fit in the grid");
+    }
+    grid.setCellAlive((int) rowIndex, (int) columnIndex);
+  }
+
+  /** Buffered characters of the reader, which keeps the position for the error messages. */
+  private static final class Input {
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_CHARS];
+    private int position;
+    private int limit;
+    private long line = 1;
+    private long column = 1;
+
+    private Input(Reader reader) {
+      this.reader = reader;
+    }
+
+    private int peek() throws IOException {
+      if (position == limit) {
+        limit = reader.read(buffer, 0, buffer.length);
+        position = 0;
+        if (limit <= 0) {
+          limit = 0;
+          return END;
+        }
+      }
+      return buffer[position];
+    }
+
+    private int read() throws IOException {
+      int character = peek();
+      if (character == END) return END;
+      position++;
+      if (character == '\n') {
+        line++;
+        column = 1;
+      } else {
+        column++;
+      }
+      return character;
+    }
+
+    /**
+     * Skips the given header and the rest of its line if the input starts with it. If not, the
+     * matching characters are skipped.
+     */
+    private boolean skipHeader(String header) throws IOException {
+      for (int index = 0; index < header.length(); index++) {
+        if (peek() != header.charAt(index)) return false;
+        read();
+      }
+      skipLine();
+      return true;
+    }
+
+    private void skipLine() throws IOException {
+      int character;
+      do {
+        character = read();
+      } while (character != '\n' && character != END);
+    }
+
+    private void skipSpaces() throws IOException {
+      while (peek() == ' ' || peek() == '\t') read();
+    }
+
+    /** Skips the whitespace and the empty lines, and returns the next character. */
+    private int skipBlankLines() throws IOException {
+      int character = peek();
+      while (character == ' ' || character == '\t' || character == '\r' || character == '\n') {
+        read();
+        character = peek();
+      }
+      return character;
+    }
+
+    private void expect(char expected) throws IOException {
+      skipSpaces();
+      if (peek() != expected) throw error("Expected " + expected);
+      read();
+    }
+
+    private void expectWord(String word) throws IOException {
+      for (int index = 0; index < word.length(); index++) {
+        if (peek() != word.charAt(index)) throw error("Expected " + word);
+        read();
+      }
+    }
+
+    private void expectLineEnd() throws IOException {
+      skipSpaces();
+      int character = peek();
+      if (character == '\r') {
+        read();
+        character = peek();
+      }
+      if (character != '\n' && character != END) throw error("Expected the end of the line");
+      read();
+    }
+
+    private long readNumber(boolean signed) throws IOException {
+      skipSpaces();
+      boolean negative = signed && peek() == '-';
+      if (negative) read();
+      int character = peek();
+      if (character < '0' || character > '9') throw error("Expected a number");
+      long number = 0;
+      while (character >= '0' && character <= '9') {
+        if (number > (Long.MAX_VALUE - 9) / 10) throw error("The number is too large");
+        number = number * 10 + (character - '0');
+        read();
+        character = peek();
+      }
+      return negative ? -number : number;
+    }
+
+    private PatternFormatException error(String message) {
+      return new PatternFormatException(message, line, column);
+    }
+  }
+}
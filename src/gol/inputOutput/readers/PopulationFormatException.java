@@ -0,0 +1,19 @@
+package gol.inputOutput.readers;
+
+import java.io.IOException;
+
+/** Exception for a population that does not fit in the grid, with the position of the error. */
+public class PopulationFormatException extends IOException {
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Constructor for the exception.
+   *
+   * @param message The description of the error.
+   * @param row The row of the error, starting at one.
+   * @param column The column of the error, starting at one.
+   */
+  public PopulationFormatException(String message, long row, long column) {
+    super(message + " at row " + row + ", column " + column);
+  }
+}
@@ -0,0 +1,114 @@
+package gol.inputOutput.readers;
+
+import gol.game.engine.GridWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+
+/**
+ * Validates and loads a population string into a grid in a single pass. The rows are separated by
+ * the {@code #} character and every cell is a {@code 1} or a {@code 0}, and the cells are set in
+ * the grid a word of 64 columns at a time as they are read. The population is never split or
+ * copied, and the first character that does not fit in the grid stops the load with its row and
+ * column.
+ */
+public class PopulationLoader {
+  private static final int BUFFER_CHARS = 1 << 13;
+
+  private final GridWriter grid;
+  private int row;
+  private int column;
+  private long word;
+
+  private PopulationLoader(GridWriter grid) {
+    this.grid = grid;
+  }
+
+  /**
+   * Loads the given population into the grid, which is expected to have only dead cells.
+   *
+   * @param population The population string.
+   * @param grid The grid where the alive cells are set.
+   * @throws PopulationFormatException If the population has other characters than the cells and
+   *     the row separators, or it does not fit in the grid.
+   */
+  public static void load(CharSequence population, GridWriter grid)
+      throws PopulationFormatException {
+    PopulationLoader loader = new PopulationLoader(grid);
+    loader.accept(population);
+    loader.finishRow();
+  }
+
+  /**
+   * Loads the population of the given reader into the grid, which is expected to have only dead
+   * cells. The reader is not closed.
+   *
+   * @param reader The reader of the population.
+   * @param grid The grid where the alive cells are set.
+   * @throws PopulationFormatException If the population has other characters than the cells and
+   *     the row separators, or it does not fit in the grid.
+   * @throws IOException If the reader fails.
+   */
+  public static void load(Reader reader, GridWriter grid) throws IOException {
+    PopulationLoader loader = new PopulationLoader(grid);
+    char[] buffer = new char[BUFFER_CHARS];
+    for (int read = reader.read(buffer); read >= 0; read = reader.read(buffer)) {
+      loader.accept(CharBuffer.wrap(buffer, 0, read));
+    }
+    loader.finishRow();
+  }
+
+  /**
+   * Reads the given characters, which continue the ones already read. The cells are packed into
+   * the word of their columns without branching on their value, until the word is full, the row
+   * ends or a character is not a cell, and the word is set in the grid when it is full.
+   */
+  private void accept(CharSequence characters) throws PopulationFormatException {
+    int length = characters.length();
+    int index = 0;
+    while (index < length) {
+      int shift = column & (Long.SIZE - 1);
+      int wordColumns = Math.min(Long.SIZE - shift, grid.getWidth() - column);
+      long packedWord = word;
+      int cells = 0;
+      for (; cells < wordColumns && index < length; cells++, index++) {
+        int cell = characters.charAt(index) - '0';
+        if ((cell & ~1) != 0) break;
+        packedWord |= (long) cell << (shift + cells);
+      }
+      column += cells;
+      word = packedWord;
+      if (cells > 0 && (column & (Long.SIZE - 1)) == 0) {
+        grid.setRowWord(row, (column - 1) / Long.SIZE, word);
+        word = 0;
+      }
+      if (index == length) return;
+      if (cells == wordColumns && column < grid.getWidth()) continue;
+      acceptSeparator(characters.charAt(index++));
+    }
+  }
+
+  /** Starts the next row, or reports the character that is not a cell or does not fit the row. */
+  private void acceptSeparator(char character) throws PopulationFormatException {
+    if (character == '1' || character == '0') {
+      throw error("Invalid population, it has more columns than the grid width");
+    } else if (character != '#') {
+      throw error("Invalid population, it has values different than zero or one");
+    } else if (row + 1 == grid.getHeight()) {
+      throw error("Invalid population, it has more rows than the grid height");
+    }
+    finishRow();
+    row++;
+    column = 0;
+  }
+
+  /** Sets the word of the last columns of the row, if the row ended before filling it. */
+  private void finishRow() {
+    if ((column & (Long.SIZE - 1)) != 0) grid.setRowWord(row, column / Long.SIZE, word);
+    word = 0;
+  }
+
+  private PopulationFormatException error(String message) {
+    return new PopulationFormatException(message, row + 1L, column + 1L);
+  }
+}
@@ -0,0 +1,214 @@
+package gol.inputOutput.renderers;
+
+import gol.GolFrame;
+import gol.GolFrameGenerator;
+import gol.GolSettings;
+import gol.game.constants.ColorCodes;
+import gol.game.constants.GameValues;
+import gol.game.metrics.SimulationMetrics;
+import gol.inputOutput.printers.ErrorPrinter;
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Terminal renderer that only redraws the cells that changed since the last drawn frame, moving the
+ * cursor to them with ansi escape codes. Every frame is written to one buffered stream and flushed
+ * once. The frame rate is limited by the game speed, which waits at least 250 milliseconds between
+ * generations, so the output bandwidth is at most four changed grids per second.
+ */
+public class AnsiTerminalRenderer {
+  private static final byte ESCAPE = 0x1B;
+  private static final byte[] CLEAR_SCREEN = ansi("\u001B[2J");
+  private static final byte[] HIDE_CURSOR = ansi("\u001B[?25l");
+  private static final byte[] SHOW_CURSOR = ansi("\u001B[?25h");
+  private static final byte[] ALIVE_COLOR = ansi(ColorCodes.CYAN_COLOR);
+  private static final byte[] DEAD_COLOR = ansi(ColorCodes.WHITE_COLOR);
+  private static final byte[] STATS_COLOR = ansi(ColorCodes.YELLOW_COLOR);
+  private static final byte[] CLEAR_LINE = ansi("\u001B[2K");
+
+  private final OutputStream output;
+  private final int width;
+  private final int height;
+  private final int wordsPerRow;
+  private final long[][] drawnWords;
+  private boolean firstFrame = true;
+  private byte[] currentColor;
+
+  /**
+   * Constructor for the renderer.
+   *
+   * @param output The stream where the frames are written, it should be buffered.
+   * @param width The width of the grid.
+   * @param height The height of the grid.
+   */
+  public AnsiTerminalRenderer(OutputStream output, int width, int height) {
+    this.output = output;
+    this.width = width;
+    this.height = height;
+    this.wordsPerRow = (width + Long.SIZE - 1) / Long.SIZE;
+    this.drawnWords = new long[height][wordsPerRow];
+  }
+
+  /**
+   * Renders the generations of the generator in the standard output until the max generations of
+   * the settings, waiting the settings frequency between generations. A max generations of zero
+   * renders forever.
+   *
+   * @param generator The generator of the frames.
+   * @param settings The game settings.
+   */
+  public static void render(GolFrameGenerator generator, GolSettings settings) {
+    render(generator, settings, null);
+  }
+
+  /**
+   * Renders the generations of the generator in the standard output until the max generations of
+   * the settings, recording the time to draw every frame in the given metrics.
+   *
+   * @param generator The generator of the frames.
+   * @param settings The game settings.
+   * @param metrics The metrics of the simulation, or null if they are not recorded.
+   */
+  public static void render(
+      GolFrameGenerator generator, GolSettings settings, SimulationMetrics metrics) {
+    OutputStream output =
+        new BufferedOutputStream(
+            new FileOutputStream(FileDescriptor.out), GameValues.ANSI_OUTPUT_BUFFER_BYTES);
+    AnsiTerminalRenderer renderer =
+        new AnsiTerminalRenderer(output, settings.getCols(), settings.getRows());
+    try {
+      renderer.start();
+      long maxGenerations = settings.getMaxGenerations();
+      for (long generation = 0; maxGenerations == 0 || generation < maxGenerations; generation++) {
+        GolFrame frame = generator.getNextGenerationFrame(generation);
+        long startNanos = System.nanoTime();
+        renderer.drawFrame(frame);
+        if (metrics != null) metrics.recordRender(System.nanoTime() - startNanos);
+        TimeUnit.MILLISECONDS.sleep(settings.getFrequency());
+      }
+    } catch (IOException exception) {
+      ErrorPrinter.printError("Error writing to the terminal: " + exception.getMessage());
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    } finally {
+      finish(renderer);
+    }
+  }
+
+  /** Restores the terminal even if the generator failed, so the cursor and colors are not lost. */
+  private static void finish(AnsiTerminalRenderer renderer) {
+    try {
+      renderer.finish();
+    } catch (IOException exception) {
+      ErrorPrinter.printError("Error writing to the terminal: " + exception.getMessage());
+    }
+  }
+
+  private static byte[] ansi(String sequence) {
+    return sequence.getBytes(StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * Clears the screen and hides the cursor.
+   *
+   * @throws IOException If the output can not be written.
+   */
+  public void start() throws IOException {
+    output.write(CLEAR_SCREEN);
+    output.write(HIDE_CURSOR);
+    output.flush();
+  }
+
+  /**
+   * Draws the cells of the frame that changed since the last drawn frame.
+   *
+   * @param frame The frame to draw.
+   * @throws IOException If the output can not be written.
+   */
+  public void drawFrame(GolFrame frame) throws IOException {
+    for (int rowIndex = 0; rowIndex < height; rowIndex++) {
+      long[] drawnRow = drawnWords[rowIndex];
+      for (int wordIndex = 0; wordIndex < wordsPerRow; wordIndex++) {
+        long word = frame.getRowWord(rowIndex, wordIndex);
+        long changed = firstFrame ? wordMask(wordIndex) : word ^ drawnRow[wordIndex];
+        if (changed != 0) {
+          drawChangedCells(rowIndex, wordIndex, word, changed);
+          drawnRow[wordIndex] = word;
+        }
+      }
+    }
+    drawStats(frame.getGeneration());
+    output.flush();
+    firstFrame = false;
+  }
+
+  /**
+   * Moves the cursor under the grid, restores the colors and shows the cursor again.
+   *
+   * @throws IOException If the output can not be written.
+   */
+  public void finish() throws IOException {
+    moveCursor(height + 3, 1);
+    setColor(DEAD_COLOR);
+    output.write(SHOW_CURSOR);
+    output.flush();
+  }
+
+  private long wordMask(int wordIndex) {
+    int columns = Math.min(width - wordIndex * Long.SIZE, Long.SIZE);
+    return columns == Long.SIZE ? -1L : (1L << columns) - 1;
+  }
+
+  /** Draws the changed cells of a word, moving the cursor only at the start of every run. */
+  private void drawChangedCells(int rowIndex, int wordIndex, long word, long changed)
+      throws IOException {
+    int previousBit = -2;
+    while (changed != 0) {
+      int bit = Long.numberOfTrailingZeros(changed);
+      changed &= changed - 1;
+      if (bit != previousBit + 1) moveCursor(rowIndex + 1, wordIndex * Long.SIZE + bit + 1);
+      boolean alive = (word & (1L << bit)) != 0;
+      setColor(alive ? ALIVE_COLOR : DEAD_COLOR);
+      output.write(alive ? GameValues.ALIVE_CELL_CHAR : GameValues.DEAD_CELL_CHAR);
+      previousBit = bit;
+    }
+  }
+
+  private void drawStats(long generation) throws IOException {
+    moveCursor(height + 2, 1);
+    output.write(CLEAR_LINE);
+    setColor(STATS_COLOR);
+    writeAscii("Generation: ");
+    writeNumber(generation);
+  }
+
+  private void setColor(byte[] color) throws IOException {
+    if (color != currentColor) {
+      output.write(color);
+      currentColor = color;
+    }
+  }
+
+  private void moveCursor(int row, int column) throws IOException {
+    output.write(ESCAPE);
+    output.write('[');
+    writeNumber(row);
+    output.write(';');
+    writeNumber(column);
+    output.write('H');
+  }
+
+  private void writeAscii(String text) throws IOException {
+    for (int index = 0; index < text.length(); index++) output.write(text.charAt(index));
+  }
+
+  private void writeNumber(long number) throws IOException {
+    if (number >= 10) writeNumber(number / 10);
+    output.write((int) ('0' + number % 10));
+  }
+}
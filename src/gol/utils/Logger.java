@@ -11,10 +11,24 @@ public class Logger {
     System.out.println(message + ':' + value);
   }
 
+  public static void logConfigurationValue(String message, long value) {
+    System.out.println(message + ':' + value);
+  }
+
+  public static void logMetrics(String metricsDump) {
+    System.out.println(metricsDump);
+  }
+
   public static void logGridCellValue(int value) {
     System.out.println('|' + value + '|');
   }
 
+  public static void logGridRow(int[] row) {
+    StringBuilder rowValues = new StringBuilder(row.length * 3);
+    for (int value : row) rowValues.append('|').append(value).append('|');
+    System.out.println(rowValues);
+  }
+
   public static void logNewLine() {
     System.out.println();
   }
@@ -0,0 +1,139 @@
+package gol.utils;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Hash map with primitive long keys and open addressing, so the keys are never boxed. The null
+ * value is not allowed, it marks the free slots.
+ *
+ * @param <V> The type of the values.
+ */
+public class LongHashMap<V> {
+  private static final int INITIAL_CAPACITY = 16;
+
+  private long[] keys;
+  private Object[] values;
+  private int size;
+
+  /** Constructor for an empty map. */
+  public LongHashMap() {
+    keys = new long[INITIAL_CAPACITY];
+    values = new Object[INITIAL_CAPACITY];
+  }
+
+  private static int slotFor(long key, int mask) {
+    long hash = key * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32)) & mask;
+  }
+
+  /**
+   * Returns the value for the given key.
+   *
+   * @param key The key of the value.
+   * @return The value for the key, or null if the key is not in the map.
+   */
+  @SuppressWarnings("unchecked")
+  public V get(long key) {
+    int mask = keys.length - 1;
+    for (int slot = slotFor(key, mask); values[slot] != null; slot = (slot + 1) & mask) {
+      if (keys[slot] == key) return (V) values[slot];
+    }
+    return null;
+  }
+
+  /**
+   * Puts the given value for the given key, replacing the previous value if any.
+   *
+   * @param key The key of the value.
+   * @param value The value, which can not be null.
+   */
+  public void put(long key, V value) {
+    if (size >= keys.length - (keys.length >> 2)) resize(keys.length << 1);
+    int mask = keys.length - 1;
+    int slot = slotFor(key, mask);
+    while (values[slot] != null) {
+      if (keys[slot] == key) {
+        values[slot] = value;
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    size++;
+  }
+
+  /**
+   * Removes the value for the given key. The following entries of the probe sequence are shifted
+   * back, so the lookups never need tombstones.
+   *
+   * @param key The key of the value to remove.
+   */
+  public void remove(long key) {
+    int mask = keys.length - 1;
+    int slot = slotFor(key, mask);
+    while (values[slot] != null && keys[slot] != key) slot = (slot + 1) & mask;
+    if (values[slot] == null) return;
+
+    int freeSlot = slot;
+    for (int next = (slot + 1) & mask; values[next] != null; next = (next + 1) & mask) {
+      int home = slotFor(keys[next], mask);
+      boolean movable =
+          freeSlot <= next ? (home <= freeSlot || home > next) : (home <= freeSlot && home > next);
+      if (movable) {
+        keys[freeSlot] = keys[next];
+        values[freeSlot] = values[next];
+        freeSlot = next;
+      }
+    }
+    values[freeSlot] = null;
+    size--;
+  }
+
+  /**
+   * Calls the given action with every value of the map. The map can not be modified during the
+   * call.
+   *
+   * @param action The action for every value.
+   */
+  @SuppressWarnings("unchecked")
+  public void forEachValue(Consumer<? super V> action) {
+    for (Object value : values) {
+      if (value != null) action.accept((V) value);
+    }
+  }
+
+  /**
+   * Copies the values of the map into the given array, growing it if it is too small.
+   *
+   * @param array The array where the values are copied.
+   * @return The array with the values, followed by nulls if there is space left.
+   */
+  @SuppressWarnings("unchecked")
+  public V[] valuesToArray(V[] array) {
+    V[] result = array.length >= size ? array : Arrays.copyOf(array, size);
+    int index = 0;
+    for (Object value : values) {
+      if (value != null) result[index++] = (V) value;
+    }
+    Arrays.fill(result, index, result.length, null);
+    return result;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void resize(int capacity) {
+    long[] oldKeys = keys;
+    Object[] oldValues = values;
+    keys = new long[capacity];
+    values = new Object[capacity];
+    size = 0;
+    for (int slot = 0; slot < oldKeys.length; slot++) {
+      if (oldValues[slot] != null) put(oldKeys[slot], (V) oldValues[slot]);
+    }
+  }
+}